@@ -0,0 +1,109 @@
+package io.github.dominys.patcher.apt;
+
+import io.github.dominys.patcher.annotation.PatchMode;
+
+/**
+ * {@code PatchField} model.
+ */
+class PatchableField {
+
+  private final String name;
+  private final String fieldName;
+  private final PatchMode mode;
+  private final String type;
+  private final boolean primitive;
+  private final String getter;
+  private final String setter;
+  private final String nestedProcessor;
+  private final String elementType;
+  private final String keyType;
+  private final String keyGetter;
+
+  PatchableField(String name, String fieldName, PatchMode mode, String type, boolean primitive,
+                 String getter, String setter, String nestedProcessor, String elementType,
+                 String keyType, String keyGetter) {
+    this.name = name;
+    this.fieldName = fieldName;
+    this.mode = mode;
+    this.type = type;
+    this.primitive = primitive;
+    this.getter = getter;
+    this.setter = setter;
+    this.nestedProcessor = nestedProcessor;
+    this.elementType = elementType;
+    this.keyType = keyType;
+    this.keyGetter = keyGetter;
+  }
+
+  /**
+   * Java field name.
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Model field name.
+   */
+  String getFieldName() {
+    return fieldName;
+  }
+
+  PatchMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Whether the field is merged by a {@code ListUpdateOperation}.
+   */
+  boolean isMergeList() {
+    return mode == PatchMode.MERGE_LIST || mode == PatchMode.MERGE_LIST_IN_PLACE;
+  }
+
+  String getType() {
+    return type;
+  }
+
+  boolean isPrimitive() {
+    return primitive;
+  }
+
+  String getGetter() {
+    return getter;
+  }
+
+  String getSetter() {
+    return setter;
+  }
+
+  /**
+   * Canonical name of the generated processor of the field, or of the list elements.
+   */
+  String getNestedProcessor() {
+    return nestedProcessor;
+  }
+
+  String getElementType() {
+    return elementType;
+  }
+
+  String getKeyType() {
+    return keyType;
+  }
+
+  String getKeyGetter() {
+    return keyGetter;
+  }
+
+  String getConstantName() {
+    StringBuilder constant = new StringBuilder();
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (Character.isUpperCase(c) && i > 0) {
+        constant.append('_');
+      }
+      constant.append(Character.toUpperCase(c));
+    }
+    return constant.toString();
+  }
+}
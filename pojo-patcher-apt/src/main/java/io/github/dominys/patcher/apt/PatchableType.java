@@ -0,0 +1,44 @@
+package io.github.dominys.patcher.apt;
+
+import java.util.List;
+
+/**
+ * {@code Patchable} POJO model.
+ */
+class PatchableType {
+
+  private final String packageName;
+  private final String typeName;
+  private final String processorName;
+  private final List<PatchableField> fields;
+
+  PatchableType(String packageName, String typeName, String processorName,
+                List<PatchableField> fields) {
+    this.packageName = packageName;
+    this.typeName = typeName;
+    this.processorName = processorName;
+    this.fields = fields;
+  }
+
+  String getPackageName() {
+    return packageName;
+  }
+
+  /**
+   * Canonical name of the POJO.
+   */
+  String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * Simple name of the generated processor.
+   */
+  String getProcessorName() {
+    return processorName;
+  }
+
+  List<PatchableField> getFields() {
+    return fields;
+  }
+}
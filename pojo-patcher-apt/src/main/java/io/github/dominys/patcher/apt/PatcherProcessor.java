@@ -0,0 +1,238 @@
+package io.github.dominys.patcher.apt;
+
+import io.github.dominys.patcher.annotation.PatchField;
+import io.github.dominys.patcher.annotation.PatchMode;
+import io.github.dominys.patcher.annotation.Patchable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor generating {@code FieldUpdateProcessor}s for {@link Patchable} POJOs.
+ *
+ * <p>The generated processors read and write the fields directly through their getters and
+ * setters, without lambdas or a registration step, and report the same
+ * {@code FieldUpdateResult}s and {@code FieldUpdateException} paths as the equivalent
+ * {@code BaseFieldUpdateProcessor} mappings. Keyed lists are merged by
+ * {@code ListUpdateOperation}.
+ */
+@SupportedAnnotationTypes("io.github.dominys.patcher.annotation.Patchable")
+public class PatcherProcessor extends AbstractProcessor {
+
+  static final String PROCESSOR_SUFFIX = "UpdateProcessor";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(Patchable.class)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@Patchable is only supported on classes");
+        continue;
+      }
+      PatchableType type = readType((TypeElement) element);
+      if (type != null) {
+        write((TypeElement) element, type);
+      }
+    }
+    return true;
+  }
+
+  private PatchableType readType(TypeElement typeElement) {
+    boolean valid = true;
+    List<PatchableField> fields = new ArrayList<>();
+    for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+      PatchField patchField = field.getAnnotation(PatchField.class);
+      if (patchField == null) {
+        continue;
+      }
+      PatchableField patchableField = readField(typeElement, field, patchField);
+      if (patchableField == null) {
+        valid = false;
+      } else {
+        fields.add(patchableField);
+      }
+    }
+    if (!valid) {
+      return null;
+    }
+    String packageName = processingEnv.getElementUtils().getPackageOf(typeElement)
+        .getQualifiedName().toString();
+    return new PatchableType(packageName, typeElement.getQualifiedName().toString(),
+        processorSimpleName(typeElement), fields);
+  }
+
+  private PatchableField readField(TypeElement typeElement, VariableElement field,
+                                   PatchField patchField) {
+    String name = field.getSimpleName().toString();
+    String fieldName = patchField.name().isEmpty() ? name : patchField.name();
+    TypeMirror type = field.asType();
+
+    ExecutableElement getter = findGetter(typeElement, name, type);
+    ExecutableElement setter = findSetter(typeElement, name, type);
+    if (getter == null || setter == null) {
+      error(field, "@PatchField requires a public getter and setter for '" + name + "'");
+      return null;
+    }
+
+    if (patchField.mode() != PatchMode.MERGE_LIST
+        && patchField.mode() != PatchMode.MERGE_LIST_IN_PLACE) {
+      String nestedProcessor = patchField.mode() == PatchMode.MAP ? findProcessor(type) : null;
+      return new PatchableField(name, fieldName, patchField.mode(), type.toString(),
+          type.getKind().isPrimitive(), getter.getSimpleName().toString(),
+          setter.getSimpleName().toString(), nestedProcessor, null, null, null);
+    }
+
+    TypeMirror elementType = listElementType(type);
+    if (elementType == null) {
+      error(field, "MERGE_LIST requires a java.util.List<E> field: '" + name + "'");
+      return null;
+    }
+    if (patchField.key().isEmpty()) {
+      error(field, "MERGE_LIST requires a key property: '" + name + "'");
+      return null;
+    }
+    TypeElement elementTypeElement = (TypeElement) processingEnv.getTypeUtils()
+        .asElement(elementType);
+    ExecutableElement keyGetter = findGetter(elementTypeElement, patchField.key(), null);
+    if (keyGetter == null) {
+      error(field, "Key property '" + patchField.key() + "' not found on " + elementType);
+      return null;
+    }
+    TypeMirror keyType = keyGetter.getReturnType();
+    if (keyType.getKind().isPrimitive()) {
+      keyType = processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils()
+          .getPrimitiveType(keyType.getKind())).asType();
+    }
+    return new PatchableField(name, fieldName, patchField.mode(), type.toString(), false,
+        getter.getSimpleName().toString(), setter.getSimpleName().toString(),
+        findProcessor(elementType), elementType.toString(), keyType.toString(),
+        keyGetter.getSimpleName().toString());
+  }
+
+  private TypeMirror listElementType(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    DeclaredType declaredType = (DeclaredType) type;
+    TypeElement listElement = processingEnv.getElementUtils().getTypeElement("java.util.List");
+    if (!processingEnv.getTypeUtils().isSameType(
+        processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils()
+            .erasure(listElement.asType()))
+        || declaredType.getTypeArguments().size() != 1) {
+      return null;
+    }
+    TypeMirror elementType = declaredType.getTypeArguments().get(0);
+    return elementType.getKind() == TypeKind.DECLARED ? elementType : null;
+  }
+
+  private String findProcessor(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+    if (typeElement.getAnnotation(Patchable.class) == null) {
+      return null;
+    }
+    String packageName = processingEnv.getElementUtils().getPackageOf(typeElement)
+        .getQualifiedName().toString();
+    String simpleName = processorSimpleName(typeElement);
+    return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+  }
+
+  private ExecutableElement findGetter(TypeElement typeElement, String property,
+                                       TypeMirror type) {
+    String suffix = capitalize(property);
+    for (ExecutableElement method : publicMethods(typeElement)) {
+      String methodName = method.getSimpleName().toString();
+      boolean getterName = methodName.equals("get" + suffix) || methodName.equals("is" + suffix)
+          && method.getReturnType().getKind() == TypeKind.BOOLEAN;
+      if (getterName && method.getParameters().isEmpty()
+          && method.getReturnType().getKind() != TypeKind.VOID
+          && (type == null || processingEnv.getTypeUtils()
+          .isSameType(method.getReturnType(), type))) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  private ExecutableElement findSetter(TypeElement typeElement, String property,
+                                       TypeMirror type) {
+    String methodName = "set" + capitalize(property);
+    for (ExecutableElement method : publicMethods(typeElement)) {
+      if (method.getSimpleName().contentEquals(methodName) && method.getParameters().size() == 1
+          && processingEnv.getTypeUtils()
+          .isSameType(method.getParameters().get(0).asType(), type)) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  private List<ExecutableElement> publicMethods(TypeElement typeElement) {
+    List<ExecutableElement> methods = new ArrayList<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(
+        processingEnv.getElementUtils().getAllMembers(typeElement))) {
+      if (method.getModifiers().contains(Modifier.PUBLIC)
+          && !method.getModifiers().contains(Modifier.STATIC)) {
+        methods.add(method);
+      }
+    }
+    return methods;
+  }
+
+  private void write(TypeElement typeElement, PatchableType type) {
+    String processorName = type.getPackageName().isEmpty() ? type.getProcessorName()
+        : type.getPackageName() + '.' + type.getProcessorName();
+    try {
+      JavaFileObject sourceFile = processingEnv.getFiler()
+          .createSourceFile(processorName, typeElement);
+      try (Writer writer = sourceFile.openWriter()) {
+        new ProcessorWriter(type).write(writer);
+      }
+    } catch (IOException ex) {
+      error(typeElement, "Failed to write " + processorName + ": " + ex.getMessage());
+    }
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private static String processorSimpleName(TypeElement typeElement) {
+    StringBuilder name = new StringBuilder(typeElement.getSimpleName());
+    Element enclosing = typeElement.getEnclosingElement();
+    while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+      name.insert(0, enclosing.getSimpleName() + "_");
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name.append(PROCESSOR_SUFFIX).toString();
+  }
+
+  private static String capitalize(String property) {
+    return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+  }
+}
@@ -0,0 +1,232 @@
+package io.github.dominys.patcher.apt;
+
+import io.github.dominys.patcher.annotation.PatchMode;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the source of a generated processor.
+ */
+class ProcessorWriter {
+
+  private static final String PATCHER = "io.github.dominys.patcher.";
+
+  private final PatchableType type;
+  private final StringBuilder out = new StringBuilder();
+
+  ProcessorWriter(PatchableType type) {
+    this.type = type;
+  }
+
+  void write(Writer writer) throws IOException {
+    if (!type.getPackageName().isEmpty()) {
+      line("package " + type.getPackageName() + ";");
+      line("");
+    }
+    line("/**");
+    line(" * Field update processor for {@link " + type.getTypeName() + "}.");
+    line(" */");
+    line("@javax.annotation.processing.Generated(\"" + PatcherProcessor.class.getName() + "\")");
+    line("public final class " + type.getProcessorName() + " implements " + PATCHER
+        + "FieldUpdateProcessor<" + type.getTypeName() + "> {");
+    line("");
+    line("  public static final " + type.getProcessorName() + " INSTANCE = new "
+        + type.getProcessorName() + "();");
+    line("");
+    line("  private static final " + PATCHER + "FieldOrdinals ORDINALS =");
+    line("      " + PATCHER + "FieldOrdinals.of(Field.values());");
+    line("");
+    writeFieldEnum();
+    writeListOperations();
+    writeExecute();
+    for (PatchableField field : type.getFields()) {
+      if (!field.isMergeList()) {
+        writeFieldUpdate(field);
+      }
+    }
+    line("}");
+    writer.write(out.toString());
+  }
+
+  private void writeFieldEnum() {
+    line("  /**");
+    line("   * Fields of {@link " + type.getTypeName() + "}.");
+    line("   */");
+    line("  public enum Field implements " + PATCHER + "ModelField {");
+    for (int i = 0; i < type.getFields().size(); i++) {
+      PatchableField field = type.getFields().get(i);
+      line("    " + field.getConstantName() + "(" + literal(field.getFieldName()) + ")"
+          + (i < type.getFields().size() - 1 ? "," : ";"));
+    }
+    if (type.getFields().isEmpty()) {
+      line("    ;");
+    }
+    line("");
+    line("    private final String fieldName;");
+    line("");
+    line("    Field(String fieldName) {");
+    line("      this.fieldName = fieldName;");
+    line("    }");
+    line("");
+    line("    @Override");
+    line("    public String getFieldName() {");
+    line("      return fieldName;");
+    line("    }");
+    line("  }");
+    line("");
+  }
+
+  private void writeListOperations() {
+    boolean hasLists = type.getFields().stream()
+        .anyMatch(PatchableField::isMergeList);
+    if (!hasLists) {
+      return;
+    }
+    line("  /**");
+    line("   * Lazily initialized holder, element processors may refer back to this processor.");
+    line("   */");
+    line("  private static final class ListOperations {");
+    for (PatchableField field : type.getFields()) {
+      if (!field.isMergeList()) {
+        continue;
+      }
+      String typeArguments = "<" + type.getTypeName() + ", " + field.getElementType() + ", "
+          + field.getKeyType() + ">";
+      boolean inPlace = field.getMode() == PatchMode.MERGE_LIST_IN_PLACE;
+      line("    static final " + PATCHER + "operation.ListUpdateOperation" + typeArguments + " "
+          + field.getConstantName() + " =");
+      line("        new " + PATCHER + "operation.ListUpdateOperation" + (inPlace ? typeArguments
+          : "<>") + "(Field." + field.getConstantName() + ", " + type.getTypeName() + "::"
+          + field.getGetter() + ",");
+      line("            " + type.getTypeName() + "::" + field.getSetter()
+          + ", org.apache.commons.collections4.CollectionUtils::isNotEmpty,");
+      line("            " + field.getElementType() + "::" + field.getKeyGetter() + ", "
+          + (field.getNestedProcessor() == null ? "null"
+          : field.getNestedProcessor() + ".INSTANCE") + ")"
+          + (inPlace ? ".withInPlaceMerge(true)" : "") + ";");
+    }
+    line("  }");
+    line("");
+  }
+
+  private void writeExecute() {
+    String typeName = type.getTypeName();
+    line("  @Override");
+    line("  public " + PATCHER + "FieldOrdinals getFieldOrdinals() {");
+    line("    return ORDINALS;");
+    line("  }");
+    line("");
+    line("  @Override");
+    line("  public " + PATCHER + "FieldUpdateResult execute(" + typeName + " target, " + typeName
+        + " source) {");
+    line("    " + PATCHER + "FieldUpdateResultCollector collector =");
+    line("        new " + PATCHER + "FieldUpdateResultCollector(ORDINALS);");
+    line("    execute(target, source, collector);");
+    line("    return collector.getResult();");
+    line("  }");
+    line("");
+    line("  @Override");
+    line("  public void execute(" + typeName + " target, " + typeName + " source,");
+    line("                      " + PATCHER + "UpdateListener listener) {");
+    boolean first = true;
+    for (PatchableField field : type.getFields()) {
+      if (!first) {
+        line("    if (listener.isDone()) {");
+        line("      return;");
+        line("    }");
+      }
+      first = false;
+      if (field.isMergeList()) {
+        line("    ListOperations." + field.getConstantName()
+            + ".execute(target, source, listener);");
+      } else {
+        line("    " + updateMethod(field) + "(target, source, listener);");
+      }
+    }
+    line("  }");
+  }
+
+  private void writeFieldUpdate(PatchableField field) {
+    String typeName = type.getTypeName();
+    String constant = "Field." + field.getConstantName();
+    line("");
+    line("  private static void " + updateMethod(field) + "(" + typeName + " target, " + typeName
+        + " source,");
+    line("      " + PATCHER + "UpdateListener listener) {");
+    line("    try {");
+    line("      " + field.getType() + " val = source." + field.getGetter() + "();");
+    if (field.getMode() == PatchMode.MAP && !field.isPrimitive()) {
+      line("      if (val == null) {");
+      line("        return;");
+      line("      }");
+    }
+    line("      " + field.getType() + " targetVal = target." + field.getGetter() + "();");
+    line("      if (" + equalsExpression(field) + ") {");
+    line("        return;");
+    line("      }");
+    if (field.getNestedProcessor() != null) {
+      line("      if (targetVal != null) {");
+      line("        listener.enterField(" + constant + ");");
+      line("        try {");
+      line("          " + field.getNestedProcessor()
+          + ".INSTANCE.execute(targetVal, val, listener);");
+      line("        } finally {");
+      line("          listener.exitField(" + constant + ");");
+      line("        }");
+      line("        return;");
+      line("      }");
+    }
+    line("      if (!listener.isDryRun()) {");
+    line("        " + PATCHER + "UndoLog undoLog = listener.getUndoLog();");
+    line("        if (undoLog != null) {");
+    line("          undoLog.record(target, " + typeName + "::" + field.getSetter()
+        + ", targetVal);");
+    line("        }");
+    line("        target." + field.getSetter() + "(val);");
+    line("      }");
+    line("      listener.onFieldUpdate(" + constant + ");");
+    line("    } catch (" + PATCHER + "FieldUpdateException ex) {");
+    line("      if (listener.isCollectingErrors()) {");
+    line("        listener.onFieldError(" + constant + ", ex);");
+    line("        return;");
+    line("      }");
+    line("      throw new " + PATCHER + "FieldUpdateException("
+        + literal(field.getFieldName() + ".") + " + ex.getField(),");
+    line("          ex.getCause());");
+    line("    } catch (Exception ex) {");
+    line("      if (listener.isCollectingErrors()) {");
+    line("        listener.onFieldError(" + constant + ", ex);");
+    line("        return;");
+    line("      }");
+    line("      throw new " + PATCHER + "FieldUpdateException(" + literal(field.getFieldName())
+        + ", ex);");
+    line("    }");
+    line("  }");
+  }
+
+  private static String equalsExpression(PatchableField field) {
+    switch (field.getType()) {
+      case "float":
+        return "Float.compare(val, targetVal) == 0";
+      case "double":
+        return "Double.compare(val, targetVal) == 0";
+      default:
+        return field.isPrimitive() ? "val == targetVal"
+            : "java.util.Objects.equals(val, targetVal)";
+    }
+  }
+
+  private static String updateMethod(PatchableField field) {
+    return "update" + Character.toUpperCase(field.getName().charAt(0))
+        + field.getName().substring(1);
+  }
+
+  private static String literal(String value) {
+    return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+
+  private void line(String line) {
+    out.append(line).append('\n');
+  }
+}
@@ -0,0 +1,120 @@
+package io.github.dominys.patcher.apt;
+
+import io.github.dominys.patcher.annotation.PatchField;
+import io.github.dominys.patcher.annotation.PatchMode;
+import io.github.dominys.patcher.annotation.Patchable;
+
+import java.util.List;
+
+@Patchable
+public class Order {
+
+  @PatchField
+  private String name;
+
+  @PatchField(mode = PatchMode.MAP_ALWAYS, name = "qty")
+  private int quantity;
+
+  @PatchField
+  private Customer customer;
+
+  @PatchField(mode = PatchMode.MERGE_LIST, key = "id")
+  private List<OrderLine> lines;
+
+  private String ignored;
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public Customer getCustomer() {
+    return customer;
+  }
+
+  public void setCustomer(Customer customer) {
+    this.customer = customer;
+  }
+
+  public List<OrderLine> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<OrderLine> lines) {
+    this.lines = lines;
+  }
+
+  public String getIgnored() {
+    return ignored;
+  }
+
+  public void setIgnored(String ignored) {
+    this.ignored = ignored;
+  }
+
+  @Patchable
+  public static class Customer {
+
+    @PatchField
+    private String email;
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+  }
+
+  @Patchable
+  public static class OrderLine {
+
+    private long id;
+
+    @PatchField
+    private String product;
+
+    @PatchField(mode = PatchMode.MERGE_LIST, key = "id")
+    private List<OrderLine> children;
+
+    public OrderLine() {
+    }
+
+    public OrderLine(long id, String product) {
+      this.id = id;
+      this.product = product;
+    }
+
+    public long getId() {
+      return id;
+    }
+
+    public String getProduct() {
+      return product;
+    }
+
+    public void setProduct(String product) {
+      this.product = product;
+    }
+
+    public List<OrderLine> getChildren() {
+      return children;
+    }
+
+    public void setChildren(List<OrderLine> children) {
+      this.children = children;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package io.github.dominys.patcher.apt;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.apt.Order.Customer;
+import io.github.dominys.patcher.apt.Order.OrderLine;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PatcherProcessorTest {
+
+  @Test
+  public void testGeneratedFields() {
+    assertThat(Order_OrderLineUpdateProcessor.Field.PRODUCT.getFieldName()).isEqualTo("product");
+    assertThat(OrderUpdateProcessor.Field.values())
+        .extracting(OrderUpdateProcessor.Field::getFieldName)
+        .containsExactly("name", "qty", "customer", "lines");
+  }
+
+  @Test
+  public void testExecuteMatchesRegisteredMappings() {
+    Order generatedTarget = target();
+    Order registeredTarget = target();
+
+    FieldUpdateResult generated = OrderUpdateProcessor.INSTANCE.execute(generatedTarget, source());
+    FieldUpdateResult registered = new RegisteredOrderProcessor()
+        .execute(registeredTarget, source());
+
+    assertThat(generated)
+        .hasToString("{name,qty,customer{email},lines{[0]{product,children{[1]}},[1]}}")
+        .hasToString(registered.toString());
+    assertThat(generatedTarget.getName()).isEqualTo("updated");
+    assertThat(generatedTarget.getQuantity()).isEqualTo(0);
+    assertThat(generatedTarget.getCustomer().getEmail()).isEqualTo("new@mail");
+    assertThat(generatedTarget.getLines()).extracting(OrderLine::getProduct)
+        .containsExactly("updated", "added");
+    assertThat(generatedTarget.getLines().get(0).getChildren()).extracting(OrderLine::getId)
+        .containsExactly(10L, 11L);
+  }
+
+  @Test
+  public void testChangedFields() {
+    FieldUpdateResult result = OrderUpdateProcessor.INSTANCE.execute(target(), source());
+
+    assertThat(result.isChanged(OrderUpdateProcessor.Field.CUSTOMER)).isTrue();
+    assertThat(result.getChangedFields())
+        .hasToString("{0, 1, 2, 3}");
+    assertThat(result.isChanged("lines[0].children[1]")).isTrue();
+    assertThat(result.isChanged("lines[0].children[0]")).isFalse();
+  }
+
+  @Test
+  public void testDiff() {
+    Order target = target();
+
+    assertThat(OrderUpdateProcessor.INSTANCE.diff(target, source()))
+        .hasToString("{name,qty,customer{email},lines{[0]{product,children{[1]}},[1]}}");
+    assertThat(OrderUpdateProcessor.INSTANCE.diff(target, source(), 2))
+        .hasToString("{name,qty}");
+    assertThat(target.getName()).isEqualTo(target().getName());
+    assertThat(target.getCustomer().getEmail()).isEqualTo(target().getCustomer().getEmail());
+    assertThat(target.getLines()).extracting(OrderLine::getProduct)
+        .containsExactly("original");
+  }
+
+  @Test
+  public void testExceptionPath() {
+    Order target = target();
+    OrderLine failingLine = new OrderLine(1, "original") {
+      @Override
+      public void setProduct(String product) {
+        throw new IllegalStateException("test exception");
+      }
+    };
+    target.setLines(List.of(failingLine));
+
+    assertThatThrownBy(() -> OrderUpdateProcessor.INSTANCE.execute(target, source()))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: lines[0].product")
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private static Order target() {
+    Customer customer = new Customer();
+    customer.setEmail("old@mail");
+    OrderLine line = new OrderLine(1, "original");
+    line.setChildren(List.of(new OrderLine(10, "child")));
+
+    Order order = new Order();
+    order.setName("original");
+    order.setQuantity(5);
+    order.setCustomer(customer);
+    order.setLines(List.of(line));
+    return order;
+  }
+
+  private static Order source() {
+    Customer customer = new Customer();
+    customer.setEmail("new@mail");
+    OrderLine line = new OrderLine(1, "updated");
+    line.setChildren(List.of(new OrderLine(11, "child")));
+
+    Order order = new Order();
+    order.setName("updated");
+    order.setCustomer(customer);
+    order.setLines(List.of(line, new OrderLine(2, "added")));
+    return order;
+  }
+
+  private static class RegisteredOrderProcessor extends BaseFieldUpdateProcessor<Order> {
+
+    RegisteredOrderProcessor() {
+      RegisteredLineProcessor lineProcessor = new RegisteredLineProcessor();
+      BaseFieldUpdateProcessor<Customer> customerProcessor = new RegisteredCustomerProcessor();
+      map(OrderUpdateProcessor.Field.NAME, Order::getName, Order::setName);
+      mapAlways(OrderUpdateProcessor.Field.QUANTITY, Order::getQuantity, Order::setQuantity);
+      map(OrderUpdateProcessor.Field.CUSTOMER, Order::getCustomer, Order::setCustomer,
+          customerProcessor);
+      mergeList(OrderUpdateProcessor.Field.LINES, Order::getLines, Order::setLines,
+          OrderLine::getId, lineProcessor);
+    }
+  }
+
+  private static class RegisteredCustomerProcessor extends BaseFieldUpdateProcessor<Customer> {
+
+    RegisteredCustomerProcessor() {
+      map(Order_CustomerUpdateProcessor.Field.EMAIL, Customer::getEmail, Customer::setEmail);
+    }
+  }
+
+  private static class RegisteredLineProcessor extends BaseFieldUpdateProcessor<OrderLine> {
+
+    RegisteredLineProcessor() {
+      map(Order_OrderLineUpdateProcessor.Field.PRODUCT, OrderLine::getProduct,
+          OrderLine::setProduct);
+      mergeList(Order_OrderLineUpdateProcessor.Field.CHILDREN, OrderLine::getChildren,
+          OrderLine::setChildren, OrderLine::getId, this);
+    }
+  }
+}
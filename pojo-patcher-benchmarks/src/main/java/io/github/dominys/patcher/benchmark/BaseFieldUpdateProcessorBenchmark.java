@@ -0,0 +1,145 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.CountingUpdateListener;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BaseFieldUpdateProcessor.execute} over flat and recursive models.
+ *
+ * <p>The "changed" benchmarks alternate between two sources so that every invocation updates
+ * every mapped value, the "noop" benchmarks patch with an equal, but not identical, source.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseFieldUpdateProcessorBenchmark {
+
+  /**
+   * Flat model, varies the number of mapped fields.
+   */
+  @State(Scope.Thread)
+  public static class WideState {
+
+    @Param({"1", "8", "32"})
+    int width;
+
+    WidePojoProcessor processor;
+    FieldUpdateProcessor<WidePojo> compiled;
+    WidePojo target;
+    WidePojo sourceA;
+    WidePojo sourceB;
+    WidePojo equalSource;
+    CountingUpdateListener listener = new CountingUpdateListener();
+    boolean flip;
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup() {
+      processor = new WidePojoProcessor(width);
+      compiled = processor.compile();
+      target = WidePojo.filled(width, "a");
+      sourceA = WidePojo.filled(width, "a");
+      sourceB = WidePojo.filled(width, "b");
+      equalSource = WidePojo.filled(width, "a");
+    }
+
+    WidePojo nextSource() {
+      flip = !flip;
+      return flip ? sourceB : sourceA;
+    }
+  }
+
+  /**
+   * Recursive model, varies the nesting depth of the child lists.
+   */
+  @State(Scope.Thread)
+  public static class NestedState {
+
+    @Param({"1", "3", "6"})
+    int depth;
+
+    @Param({"2"})
+    int fanOut;
+
+    NodePojoProcessor processor;
+    FieldUpdateProcessor<NodePojo> compiled;
+    NodePojo target;
+    NodePojo sourceA;
+    NodePojo sourceB;
+    NodePojo equalSource;
+    boolean flip;
+
+    /**
+     * Setup.
+     */
+    @Setup
+    public void setup() {
+      processor = new NodePojoProcessor();
+      compiled = processor.compile();
+      target = NodePojo.tree(0, depth, fanOut, "a");
+      sourceA = NodePojo.tree(0, depth, fanOut, "a");
+      sourceB = NodePojo.tree(0, depth, fanOut, "b");
+      equalSource = NodePojo.tree(0, depth, fanOut, "a");
+    }
+
+    NodePojo nextSource() {
+      flip = !flip;
+      return flip ? sourceB : sourceA;
+    }
+  }
+
+  @Benchmark
+  public FieldUpdateResult wideChanged(WideState state) {
+    return state.processor.execute(state.target, state.nextSource());
+  }
+
+  @Benchmark
+  public FieldUpdateResult wideChangedCompiled(WideState state) {
+    return state.compiled.execute(state.target, state.nextSource());
+  }
+
+  @Benchmark
+  public FieldUpdateResult wideNoop(WideState state) {
+    return state.processor.execute(state.target, state.equalSource);
+  }
+
+  @Benchmark
+  public boolean wideNoopCounting(WideState state) {
+    state.listener.reset();
+    state.processor.execute(state.target, state.equalSource, state.listener);
+    return state.listener.hasUpdates();
+  }
+
+  @Benchmark
+  public FieldUpdateResult nestedChanged(NestedState state) {
+    return state.processor.execute(state.target, state.nextSource());
+  }
+
+  @Benchmark
+  public FieldUpdateResult nestedChangedCompiled(NestedState state) {
+    return state.compiled.execute(state.target, state.nextSource());
+  }
+
+  @Benchmark
+  public FieldUpdateResult nestedNoop(NestedState state) {
+    return state.processor.execute(state.target, state.equalSource);
+  }
+}
@@ -0,0 +1,20 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.ModelField;
+
+/**
+ * Benchmark model field.
+ */
+public class BenchmarkField implements ModelField {
+
+  private final String fieldName;
+
+  public BenchmarkField(String fieldName) {
+    this.fieldName = fieldName;
+  }
+
+  @Override
+  public String getFieldName() {
+    return fieldName;
+  }
+}
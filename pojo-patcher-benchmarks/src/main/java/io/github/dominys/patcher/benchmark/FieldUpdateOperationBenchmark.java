@@ -0,0 +1,103 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code FieldUpdateOperation.execute} for a plain value and for a nested object.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldUpdateOperationBenchmark {
+
+  private static final BenchmarkField VALUE = new BenchmarkField("value");
+  private static final BenchmarkField ITEM = new BenchmarkField("item");
+
+  private FieldUpdateOperation<Item, String> valueOperation;
+  private FieldUpdateOperation<NestedItemHolder, Item> nestedOperation;
+
+  private Item target;
+  private Item sourceA;
+  private Item sourceB;
+  private Item equalSource;
+
+  private NestedItemHolder nestedTarget;
+  private NestedItemHolder nestedSourceA;
+  private NestedItemHolder nestedSourceB;
+
+  private boolean flip;
+
+  /**
+   * Setup.
+   */
+  @Setup
+  public void setup() {
+    valueOperation = new FieldUpdateOperation<>(VALUE, Item::getValue, Item::setValue,
+        Objects::nonNull, null);
+    nestedOperation = new FieldUpdateOperation<>(ITEM, NestedItemHolder::getItem,
+        NestedItemHolder::setItem, Objects::nonNull, new ItemProcessor());
+
+    target = new Item(1, "a");
+    sourceA = new Item(1, "a");
+    sourceB = new Item(1, "b");
+    equalSource = new Item(1, "a");
+
+    nestedTarget = new NestedItemHolder(new Item(1, "a"));
+    nestedSourceA = new NestedItemHolder(new Item(1, "a"));
+    nestedSourceB = new NestedItemHolder(new Item(1, "b"));
+  }
+
+  @Benchmark
+  public FieldUpdateResult changed() {
+    flip = !flip;
+    return valueOperation.execute(target, flip ? sourceB : sourceA);
+  }
+
+  @Benchmark
+  public FieldUpdateResult noop() {
+    return valueOperation.execute(target, equalSource);
+  }
+
+  @Benchmark
+  public FieldUpdateResult nestedChanged() {
+    flip = !flip;
+    return nestedOperation.execute(nestedTarget, flip ? nestedSourceB : nestedSourceA);
+  }
+
+  /**
+   * Holder of a single nested item.
+   */
+  public static class NestedItemHolder {
+
+    private Item item;
+
+    public NestedItemHolder(Item item) {
+      this.item = item;
+    }
+
+    public Item getItem() {
+      return item;
+    }
+
+    public void setItem(Item item) {
+      this.item = item;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package io.github.dominys.patcher.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keyed list element.
+ */
+public class Item {
+
+  private long id;
+  private String value;
+
+  public Item() {
+  }
+
+  public Item(long id, String value) {
+    this.id = id;
+    this.value = value;
+  }
+
+  /**
+   * Creates {@code size} items with ids {@code 0..size-1}.
+   *
+   * @param size   list size
+   * @param prefix value prefix
+   * @return items
+   */
+  public static List<Item> list(int size, String prefix) {
+    List<Item> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(new Item(i, prefix + i));
+    }
+    return items;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public void setId(long id) {
+    this.id = id;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Item item = (Item) o;
+    return id == item.id && Objects.equals(value, item.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, value);
+  }
+}
@@ -0,0 +1,26 @@
+package io.github.dominys.patcher.benchmark;
+
+import java.util.List;
+
+/**
+ * Owner of a keyed {@link Item} list.
+ */
+public class ItemHolder {
+
+  private List<Item> items;
+
+  public ItemHolder() {
+  }
+
+  public ItemHolder(List<Item> items) {
+    this.items = items;
+  }
+
+  public List<Item> getItems() {
+    return items;
+  }
+
+  public void setItems(List<Item> items) {
+    this.items = items;
+  }
+}
@@ -0,0 +1,18 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+
+/**
+ * Processor for {@link Item} values.
+ */
+public class ItemProcessor extends BaseFieldUpdateProcessor<Item> {
+
+  public static final BenchmarkField VALUE = new BenchmarkField("value");
+
+  /**
+   * Constructor.
+   */
+  public ItemProcessor() {
+    map(VALUE, Item::getValue, Item::setValue);
+  }
+}
@@ -0,0 +1,87 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+import org.apache.commons.collections4.CollectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ListUpdateOperation.execute} for keyed lists of 10 to 1M elements.
+ *
+ * <p>With {@code nested = false} source elements replace the target ones, with
+ * {@code nested = true} elements are merged in place by {@link ItemProcessor}. Nested merges
+ * run on the common pool from 1024 elements with {@code -p parallel=true}. {@code mergeSingle}
+ * appends one element to the original target list on every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class ListUpdateOperationBenchmark {
+
+  private static final BenchmarkField ITEMS = new BenchmarkField("items");
+
+  @Param({"10", "1000", "100000", "1000000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean nested;
+
+  @Param({"false"})
+  private boolean parallel;
+
+  private ListUpdateOperation<ItemHolder, Item, Long> operation;
+
+  private ItemHolder target;
+  private List<Item> targetItems;
+  private ItemHolder sourceA;
+  private ItemHolder sourceB;
+  private ItemHolder appendSource;
+
+  private boolean flip;
+
+  /**
+   * Setup.
+   */
+  @Setup
+  public void setup() {
+    operation = new ListUpdateOperation<>(ITEMS, ItemHolder::getItems, ItemHolder::setItems,
+        CollectionUtils::isNotEmpty, Item::getId, nested ? new ItemProcessor() : null,
+        parallel ? 1024 : Integer.MAX_VALUE, null);
+
+    targetItems = Item.list(size, "a");
+    target = new ItemHolder(targetItems);
+    sourceA = new ItemHolder(Item.list(size, "a"));
+    sourceB = new ItemHolder(Item.list(size, "b"));
+    appendSource = new ItemHolder(List.of(new Item(size, "appended")));
+  }
+
+  @Benchmark
+  public FieldUpdateResult mergeAll() {
+    flip = !flip;
+    return operation.execute(target, flip ? sourceB : sourceA);
+  }
+
+  @Benchmark
+  public FieldUpdateResult mergeSingle() {
+    // the merge writes a new list and leaves the original one as is, restore it so every
+    // invocation appends instead of finding the element already merged
+    target.setItems(targetItems);
+    return operation.execute(target, appendSource);
+  }
+}
@@ -0,0 +1,61 @@
+package io.github.dominys.patcher.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive benchmark model, a node with a keyed list of child nodes.
+ */
+public class NodePojo {
+
+  private long id;
+  private String value;
+  private List<NodePojo> children;
+
+  /**
+   * Builds a complete tree.
+   *
+   * @param id     node id
+   * @param depth  number of nested levels below this node
+   * @param fanOut number of children per node
+   * @param prefix value prefix
+   * @return root node
+   */
+  public static NodePojo tree(long id, int depth, int fanOut, String prefix) {
+    NodePojo node = new NodePojo();
+    node.setId(id);
+    node.setValue(prefix + id);
+    if (depth > 0) {
+      List<NodePojo> children = new ArrayList<>(fanOut);
+      for (int i = 0; i < fanOut; i++) {
+        children.add(tree(i, depth - 1, fanOut, prefix));
+      }
+      node.setChildren(children);
+    }
+    return node;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public void setId(long id) {
+    this.id = id;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  public List<NodePojo> getChildren() {
+    return children;
+  }
+
+  public void setChildren(List<NodePojo> children) {
+    this.children = children;
+  }
+}
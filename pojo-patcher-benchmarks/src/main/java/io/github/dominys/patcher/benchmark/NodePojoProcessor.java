@@ -0,0 +1,20 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+
+/**
+ * Recursive processor for {@link NodePojo}, children are merged by id with this processor.
+ */
+public class NodePojoProcessor extends BaseFieldUpdateProcessor<NodePojo> {
+
+  public static final BenchmarkField VALUE = new BenchmarkField("value");
+  public static final BenchmarkField CHILDREN = new BenchmarkField("children");
+
+  /**
+   * Constructor.
+   */
+  public NodePojoProcessor() {
+    map(VALUE, NodePojo::getValue, NodePojo::setValue);
+    mergeList(CHILDREN, NodePojo::getChildren, NodePojo::setChildren, NodePojo::getId, this);
+  }
+}
@@ -0,0 +1,78 @@
+package io.github.dominys.patcher.benchmark;
+
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Processor mapping the first {@code width} fields of {@link WidePojo}.
+ *
+ * <p>Every field is registered with its own method references so the getter and setter call
+ * sites see as many lambda classes as a real entity processor would.
+ */
+public class WidePojoProcessor extends BaseFieldUpdateProcessor<WidePojo> {
+
+  private static final List<Function<WidePojo, String>> GETTERS = new ArrayList<>();
+  private static final List<BiConsumer<WidePojo, String>> SETTERS = new ArrayList<>();
+
+  static {
+    register(0, WidePojo::getField0, WidePojo::setField0);
+    register(1, WidePojo::getField1, WidePojo::setField1);
+    register(2, WidePojo::getField2, WidePojo::setField2);
+    register(3, WidePojo::getField3, WidePojo::setField3);
+    register(4, WidePojo::getField4, WidePojo::setField4);
+    register(5, WidePojo::getField5, WidePojo::setField5);
+    register(6, WidePojo::getField6, WidePojo::setField6);
+    register(7, WidePojo::getField7, WidePojo::setField7);
+    register(8, WidePojo::getField8, WidePojo::setField8);
+    register(9, WidePojo::getField9, WidePojo::setField9);
+    register(10, WidePojo::getField10, WidePojo::setField10);
+    register(11, WidePojo::getField11, WidePojo::setField11);
+    register(12, WidePojo::getField12, WidePojo::setField12);
+    register(13, WidePojo::getField13, WidePojo::setField13);
+    register(14, WidePojo::getField14, WidePojo::setField14);
+    register(15, WidePojo::getField15, WidePojo::setField15);
+    register(16, WidePojo::getField16, WidePojo::setField16);
+    register(17, WidePojo::getField17, WidePojo::setField17);
+    register(18, WidePojo::getField18, WidePojo::setField18);
+    register(19, WidePojo::getField19, WidePojo::setField19);
+    register(20, WidePojo::getField20, WidePojo::setField20);
+    register(21, WidePojo::getField21, WidePojo::setField21);
+    register(22, WidePojo::getField22, WidePojo::setField22);
+    register(23, WidePojo::getField23, WidePojo::setField23);
+    register(24, WidePojo::getField24, WidePojo::setField24);
+    register(25, WidePojo::getField25, WidePojo::setField25);
+    register(26, WidePojo::getField26, WidePojo::setField26);
+    register(27, WidePojo::getField27, WidePojo::setField27);
+    register(28, WidePojo::getField28, WidePojo::setField28);
+    register(29, WidePojo::getField29, WidePojo::setField29);
+    register(30, WidePojo::getField30, WidePojo::setField30);
+    register(31, WidePojo::getField31, WidePojo::setField31);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param width number of mapped fields
+   */
+  public WidePojoProcessor(int width) {
+    for (int i = 0; i < width; i++) {
+      map(new BenchmarkField("field" + i), GETTERS.get(i), SETTERS.get(i));
+    }
+  }
+
+  static void fill(WidePojo pojo, int width, String prefix) {
+    for (int i = 0; i < width; i++) {
+      SETTERS.get(i).accept(pojo, prefix + i);
+    }
+  }
+
+  private static void register(int index, Function<WidePojo, String> getter,
+                               BiConsumer<WidePojo, String> setter) {
+    GETTERS.add(index, getter);
+    SETTERS.add(index, setter);
+  }
+}
@@ -0,0 +1,346 @@
+package io.github.dominys.patcher.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.operation.BaseUpdateOperation;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+import io.github.dominys.patcher.operation.PrimitiveFieldUpdateOperation;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import io.github.dominys.patcher.processor.SubtypeDispatchProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies RFC 7386 JSON merge patches to POJOs, reading the patch from a streaming parser.
+ *
+ * <p>The patch drives the operations of a {@link BaseFieldUpdateProcessor} by field name, see
+ * {@link BaseFieldUpdateProcessor#getOperation(String)}, so no source object is deserialized.
+ * Members are matched by their Jackson property names, e.g. renamed with {@code @JsonProperty},
+ * to the operations of the fields behind them:
+ * <ul>
+ *   <li>only the members present in the patch are applied, members without a Jackson property
+ *   or an operation, and values that can not be read, fail the patch, or are skipped and
+ *   reported as field errors when the listener
+ *   {@link UpdateListener#isCollectingErrors() collects errors};</li>
+ *   <li>{@code null} clears the field;</li>
+ *   <li>an object is patched recursively into the target value when the field has a nested
+ *   {@code BaseFieldUpdateProcessor}, or a {@link SubtypeDispatchProcessor} with one for the
+ *   class of the target value, otherwise it is read as the field value;</li>
+ *   <li>an array of a field registered with {@code mergeList} is merged element by element as it
+ *   is read, with the {@link ListUpdateOperation} semantics instead of replacing the list, so
+ *   unlike RFC 7386 {@code []} leaves the list as it is and {@code null} clears it;</li>
+ *   <li>any other value is read as the field value and applied with the field operation.</li>
+ * </ul>
+ *
+ * <p>Field value types are resolved from the Jackson bean properties of the target class. The
+ * patcher is thread safe.
+ */
+public class JsonMergePatcher {
+
+  private final ObjectMapper mapper;
+
+  private final Map<Class<?>, Map<String, BeanPropertyDefinition>> properties =
+      new ConcurrentHashMap<>();
+
+  private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param mapper object mapper used to read the field values
+   */
+  public JsonMergePatcher(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  /**
+   * Applies the merge patch to the target.
+   *
+   * @param processor target processor
+   * @param target    target object
+   * @param parser    parser positioned before or at the patch object
+   * @param <T>       target type
+   * @return update result
+   * @throws IOException on malformed JSON
+   */
+  public <T> FieldUpdateResult apply(BaseFieldUpdateProcessor<T> processor, T target,
+                                     JsonParser parser) throws IOException {
+    FieldUpdateResultCollector collector =
+        new FieldUpdateResultCollector(processor.getFieldOrdinals());
+    apply(processor, target, parser, collector);
+    return collector.getResult();
+  }
+
+  /**
+   * Applies the merge patch to the target reporting changes to the listener.
+   *
+   * @param processor target processor
+   * @param target    target object
+   * @param parser    parser positioned before or at the patch object
+   * @param listener  update listener
+   * @param <T>       target type
+   * @throws IOException on malformed JSON
+   */
+  public <T> void apply(BaseFieldUpdateProcessor<T> processor, T target, JsonParser parser,
+                        UpdateListener listener) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == null) {
+      token = parser.nextToken();
+    }
+    if (token != JsonToken.START_OBJECT) {
+      throw JsonMappingException.from(parser, "Merge patch must be an object, found " + token);
+    }
+    patchObject(processor, target, parser, listener);
+  }
+
+  private <T> void patchObject(BaseFieldUpdateProcessor<T> processor, T target,
+                               JsonParser parser, UpdateListener listener) throws IOException {
+    Map<String, BeanPropertyDefinition> targetProperties =
+        properties.computeIfAbsent(target.getClass(), this::introspect);
+    JsonStreamContext context = parser.getParsingContext();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String memberName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (listener.isDone()) {
+        parser.skipChildren();
+        continue;
+      }
+      BeanPropertyDefinition property = targetProperties.get(memberName);
+      if (property == null) {
+        skipMember(() -> memberName, JsonMappingException.from(parser,
+            "No property " + memberName + " in " + target.getClass()), context, parser, listener);
+        continue;
+      }
+      UpdateOperation<T> operation = processor.getOperation(property.getInternalName());
+      JavaType type = property.getPrimaryType();
+      if (operation == null) {
+        skipMember(() -> memberName, JsonMappingException.from(parser,
+            "No operation for property " + memberName), context, parser, listener);
+      } else if (operation instanceof FieldUpdateOperation) {
+        patchField((FieldUpdateOperation<T, ?>) operation, target, type, parser, token,
+            context, listener);
+      } else if (operation instanceof ListUpdateOperation) {
+        patchList((ListUpdateOperation<T, ?, ?>) operation, target, type, parser, token,
+            context, listener);
+      } else if (operation instanceof PrimitiveFieldUpdateOperation) {
+        patchPrimitive((PrimitiveFieldUpdateOperation<T, ?>) operation, target, type, parser,
+            token, context, listener);
+      } else {
+        skipMember(() -> memberName, JsonMappingException.from(parser, "Operation of property "
+            + memberName + " does not support merge patches"), context, parser, listener);
+      }
+    }
+  }
+
+  /**
+   * Skips the rest of the member value, up to the object context holding the member, and fails
+   * the patch or reports the error when the listener collects errors.
+   */
+  private void skipMember(ModelField field, JsonMappingException ex, JsonStreamContext context,
+                          JsonParser parser, UpdateListener listener) throws IOException {
+    while (parser.getParsingContext() != context && parser.nextToken() != null) {
+      parser.skipChildren();
+    }
+    if (!listener.isCollectingErrors()) {
+      throw new FieldUpdateException(field.getFieldName(), ex);
+    }
+    listener.onFieldError(field, ex);
+  }
+
+  private <T, R> void patchField(FieldUpdateOperation<T, R> operation, T target, JavaType type,
+                                 JsonParser parser, JsonToken token, JsonStreamContext context,
+                                 UpdateListener listener) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      clear(operation, target, listener);
+      return;
+    }
+
+    FieldUpdateProcessor<R> nestedProcessor = operation.getFieldUpdateProcessor();
+    if (token == JsonToken.START_OBJECT && nestedProcessor != null) {
+      R targetVal = operation.getGetter().apply(target);
+      if (targetVal != null && nestedProcessor instanceof SubtypeDispatchProcessor) {
+        nestedProcessor = ((SubtypeDispatchProcessor<R>) nestedProcessor).getProcessor(targetVal);
+      }
+      if (targetVal != null && nestedProcessor instanceof BaseFieldUpdateProcessor) {
+        listener.enterField(operation.getField());
+        try {
+          patchObject((BaseFieldUpdateProcessor<R>) nestedProcessor, targetVal, parser,
+              listener);
+        } catch (FieldUpdateException ex) {
+          throw new FieldUpdateException(operation.getField().getFieldName() + "."
+              + ex.getField(), ex.getCause());
+        } finally {
+          listener.exitField(operation.getField());
+        }
+        return;
+      }
+    }
+
+    R val;
+    try {
+      val = reader(type).readValue(parser);
+    } catch (JsonMappingException ex) {
+      skipMember(operation.getField(), ex, context, parser, listener);
+      return;
+    }
+    operation.executeValue(target, val, listener);
+  }
+
+  private <T, R> void patchPrimitive(PrimitiveFieldUpdateOperation<T, R> operation, T target,
+                                     JavaType type, JsonParser parser, JsonToken token,
+                                     JsonStreamContext context, UpdateListener listener)
+      throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      skipMember(operation.getField(), JsonMappingException.from(parser,
+          "Primitive field can not be cleared"), context, parser, listener);
+      return;
+    }
+    R val;
+    try {
+      val = reader(type).readValue(parser);
+    } catch (JsonMappingException ex) {
+      skipMember(operation.getField(), ex, context, parser, listener);
+      return;
+    }
+    operation.executeValue(target, val, listener);
+  }
+
+  private <T, R> void patchList(ListUpdateOperation<T, R, ?> operation, T target, JavaType type,
+                                JsonParser parser, JsonToken token, JsonStreamContext context,
+                                UpdateListener listener) throws IOException {
+    String fieldName = operation.getField().getFieldName();
+    if (token == JsonToken.VALUE_NULL) {
+      clear(operation, target, listener);
+      return;
+    }
+    if (token != JsonToken.START_ARRAY || !type.isCollectionLikeType()) {
+      skipMember(operation.getField(), JsonMappingException.from(parser,
+          "Expected an array, found " + token), context, parser, listener);
+      return;
+    }
+
+    ElementIterator<R> elements = new ElementIterator<>(parser, reader(type.getContentType()));
+    try {
+      operation.mergeStreaming(target, elements, listener);
+      elements.skipRemaining();
+    } catch (FieldUpdateException ex) {
+      throw ex;
+    } catch (UncheckedIOException ex) {
+      if (ex.getCause() instanceof JsonMappingException) {
+        skipMember(operation.getField(), (JsonMappingException) ex.getCause(), context, parser,
+            listener);
+        return;
+      }
+      throw ex.getCause();
+    } catch (RuntimeException ex) {
+      throw new FieldUpdateException(fieldName, ex);
+    }
+  }
+
+  private <T, R> void clear(BaseUpdateOperation<T, R> operation, T target,
+                            UpdateListener listener) {
+    try {
+      R targetVal = operation.getGetter().apply(target);
+      if (targetVal == null) {
+        return;
+      }
+      if (!listener.isDryRun()) {
+        operation.write(target, targetVal, null, listener);
+      }
+    } catch (Exception ex) {
+      throw new FieldUpdateException(operation.getField().getFieldName(), ex);
+    }
+    listener.onFieldUpdate(operation.getField());
+  }
+
+  private ObjectReader reader(JavaType type) {
+    return readers.computeIfAbsent(type, mapper::readerFor);
+  }
+
+  private Map<String, BeanPropertyDefinition> introspect(Class<?> type) {
+    BeanDescription description = mapper.getDeserializationConfig()
+        .introspect(mapper.constructType(type));
+    Map<String, BeanPropertyDefinition> byName = new HashMap<>();
+    for (BeanPropertyDefinition property : description.findProperties()) {
+      byName.put(property.getName(), property);
+    }
+    return byName;
+  }
+
+  /**
+   * Reads the elements of the current array on demand.
+   */
+  private static final class ElementIterator<R> implements Iterator<R> {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+
+    private JsonToken next;
+
+    ElementIterator(JsonParser parser, ObjectReader reader) {
+      this.parser = parser;
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        try {
+          next = parser.nextToken();
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      return next != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public R next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      next = null;
+      try {
+        return reader.readValue(parser);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    /**
+     * Skips the elements left by a merge that stopped early, see
+     * {@link UpdateListener#isDone()}.
+     */
+    void skipRemaining() {
+      while (hasNext()) {
+        try {
+          parser.skipChildren();
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        next = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package io.github.dominys.patcher.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.encoding.ChangeSetVisitor;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes a {@link FieldUpdateResult} and the patched target as RFC 6902 JSON Patch operations.
+ *
+ * <p>Only the changed values are written: a written field becomes an {@code add} operation, which
+ * replaces an existing member. A {@code null} value becomes a {@code replace} operation with
+ * {@code null}, or a {@code remove} operation when the inclusion settings of the mapper leave
+ * {@code null} members out. A written list element becomes a {@code replace} operation, an
+ * appended one an {@code add} operation. Nested changes are written with their JSON Pointer
+ * paths, e.g. {@code /lines/0/product}, built from the property names of the mapper, so they
+ * follow its naming strategy and {@code @JsonProperty} renames.
+ *
+ * <p>The result is walked with the processor that produced it, see {@link ChangeSetVisitor}.
+ */
+public class JsonPatchEncoder {
+
+  private final ObjectMapper mapper;
+
+  private final ObjectWriter valueWriter;
+
+  private final Map<Class<?>, Map<String, JsonMember>> members = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param mapper object mapper used to write the values
+   */
+  public JsonPatchEncoder(ObjectMapper mapper) {
+    this.mapper = mapper;
+    this.valueWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Writes the JSON Patch array with the generator.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param generator JSON generator
+   * @param <T>       target type
+   * @throws IOException on write errors
+   */
+  public <T> void encode(FieldUpdateResult result, T target,
+                         BaseFieldUpdateProcessor<T> processor, JsonGenerator generator)
+      throws IOException {
+    generator.writeStartArray();
+    new PatchWriter(generator).visit(result, target, processor);
+    generator.writeEndArray();
+  }
+
+  /**
+   * Writes the JSON Patch array as UTF-8 into the stream. The stream is flushed, not closed.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param out       output
+   * @param <T>       target type
+   * @throws IOException on write errors
+   */
+  public <T> void encode(FieldUpdateResult result, T target,
+                         BaseFieldUpdateProcessor<T> processor, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      encode(result, target, processor, generator);
+    }
+  }
+
+  /**
+   * Writes the JSON Patch array as UTF-8 directly into the buffer.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param buffer    output buffer
+   * @param <T>       target type
+   * @throws java.nio.BufferOverflowException if the buffer is too small
+   */
+  public <T> void encode(FieldUpdateResult result, T target,
+                         BaseFieldUpdateProcessor<T> processor, ByteBuffer buffer) {
+    try {
+      encode(result, target, processor, new ByteBufferBackedOutputStream(buffer));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private JsonMember memberOf(Object target, ModelField field) {
+    JsonMember member = members.computeIfAbsent(target.getClass(), this::introspect)
+        .get(field.getFieldName());
+    if (member == null) {
+      throw new IllegalArgumentException("Field " + field.getFieldName()
+          + " has no JSON property in " + target.getClass());
+    }
+    return member;
+  }
+
+  private Map<String, JsonMember> introspect(Class<?> type) {
+    SerializationConfig config = mapper.getSerializationConfig();
+    BeanDescription description = config.introspect(mapper.constructType(type));
+    JsonInclude.Value defaultInclusion = config.getDefaultPropertyInclusion(type);
+    Map<String, JsonMember> byField = new HashMap<>();
+    for (BeanPropertyDefinition property : description.findProperties()) {
+      JsonInclude.Include inclusion = defaultInclusion.withOverrides(property.findInclusion())
+          .getValueInclusion();
+      boolean omitsNull = inclusion != JsonInclude.Include.ALWAYS
+          && inclusion != JsonInclude.Include.USE_DEFAULTS
+          && inclusion != JsonInclude.Include.CUSTOM;
+      byField.put(property.getInternalName(), new JsonMember(property.getName(), omitsNull));
+    }
+    return byField;
+  }
+
+  private static void appendSegment(StringBuilder path, String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      char c = segment.charAt(i);
+      if (c == '~') {
+        path.append("~0");
+      } else if (c == '/') {
+        path.append("~1");
+      } else {
+        path.append(c);
+      }
+    }
+  }
+
+  /**
+   * Writes the operations of the changed values, keeping the JSON Pointer of the current level.
+   */
+  private final class PatchWriter extends ChangeSetVisitor {
+
+    private final JsonGenerator generator;
+    private final StringBuilder path = new StringBuilder();
+
+    PatchWriter(JsonGenerator generator) {
+      this.generator = generator;
+    }
+
+    @Override
+    protected void visitField(ModelField field, int ordinal, Object target, Object value)
+        throws IOException {
+      JsonMember member = memberOf(target, field);
+      appendSegment(path.append('/'), member.name);
+      writeOperation(value != null ? "add" : member.omitsNull ? "remove" : "replace", value);
+      exitField(field);
+    }
+
+    @Override
+    protected void enterField(ModelField field, int ordinal, Object target) {
+      appendSegment(path.append('/'), memberOf(target, field).name);
+    }
+
+    @Override
+    protected void exitField(ModelField field) {
+      path.setLength(path.lastIndexOf("/"));
+    }
+
+    @Override
+    protected void visitElement(ModelField field, int index, boolean added, Object value)
+        throws IOException {
+      path.append('/').append(index);
+      writeOperation(added ? "add" : "replace", value);
+      exitElement(index);
+    }
+
+    @Override
+    protected void enterElement(int index, boolean added) {
+      path.append('/').append(index);
+    }
+
+    @Override
+    protected void exitElement(int index) {
+      path.setLength(path.lastIndexOf("/"));
+    }
+
+    private void writeOperation(String op, Object value) throws IOException {
+      generator.writeStartObject();
+      generator.writeStringField("op", op);
+      generator.writeStringField("path", path.toString());
+      if (!"remove".equals(op)) {
+        generator.writeFieldName("value");
+        valueWriter.writeValue(generator, value);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * JSON member of a field.
+   */
+  private static final class JsonMember {
+
+    private final String name;
+    private final boolean omitsNull;
+
+    JsonMember(String name, boolean omitsNull) {
+      this.name = name;
+      this.omitsNull = omitsNull;
+    }
+  }
+}
@@ -0,0 +1,342 @@
+package io.github.dominys.patcher.json;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dominys.patcher.DiffCollector;
+import io.github.dominys.patcher.ErrorCollector;
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.PatchError;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonMergePatcherTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final JsonMergePatcher patcher = new JsonMergePatcher(MAPPER);
+
+  @Test
+  public void testApply() throws IOException {
+    Product target = product();
+
+    FieldUpdateResult result = apply(target, "{\"name\":\"updated\",\"price\":5,"
+        + "\"dimensions\":{\"width\":3},"
+        + "\"variants\":[{\"sku\":\"b\",\"name\":\"updatedB\"},{\"sku\":\"c\",\"name\":\"c\"}],"
+        + "\"tags\":[\"new\"]}");
+
+    assertThat(result).hasToString(
+        "{name,price,dimensions{width},variants{[1]{name},[2]},tags}");
+    assertThat(target.getName()).isEqualTo("updated");
+    assertThat(target.getPrice()).isEqualTo(5);
+    assertThat(target.getDimensions().getWidth()).isEqualTo(3);
+    assertThat(target.getDimensions().getHeight()).isEqualTo(2);
+    assertThat(target.getVariants()).extracting(Variant::getName)
+        .containsExactly("a", "updatedB", "c");
+    assertThat(target.getTags()).containsExactly("new");
+  }
+
+  @Test
+  public void testNullClearsField() throws IOException {
+    Product target = product();
+
+    FieldUpdateResult result = apply(target, "{\"name\":null,\"variants\":null,\"tags\":null}");
+
+    assertThat(result).hasToString("{name,variants,tags}");
+    assertThat(target.getName()).isNull();
+    assertThat(target.getVariants()).isNull();
+    assertThat(apply(target, "{\"name\":null}").hasUpdates()).isFalse();
+  }
+
+  @Test
+  public void testRenamedProperty() throws IOException {
+    Product target = product();
+
+    FieldUpdateResult result = apply(target, "{\"display_name\":\"Display\"}");
+
+    assertThat(result).hasToString("{displayName}");
+    assertThat(target.getDisplayName()).isEqualTo("Display");
+    assertThatThrownBy(() -> apply(target, "{\"displayName\":\"Other\"}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: displayName");
+    assertThat(target.getDisplayName()).isEqualTo("Display");
+  }
+
+  @Test
+  public void testUnknownMembers() throws IOException {
+    assertThatThrownBy(() -> apply(product(), "{\"unknown\":{\"a\":[1]}}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: unknown")
+        .hasCauseInstanceOf(JsonMappingException.class);
+    assertThatThrownBy(() -> apply(product(), "{\"code\":\"c\"}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: code");
+    assertThatThrownBy(() -> apply(product(), "{\"dimensions\":{\"depth\":1}}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: dimensions.depth");
+
+    Product target = product();
+    FieldUpdateResultCollector results = new FieldUpdateResultCollector();
+    ErrorCollector collector = new ErrorCollector(results);
+    try (JsonParser parser = MAPPER.createParser("{\"unknown\":1,\"name\":\"updated\","
+        + "\"dimensions\":{\"depth\":1,\"width\":3}}")) {
+      patcher.apply(new ProductProcessor(), target, parser, collector);
+    }
+
+    assertThat(collector.getErrors()).extracting(PatchError::getPath)
+        .containsExactly("unknown", "dimensions.depth");
+    assertThat(results.getResult()).hasToString("{name,dimensions{width}}");
+    assertThat(target.getName()).isEqualTo("updated");
+    assertThat(target.getDimensions().getWidth()).isEqualTo(3);
+  }
+
+  @Test
+  public void testInvalidValues() throws IOException {
+    assertThatThrownBy(() -> apply(product(), "{\"price\":null}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: price")
+        .hasCauseInstanceOf(JsonMappingException.class);
+    assertThatThrownBy(() -> apply(product(), "{\"variants\":5}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: variants");
+    assertThatThrownBy(() -> apply(product(), "{\"variants\":[{\"sku\":[]}]}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: variants");
+
+    Product target = product();
+    FieldUpdateResultCollector results = new FieldUpdateResultCollector();
+    ErrorCollector collector = new ErrorCollector(results);
+    try (JsonParser parser = MAPPER.createParser("{\"price\":null,\"name\":\"updated\","
+        + "\"variants\":5,\"dimensions\":{\"width\":\"wide\",\"height\":4},"
+        + "\"tags\":{\"a\":[1,{\"b\":2}]},\"display_name\":\"D\"}")) {
+      patcher.apply(new ProductProcessor(), target, parser, collector);
+    }
+
+    assertThat(collector.getErrors()).extracting(PatchError::getPath)
+        .containsExactly("price", "variants", "dimensions.width", "tags");
+    assertThat(results.getResult()).hasToString("{name,dimensions{height},displayName}");
+    assertThat(target.getPrice()).isEqualTo(1);
+    assertThat(target.getVariants()).hasSize(2);
+    assertThat(target.getDimensions().getHeight()).isEqualTo(4);
+    assertThat(target.getDisplayName()).isEqualTo("D");
+  }
+
+  @Test
+  public void testEmptyArrayKeepsList() throws IOException {
+    Product target = product();
+
+    assertThat(apply(target, "{\"variants\":[]}").hasUpdates()).isFalse();
+    assertThat(target.getVariants()).hasSize(2);
+  }
+
+  @Test
+  public void testDryRun() throws IOException {
+    Product target = product();
+    DiffCollector collector = new DiffCollector(2);
+
+    try (JsonParser parser = MAPPER.createParser("{\"price\":5,"
+        + "\"variants\":[{\"sku\":\"c\"},{\"sku\":\"d\"},{\"sku\":\"e\"}],\"name\":\"x\"}")) {
+      patcher.apply(new ProductProcessor(), target, parser, collector);
+    }
+
+    assertThat(collector.getResult()).hasToString("{price,variants{[2]}}");
+    assertThat(target.getPrice()).isEqualTo(1);
+    assertThat(target.getVariants()).hasSize(2);
+  }
+
+  @Test
+  public void testExceptionPath() {
+    assertThatThrownBy(() -> apply(product(), "{\"dimensions\":{\"width\":\"wide\"}}"))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: dimensions.width");
+  }
+
+  private FieldUpdateResult apply(Product target, String patch) throws IOException {
+    try (JsonParser parser = MAPPER.createParser(patch)) {
+      return patcher.apply(new ProductProcessor(), target, parser);
+    }
+  }
+
+  private static Product product() {
+    Dimensions dimensions = new Dimensions();
+    dimensions.setWidth(1);
+    dimensions.setHeight(2);
+
+    Product product = new Product();
+    product.setName("original");
+    product.setPrice(1);
+    product.setDimensions(dimensions);
+    product.setVariants(List.of(new Variant("a", "a"), new Variant("b", "b")));
+    product.setTags(List.of("old"));
+    return product;
+  }
+
+  enum ProductField implements ModelField {
+    NAME("name"), DISPLAY_NAME("displayName"), PRICE("price"), DIMENSIONS("dimensions"), VARIANTS("variants"), TAGS("tags"),
+    WIDTH("width"), HEIGHT("height");
+
+    private final String fieldName;
+
+    ProductField(String fieldName) {
+      this.fieldName = fieldName;
+    }
+
+    @Override
+    public String getFieldName() {
+      return fieldName;
+    }
+  }
+
+  static class ProductProcessor extends BaseFieldUpdateProcessor<Product> {
+
+    ProductProcessor() {
+      BaseFieldUpdateProcessor<Dimensions> dimensionsProcessor =
+          new BaseFieldUpdateProcessor<>() {
+            {
+              map(ProductField.WIDTH, Dimensions::getWidth, Dimensions::setWidth);
+              map(ProductField.HEIGHT, Dimensions::getHeight, Dimensions::setHeight);
+            }
+          };
+      BaseFieldUpdateProcessor<Variant> variantProcessor = new BaseFieldUpdateProcessor<>() {
+        {
+          map(ProductField.NAME, Variant::getName, Variant::setName);
+        }
+      };
+      map(ProductField.NAME, Product::getName, Product::setName);
+      map(ProductField.DISPLAY_NAME, Product::getDisplayName, Product::setDisplayName);
+      mapInt(ProductField.PRICE, Product::getPrice, Product::setPrice);
+      map(ProductField.DIMENSIONS, Product::getDimensions, Product::setDimensions,
+          dimensionsProcessor);
+      mergeList(ProductField.VARIANTS, Product::getVariants, Product::setVariants,
+          Variant::getSku, variantProcessor);
+      map(ProductField.TAGS, Product::getTags, Product::setTags);
+    }
+  }
+
+  public static class Product {
+    private String name;
+    @JsonProperty("display_name")
+    private String displayName;
+    private String code;
+    private int price;
+    private Dimensions dimensions;
+    private List<Variant> variants;
+    private List<String> tags;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public String getDisplayName() {
+      return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+      this.displayName = displayName;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public void setCode(String code) {
+      this.code = code;
+    }
+
+    public int getPrice() {
+      return price;
+    }
+
+    public void setPrice(int price) {
+      this.price = price;
+    }
+
+    public Dimensions getDimensions() {
+      return dimensions;
+    }
+
+    public void setDimensions(Dimensions dimensions) {
+      this.dimensions = dimensions;
+    }
+
+    public List<Variant> getVariants() {
+      return variants;
+    }
+
+    public void setVariants(List<Variant> variants) {
+      this.variants = variants;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public void setTags(List<String> tags) {
+      this.tags = tags;
+    }
+  }
+
+  public static class Dimensions {
+    private Integer width;
+    private Integer height;
+
+    public Integer getWidth() {
+      return width;
+    }
+
+    public void setWidth(Integer width) {
+      this.width = width;
+    }
+
+    public Integer getHeight() {
+      return height;
+    }
+
+    public void setHeight(Integer height) {
+      this.height = height;
+    }
+  }
+
+  public static class Variant {
+    private String sku;
+    private String name;
+
+    public Variant() {
+    }
+
+    Variant(String sku, String name) {
+      this.sku = sku;
+      this.name = name;
+    }
+
+    public String getSku() {
+      return sku;
+    }
+
+    public void setSku(String sku) {
+      this.sku = sku;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+}
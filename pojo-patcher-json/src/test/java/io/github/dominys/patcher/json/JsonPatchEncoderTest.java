@@ -0,0 +1,121 @@
+package io.github.dominys.patcher.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.json.JsonMergePatcherTest.Dimensions;
+import io.github.dominys.patcher.json.JsonMergePatcherTest.Product;
+import io.github.dominys.patcher.json.JsonMergePatcherTest.ProductProcessor;
+import io.github.dominys.patcher.json.JsonMergePatcherTest.Variant;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonPatchEncoderTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final ProductProcessor processor = new ProductProcessor();
+
+  private final JsonPatchEncoder encoder = new JsonPatchEncoder(MAPPER);
+
+  @Test
+  public void testEncode() throws IOException {
+    Product target = product();
+    FieldUpdateResult result = apply(target, "{\"name\":null,\"display_name\":\"D\","
+        + "\"price\":5,"
+        + "\"dimensions\":{\"width\":3},"
+        + "\"variants\":[{\"sku\":\"b\",\"name\":\"updatedB\"},{\"sku\":\"c\",\"name\":\"c\"}],"
+        + "\"tags\":[\"new\"]}");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    encoder.encode(result, target, processor, out);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("["
+        + "{\"op\":\"replace\",\"path\":\"/name\",\"value\":null},"
+        + "{\"op\":\"add\",\"path\":\"/display_name\",\"value\":\"D\"},"
+        + "{\"op\":\"add\",\"path\":\"/price\",\"value\":5},"
+        + "{\"op\":\"add\",\"path\":\"/dimensions/width\",\"value\":3},"
+        + "{\"op\":\"add\",\"path\":\"/variants/1/name\",\"value\":\"updatedB\"},"
+        + "{\"op\":\"add\",\"path\":\"/variants/2\",\"value\":{\"sku\":\"c\",\"name\":\"c\"}},"
+        + "{\"op\":\"add\",\"path\":\"/tags\",\"value\":[\"new\"]}]");
+  }
+
+  @Test
+  public void testEncodeIntoBuffer() throws IOException {
+    Product target = product();
+    FieldUpdateResult result = apply(target, "{\"price\":5}");
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    encoder.encode(result, target, processor, buffer);
+
+    assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8))
+        .isEqualTo("[{\"op\":\"add\",\"path\":\"/price\",\"value\":5}]");
+  }
+
+  @Test
+  public void testEncodeKeepsStreamOpen() throws IOException {
+    Product target = product();
+    FieldUpdateResult result = apply(target, "{\"price\":5}");
+    AtomicBoolean closed = new AtomicBoolean();
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+
+    encoder.encode(result, target, processor, out);
+
+    assertThat(closed).isFalse();
+    assertThat(out.toString(StandardCharsets.UTF_8))
+        .isEqualTo("[{\"op\":\"add\",\"path\":\"/price\",\"value\":5}]");
+  }
+
+  @Test
+  public void testEncodeWithMapperSettings() throws IOException {
+    ObjectMapper mapper = new ObjectMapper()
+        .setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE)
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    Product target = product();
+    FieldUpdateResult result = apply(mapper, target,
+        "{\"Name\":null,\"display_name\":\"D\",\"Dimensions\":{\"Width\":3}}");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new JsonPatchEncoder(mapper).encode(result, target, processor, out);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("["
+        + "{\"op\":\"remove\",\"path\":\"/Name\"},"
+        + "{\"op\":\"add\",\"path\":\"/display_name\",\"value\":\"D\"},"
+        + "{\"op\":\"add\",\"path\":\"/Dimensions/Width\",\"value\":3}]");
+  }
+
+  private FieldUpdateResult apply(Product target, String patch) throws IOException {
+    return apply(MAPPER, target, patch);
+  }
+
+  private FieldUpdateResult apply(ObjectMapper mapper, Product target, String patch)
+      throws IOException {
+    try (JsonParser parser = mapper.createParser(patch)) {
+      return new JsonMergePatcher(mapper).apply(processor, target, parser);
+    }
+  }
+
+  private static Product product() {
+    Product product = new Product();
+    product.setName("original");
+    product.setPrice(1);
+    product.setDimensions(new Dimensions());
+    product.setVariants(List.of(new Variant("a", "a"), new Variant("b", "b")));
+    return product;
+  }
+}
@@ -0,0 +1,29 @@
+package io.github.dominys.patcher.reactor;
+
+/**
+ * Target and source pair to patch, see {@link ReactivePatcher}.
+ *
+ * @param <T> type
+ */
+public final class PatchRequest<T> {
+
+  private final T target;
+  private final T source;
+
+  private PatchRequest(T target, T source) {
+    this.target = target;
+    this.source = source;
+  }
+
+  public static <T> PatchRequest<T> of(T target, T source) {
+    return new PatchRequest<>(target, source);
+  }
+
+  public T getTarget() {
+    return target;
+  }
+
+  public T getSource() {
+    return source;
+  }
+}
@@ -0,0 +1,27 @@
+package io.github.dominys.patcher.reactor;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+
+/**
+ * Patched target with its update result, see {@link ReactivePatcher}.
+ *
+ * @param <T> type
+ */
+public final class PatchResult<T> {
+
+  private final T target;
+  private final FieldUpdateResult result;
+
+  PatchResult(T target, FieldUpdateResult result) {
+    this.target = target;
+    this.result = result;
+  }
+
+  public T getTarget() {
+    return target;
+  }
+
+  public FieldUpdateResult getResult() {
+    return result;
+  }
+}
@@ -0,0 +1,152 @@
+package io.github.dominys.patcher.reactor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Reactor stage applying a {@link FieldUpdateProcessor} to a stream of patch requests, e.g.
+ * {@code requests.transform(patcher)}.
+ *
+ * <p>Updates are executed on a scheduler, by default {@link Schedulers#boundedElastic()}, so
+ * large list merges do not block event loop threads. Requests are split by key into
+ * {@code parallelism} rails: the requests of one key are patched one at a time in arrival
+ * order, while up to {@code parallelism} keys are patched concurrently. Results are emitted as
+ * the updates complete, so ordering is only preserved per key. Every rail requests at most
+ * {@code prefetch} elements ahead, so the stage honors downstream backpressure.
+ *
+ * <p>The processor is shared by the rails, so it must be thread-safe, e.g. a frozen
+ * {@code BaseFieldUpdateProcessor}. A failed update terminates the stream with its
+ * {@code FieldUpdateException}, use the Reactor error operators to resume.
+ *
+ * @param <T> type
+ */
+public final class ReactivePatcher<T>
+    implements Function<Flux<PatchRequest<T>>, Flux<PatchResult<T>>> {
+
+  private final FieldUpdateProcessor<T> processor;
+  private final Function<? super T, ?> keyProvider;
+  private final int parallelism;
+  private final int prefetch;
+  private final Scheduler scheduler;
+
+  private ReactivePatcher(Builder<T> builder) {
+    this.processor = builder.processor;
+    this.keyProvider = builder.keyProvider;
+    this.parallelism = builder.parallelism;
+    this.prefetch = builder.prefetch;
+    this.scheduler = builder.scheduler;
+  }
+
+  public static <T> Builder<T> builder(FieldUpdateProcessor<T> processor) {
+    return new Builder<>(processor);
+  }
+
+  /**
+   * Patches the target on the scheduler.
+   *
+   * @param target target object
+   * @param source source object
+   * @return update result
+   */
+  public Mono<FieldUpdateResult> patch(T target, T source) {
+    return Mono.fromCallable(() -> processor.execute(target, source))
+        .subscribeOn(scheduler);
+  }
+
+  @Override
+  public Flux<PatchResult<T>> apply(Flux<PatchRequest<T>> requests) {
+    if (parallelism == 1) {
+      return requests.concatMap(this::execute, prefetch);
+    }
+    return requests
+        .groupBy(this::rail, prefetch)
+        .flatMap(rail -> rail.concatMap(this::execute, prefetch), parallelism, prefetch);
+  }
+
+  private int rail(PatchRequest<T> request) {
+    T target = request.getTarget();
+    int hash = keyProvider == null ? System.identityHashCode(target)
+        : Objects.hashCode(keyProvider.apply(target));
+    return Math.floorMod(hash ^ hash >>> 16, parallelism);
+  }
+
+  private Mono<PatchResult<T>> execute(PatchRequest<T> request) {
+    return Mono.fromCallable(() -> new PatchResult<>(request.getTarget(),
+            processor.execute(request.getTarget(), request.getSource())))
+        .subscribeOn(scheduler);
+  }
+
+  /**
+   * Builder class.
+   *
+   * @param <T> type
+   */
+  public static final class Builder<T> {
+
+    private final FieldUpdateProcessor<T> processor;
+    private Function<? super T, ?> keyProvider;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int prefetch = 32;
+    private Scheduler scheduler = Schedulers.boundedElastic();
+
+    private Builder(FieldUpdateProcessor<T> processor) {
+      this.processor = Objects.requireNonNull(processor, "processor");
+    }
+
+    /**
+     * Sets the key of the targets whose patches are applied in order, by default the target
+     * instance.
+     *
+     * @param keyProvider target key provider, e.g. the entity id
+     * @return this builder
+     */
+    public Builder<T> keyProvider(Function<? super T, ?> keyProvider) {
+      this.keyProvider = keyProvider;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent updates, by default the number of processors.
+     *
+     * @param parallelism concurrent updates
+     * @return this builder
+     */
+    public Builder<T> parallelism(int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Sets the number of requests every rail requests ahead, 32 by default.
+     *
+     * @param prefetch prefetched requests
+     * @return this builder
+     */
+    public Builder<T> prefetch(int prefetch) {
+      if (prefetch < 1) {
+        throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+      }
+      this.prefetch = prefetch;
+      return this;
+    }
+
+    public Builder<T> scheduler(Scheduler scheduler) {
+      this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+      return this;
+    }
+
+    public ReactivePatcher<T> build() {
+      return new ReactivePatcher<>(this);
+    }
+  }
+}
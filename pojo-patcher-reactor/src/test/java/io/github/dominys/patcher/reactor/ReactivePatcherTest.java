@@ -0,0 +1,96 @@
+package io.github.dominys.patcher.reactor;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactivePatcherTest {
+
+  private static final ModelField VALUE_FIELD = () -> "value";
+
+  private final Map<String, List<Integer>> applied = new ConcurrentHashMap<>();
+
+  private final BaseFieldUpdateProcessor<Item> processor = new BaseFieldUpdateProcessor<Item>() {
+    {
+      map(VALUE_FIELD, Item::getValue, (item, value) -> {
+        applied.computeIfAbsent(item.getId(), id -> Collections.synchronizedList(
+            new ArrayList<>())).add(value);
+        item.setValue(value);
+      });
+    }
+  }.freeze();
+
+  @Test
+  public void testOrderPerKey() {
+    Map<String, Item> targets = IntStream.range(0, 8)
+        .mapToObj(i -> new Item("item" + i, -1))
+        .collect(Collectors.toMap(Item::getId, item -> item));
+    ReactivePatcher<Item> patcher = ReactivePatcher.builder(processor)
+        .keyProvider(Item::getId)
+        .parallelism(4)
+        .prefetch(2)
+        .build();
+
+    List<PatchResult<Item>> results = Flux.range(0, 800)
+        .map(i -> {
+          Item target = targets.get("item" + i % 8);
+          return PatchRequest.of(target, new Item(target.getId(), i / 8));
+        })
+        .transform(patcher)
+        .collectList()
+        .block();
+
+    assertThat(results).hasSize(800)
+        .allSatisfy(result -> assertThat(result.getResult()).hasToString("{value}"));
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertThat(applied).hasSize(8)
+        .allSatisfy((id, values) -> assertThat(values).isEqualTo(expected));
+    assertThat(targets.values()).extracting(Item::getValue).containsOnly(99);
+  }
+
+  @Test
+  public void testPatch() {
+    Item target = new Item("item", 1);
+
+    FieldUpdateResult result = ReactivePatcher.builder(processor).build()
+        .patch(target, new Item("item", 2))
+        .block();
+
+    assertThat(result).hasToString("{value}");
+    assertThat(target.getValue()).isEqualTo(2);
+  }
+
+  public static class Item {
+    private final String id;
+    private Integer value;
+
+    public Item(String id, Integer value) {
+      this.id = id;
+      this.value = value;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public Integer getValue() {
+      return value;
+    }
+
+    public void setValue(Integer value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package io.github.dominys.patcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Result of a batch update, see {@link FieldUpdateProcessor#executeBatch(List, List, Executor)}.
+ *
+ * <p>Holds the result or the failure of every (target, source) pair by its position in the
+ * batch, and the batch metrics.
+ */
+public class BatchUpdateResult {
+
+  private static final int CHUNKS = Runtime.getRuntime().availableProcessors() * 4;
+
+  private final FieldUpdateResult[] results;
+  private final RuntimeException[] failures;
+  private final int updatedCount;
+  private final int failedCount;
+  private final long elapsedNanos;
+
+  private BatchUpdateResult(FieldUpdateResult[] results, RuntimeException[] failures,
+                            int updatedCount, int failedCount, long elapsedNanos) {
+    this.results = results;
+    this.failures = failures;
+    this.updatedCount = updatedCount;
+    this.failedCount = failedCount;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public int size() {
+    return results.length;
+  }
+
+  /**
+   * Returns the result of the pair.
+   *
+   * @param index position of the pair in the batch
+   * @return update result, {@code null} when the update failed
+   */
+  public FieldUpdateResult getResult(int index) {
+    return results[index];
+  }
+
+  /**
+   * Returns the failure of the pair, usually a {@link FieldUpdateException}.
+   *
+   * @param index position of the pair in the batch
+   * @return failure, {@code null} when the update succeeded
+   */
+  public RuntimeException getFailure(int index) {
+    return failures[index];
+  }
+
+  public boolean isFailed(int index) {
+    return failures[index] != null;
+  }
+
+  /**
+   * Returns the results by position in the batch.
+   *
+   * @return results, {@code null} for the failed pairs
+   */
+  public List<FieldUpdateResult> getResults() {
+    return Collections.unmodifiableList(Arrays.asList(results));
+  }
+
+  /**
+   * Returns the number of pairs whose target was updated.
+   *
+   * @return updated pairs count
+   */
+  public int getUpdatedCount() {
+    return updatedCount;
+  }
+
+  public int getFailedCount() {
+    return failedCount;
+  }
+
+  public boolean hasFailures() {
+    return failedCount > 0;
+  }
+
+  /**
+   * Returns the wall clock time of the batch.
+   *
+   * @return elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  static <T> BatchUpdateResult execute(FieldUpdateProcessor<T> processor, List<T> targets,
+                                       List<T> sources, Executor executor) {
+    if (targets.size() != sources.size()) {
+      throw new IllegalArgumentException("Batch has " + targets.size() + " targets and "
+          + sources.size() + " sources");
+    }
+    if (executor != null) {
+      checkDistinct(targets);
+    }
+    long start = System.nanoTime();
+    int size = targets.size();
+    FieldUpdateResult[] results = new FieldUpdateResult[size];
+    RuntimeException[] failures = new RuntimeException[size];
+    AtomicInteger updatedCount = new AtomicInteger();
+    AtomicInteger failedCount = new AtomicInteger();
+
+    int chunks = executor == null ? Math.min(size, 1) : Math.min(size, CHUNKS);
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      int from = (int) ((long) size * chunk / chunks);
+      int to = (int) ((long) size * (chunk + 1) / chunks);
+      Runnable task = () -> {
+        int updated = 0;
+        int failed = 0;
+        for (int i = from; i < to; i++) {
+          try {
+            FieldUpdateResult result = processor.execute(targets.get(i), sources.get(i));
+            results[i] = result;
+            if (result != null && result.hasUpdates()) {
+              updated++;
+            }
+          } catch (RuntimeException ex) {
+            failures[i] = ex;
+            failed++;
+          }
+        }
+        updatedCount.addAndGet(updated);
+        failedCount.addAndGet(failed);
+      };
+      if (executor == null) {
+        task.run();
+        futures[chunk] = CompletableFuture.completedFuture(null);
+      } else {
+        futures[chunk] = CompletableFuture.runAsync(task, executor);
+      }
+    }
+    CompletableFuture.allOf(futures).join();
+
+    return new BatchUpdateResult(results, failures, updatedCount.get(), failedCount.get(),
+        System.nanoTime() - start);
+  }
+
+  private static void checkDistinct(List<?> targets) {
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>(targets.size()));
+    for (int i = 0; i < targets.size(); i++) {
+      if (!seen.add(targets.get(i))) {
+        throw new IllegalArgumentException("Target at position " + i
+            + " occurs twice in the batch, it can not be updated concurrently");
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.github.dominys.patcher;
+
+/**
+ * Update listener counting the values written to the target.
+ *
+ * <p>Descending into a nested object is not counted by itself, so a patch that only walked
+ * nested objects without changing them has no updates. Not thread safe, an instance can be
+ * reused after {@link #reset()}.
+ */
+public class CountingUpdateListener implements UpdateListener {
+
+  private int count;
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    count++;
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    count++;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public boolean hasUpdates() {
+    return count > 0;
+  }
+
+  public void reset() {
+    count = 0;
+  }
+}
@@ -0,0 +1,67 @@
+package io.github.dominys.patcher;
+
+/**
+ * Result collector of a dry run, see {@link FieldUpdateProcessor#diff(Object, Object, int)}.
+ *
+ * <p>Setters are not called, and the update stops once {@code maxDifferences} written values
+ * have been reported. The target is left unchanged, so no clone is needed to ask whether a patch
+ * would change anything.
+ */
+public class DiffCollector extends FieldUpdateResultCollector {
+
+  private final int maxDifferences;
+
+  private int differences;
+
+  /**
+   * Constructor.
+   *
+   * @param maxDifferences differences count to stop at
+   */
+  public DiffCollector(int maxDifferences) {
+    this(null, maxDifferences);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ordinals       field ordinals of the processor, {@code null} for no bitset
+   * @param maxDifferences differences count to stop at
+   */
+  public DiffCollector(FieldOrdinals ordinals, int maxDifferences) {
+    super(ordinals);
+    this.maxDifferences = maxDifferences;
+  }
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    differences++;
+    super.onFieldUpdate(field);
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    differences++;
+    super.onElementUpdate(index);
+  }
+
+  @Override
+  public void onElementAdd(int index) {
+    differences++;
+    super.onElementAdd(index);
+  }
+
+  public int getDifferences() {
+    return differences;
+  }
+
+  @Override
+  public boolean isDryRun() {
+    return true;
+  }
+
+  @Override
+  public boolean isDone() {
+    return differences >= maxDifferences;
+  }
+}
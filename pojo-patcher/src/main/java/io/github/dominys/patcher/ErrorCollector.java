@@ -0,0 +1,131 @@
+package io.github.dominys.patcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Update listener collecting the failed fields and list elements while the update goes on,
+ * passing the events on to another listener.
+ *
+ * <p>The current path is tracked from the {@code enter}/{@code exit} events in flat arrays, so
+ * a failure costs one {@link PatchError} holding a copy of the path segments regardless of the
+ * depth, and no exception is wrapped per nesting level.
+ */
+public class ErrorCollector implements UpdateListener {
+
+  private final UpdateListener listener;
+
+  private final List<PatchError> errors = new ArrayList<>();
+
+  private ModelField[] fields = new ModelField[8];
+  private int[] indices = new int[8];
+  private int depth;
+
+  /**
+   * Constructor.
+   *
+   * @param listener listener the events are passed on to
+   */
+  public ErrorCollector(UpdateListener listener) {
+    this.listener = listener;
+  }
+
+  public List<PatchError> getErrors() {
+    return Collections.unmodifiableList(errors);
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    listener.onFieldUpdate(field);
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    listener.onElementUpdate(index);
+  }
+
+  @Override
+  public void onElementAdd(int index) {
+    listener.onElementAdd(index);
+  }
+
+  @Override
+  public void enterField(ModelField field) {
+    push(field, -1);
+    listener.enterField(field);
+  }
+
+  @Override
+  public void exitField(ModelField field) {
+    depth--;
+    listener.exitField(field);
+  }
+
+  @Override
+  public void enterElement(int index) {
+    push(null, index);
+    listener.enterElement(index);
+  }
+
+  @Override
+  public void exitElement(int index) {
+    depth--;
+    listener.exitElement(index);
+  }
+
+  @Override
+  public boolean isDryRun() {
+    return listener.isDryRun();
+  }
+
+  @Override
+  public boolean isDone() {
+    return listener.isDone();
+  }
+
+  @Override
+  public boolean isCollectingErrors() {
+    return true;
+  }
+
+  @Override
+  public void onFieldError(ModelField field, Exception ex) {
+    addError(field, -1, ex);
+    listener.onFieldError(field, ex);
+  }
+
+  @Override
+  public void onElementError(int index, Exception ex) {
+    addError(null, index, ex);
+    listener.onElementError(index, ex);
+  }
+
+  @Override
+  public UndoLog getUndoLog() {
+    return listener.getUndoLog();
+  }
+
+  private void push(ModelField field, int index) {
+    if (depth == fields.length) {
+      fields = Arrays.copyOf(fields, depth * 2);
+      indices = Arrays.copyOf(indices, depth * 2);
+    }
+    fields[depth] = field;
+    indices[depth] = index;
+    depth++;
+  }
+
+  private void addError(ModelField field, int index, Exception ex) {
+    ModelField[] errorFields = Arrays.copyOf(fields, depth + 1);
+    int[] errorIndices = Arrays.copyOf(indices, depth + 1);
+    errorFields[depth] = field;
+    errorIndices[depth] = index;
+    errors.add(new PatchError(errorFields, errorIndices, ex));
+  }
+}
@@ -0,0 +1,98 @@
+package io.github.dominys.patcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordinals of the fields of a processor, assigned in registration order.
+ *
+ * <p>Results of a processor with ordinals carry a bitset of the changed top level fields, see
+ * {@link FieldUpdateResult#isChanged(ModelField)}. Fields are registered while the processor is
+ * set up, lookups are safe to run concurrently afterwards. A {@link #freeze() frozen} copy is
+ * immutable and can be shared between threads however it is published.
+ */
+public final class FieldOrdinals {
+
+  private final Map<ModelField, Integer> ordinals;
+  private final List<ModelField> fields;
+  private final boolean frozen;
+
+  /**
+   * Creates empty ordinals to register fields into.
+   */
+  public FieldOrdinals() {
+    this.ordinals = new HashMap<>();
+    this.fields = new ArrayList<>();
+    this.frozen = false;
+  }
+
+  private FieldOrdinals(FieldOrdinals source) {
+    this.ordinals = Map.copyOf(source.ordinals);
+    this.fields = List.copyOf(source.fields);
+    this.frozen = true;
+  }
+
+  /**
+   * Creates ordinals of the fields in the given order.
+   *
+   * @param fields fields
+   * @return ordinals
+   */
+  public static FieldOrdinals of(ModelField... fields) {
+    FieldOrdinals ordinals = new FieldOrdinals();
+    for (ModelField field : fields) {
+      ordinals.register(field);
+    }
+    return ordinals;
+  }
+
+  /**
+   * Assigns the next ordinal to the field, unless it already has one.
+   *
+   * @param field field
+   * @return ordinal of the field
+   * @throws IllegalStateException if the ordinals are frozen
+   */
+  public int register(ModelField field) {
+    if (frozen) {
+      throw new IllegalStateException("Field ordinals are frozen, field "
+          + field.getFieldName() + " can not be registered");
+    }
+    Integer ordinal = ordinals.putIfAbsent(field, fields.size());
+    if (ordinal != null) {
+      return ordinal;
+    }
+    fields.add(field);
+    return fields.size() - 1;
+  }
+
+  /**
+   * Returns the ordinal of the field.
+   *
+   * @param field field
+   * @return ordinal or {@code -1} when the field is not registered
+   */
+  public int ordinalOf(ModelField field) {
+    Integer ordinal = ordinals.get(field);
+    return ordinal == null ? -1 : ordinal;
+  }
+
+  public ModelField fieldOf(int ordinal) {
+    return fields.get(ordinal);
+  }
+
+  public int size() {
+    return fields.size();
+  }
+
+  /**
+   * Returns an immutable copy with the same ordinals.
+   *
+   * @return frozen ordinals, this instance if already frozen
+   */
+  public FieldOrdinals freeze() {
+    return frozen ? this : new FieldOrdinals(this);
+  }
+}
@@ -1,5 +1,9 @@
 package io.github.dominys.patcher;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+
 /**
  * Interface for a field update processors.
  *
@@ -10,4 +14,207 @@ public interface FieldUpdateProcessor<T> {
 
   FieldUpdateResult execute(T target, T source);
 
+  /**
+   * Executes the update reporting changes to the listener instead of building a result.
+   *
+   * <p>The default implementation calls {@link #execute(Object, Object)}, which writes to the
+   * target without recording the overwritten values, so it rejects
+   * {@link UpdateListener#isDryRun() dry-run} listeners and listeners with an
+   * {@link UpdateListener#getUndoLog() undo log}.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param listener update listener
+   * @throws IllegalStateException if the listener is a dry-run listener or has an undo log
+   */
+  default void execute(T target, T source, UpdateListener listener) {
+    if (listener.isDryRun()) {
+      throw new IllegalStateException("Processor " + getClass().getName()
+          + " does not support dry runs");
+    }
+    if (listener.getUndoLog() != null) {
+      throw new IllegalStateException("Processor " + getClass().getName()
+          + " does not support transactional updates");
+    }
+    FieldUpdateResult result = execute(target, source);
+    if (result != null) {
+      result.accept(listener);
+    }
+  }
+
+  /**
+   * Executes the update and restores the overwritten values when it fails, so the target is
+   * left as it was. Only the overwritten values are recorded, see {@link UndoLog}.
+   *
+   * @param target target object
+   * @param source source object
+   * @return update result
+   * @throws IllegalStateException if this processor does not implement the listener
+   *                               {@code execute}
+   */
+  default FieldUpdateResult executeTransactional(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector(getFieldOrdinals());
+    executeTransactional(target, source, collector);
+    return collector.getResult();
+  }
+
+  /**
+   * Executes the update reporting changes to the listener, and restores the overwritten values
+   * when it fails. The events reported before the failure are not revoked.
+   *
+   * <p>Processors that do not implement the listener {@code execute} can not record the values
+   * they overwrite and are rejected before writing. A nested one fails the enclosing operation
+   * with a {@link FieldUpdateException}, and the values written until then are restored.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param listener update listener
+   * @throws IllegalStateException if this processor does not implement the listener
+   *                               {@code execute}
+   */
+  default void executeTransactional(T target, T source, UpdateListener listener) {
+    UndoLog undoLog = new UndoLog();
+    try {
+      execute(target, source, undoLog.attach(listener));
+    } catch (RuntimeException ex) {
+      undoLog.rollback();
+      throw ex;
+    }
+  }
+
+  /**
+   * Executes the update reporting changes to the listener, going on with the remaining fields
+   * and list elements when one fails. Processors that do not implement the listener
+   * {@code execute} still stop at the first failure.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param listener update listener
+   * @return failures with their paths, empty when the update succeeded
+   */
+  default List<PatchError> executeCollectingErrors(T target, T source, UpdateListener listener) {
+    ErrorCollector collector = new ErrorCollector(listener);
+    execute(target, source, collector);
+    return collector.getErrors();
+  }
+
+  /**
+   * Whether the target can be updated from the source, otherwise the enclosing operation
+   * replaces the target value with the source value, e.g. when they are of different subtypes.
+   *
+   * @param target target object
+   * @param source source object
+   * @return {@code true} to update the target with this processor
+   */
+  default boolean canMerge(T target, T source) {
+    return true;
+  }
+
+  /**
+   * Returns the ordinals of the fields this processor updates.
+   *
+   * @return field ordinals or {@code null} if the processor does not assign them
+   */
+  default FieldOrdinals getFieldOrdinals() {
+    return null;
+  }
+
+  /**
+   * Computes the result {@link #execute(Object, Object)} would return without calling setters.
+   *
+   * @param target target object
+   * @param source source object
+   * @return update result
+   */
+  default FieldUpdateResult diff(T target, T source) {
+    return diff(target, source, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Computes the result {@link #execute(Object, Object)} would return without calling setters,
+   * stopping once the given number of differences has been found.
+   *
+   * @param target         target object
+   * @param source         source object
+   * @param maxDifferences differences count to stop at
+   * @return update result with up to {@code maxDifferences} written values
+   * @throws IllegalStateException if this processor does not implement the listener
+   *                               {@code execute}
+   * @throws FieldUpdateException  wrapping that {@code IllegalStateException} if a nested
+   *                               processor does not implement it
+   */
+  default FieldUpdateResult diff(T target, T source, int maxDifferences) {
+    DiffCollector collector = new DiffCollector(getFieldOrdinals(), maxDifferences);
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  /**
+   * Folds copies of the sources into one source, applying them in order: fields follow
+   * last-writer-wins under their conditions, nested values are merged and lists are joined into
+   * a keyed union. The sources are left as they are.
+   *
+   * <p>Applying the combined source equals applying the sources in order only as long as the
+   * nested values of the target are merged. A nested value that a source replaces instead, e.g.
+   * with another subtype or after a {@code null}, ends up merged into the target value by the
+   * combined source, so fields the last replacing value leaves unset keep the target values.
+   *
+   * @param sources source objects in arrival order
+   * @param copier  deep copy of a source, with modifiable lists for in-place list merges
+   * @return combined source
+   * @throws IllegalArgumentException if there are no sources
+   */
+  default T coalesce(List<? extends T> sources, UnaryOperator<T> copier) {
+    if (sources.isEmpty()) {
+      throw new IllegalArgumentException("No sources to coalesce");
+    }
+    T combined = copier.apply(sources.get(0));
+    UpdateListener listener = new CountingUpdateListener();
+    for (int i = 1; i < sources.size(); i++) {
+      execute(combined, copier.apply(sources.get(i)), listener);
+    }
+    return combined;
+  }
+
+  /**
+   * Updates the target once with the {@link #coalesce(List, UnaryOperator) combined} sources,
+   * instead of once per source.
+   *
+   * @param target  target object
+   * @param sources source objects in arrival order
+   * @param copier  deep copy of a source
+   * @return combined update result
+   */
+  default FieldUpdateResult executeCoalesced(T target, List<? extends T> sources,
+                                             UnaryOperator<T> copier) {
+    return execute(target, coalesce(sources, copier));
+  }
+
+  /**
+   * Updates the targets from the sources pairwise in the caller thread.
+   *
+   * @param targets target objects
+   * @param sources source objects, one per target
+   * @return batch result
+   */
+  default BatchUpdateResult executeBatch(List<T> targets, List<T> sources) {
+    return BatchUpdateResult.execute(this, targets, sources, null);
+  }
+
+  /**
+   * Updates the targets from the sources pairwise, running chunks of the batch on the executor,
+   * e.g. a bounded pool or a virtual thread per task executor. A failed pair does not abort the
+   * batch, its exception is reported in the result. Chunks are not ordered against each other,
+   * so every target may occur only once.
+   *
+   * @param targets  target objects, distinct by identity
+   * @param sources  source objects, one per target
+   * @param executor executor
+   * @return batch result
+   * @throws IllegalArgumentException if a target occurs more than once
+   */
+  default BatchUpdateResult executeBatch(List<T> targets, List<T> sources, Executor executor) {
+    return BatchUpdateResult.execute(this, targets, sources, executor);
+  }
+
 }
@@ -2,25 +2,65 @@ package io.github.dominys.patcher;
 
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Field update result.
+ *
+ * <p>Results of processors with {@link FieldOrdinals} carry a bitset of the changed top level
+ * fields, so {@link #isChanged(ModelField)} is a bit test. Nested changes are looked up by path
+ * with {@link #get(String)}, from an index built on the first lookup.
  */
 public class FieldUpdateResult {
 
+  private static final FieldUpdateResult EMPTY = builder().children(List.of()).build();
+
+  private static final int FIELD_CACHE_SIZE = 4096;
+
+  private static final Map<ModelField, FieldUpdateResult> FIELD_LEAVES =
+      new ConcurrentHashMap<>();
+
+  private static final int INDEX_CACHE_SIZE = 1024;
+
+  private static final FieldUpdateResult[] INDEX_LEAVES = new FieldUpdateResult[INDEX_CACHE_SIZE];
+
+  private static final FieldUpdateResult[] ADDED_INDEX_LEAVES =
+      new FieldUpdateResult[INDEX_CACHE_SIZE];
+
+  static {
+    for (int i = 0; i < INDEX_CACHE_SIZE; i++) {
+      INDEX_LEAVES[i] = builder().index(i).build();
+      ADDED_INDEX_LEAVES[i] = builder().index(i).added(true).build();
+    }
+  }
+
   private final ModelField field;
 
   private final Integer index;
 
   private final List<FieldUpdateResult> children;
 
+  private final boolean added;
+
+  private final FieldOrdinals ordinals;
+
+  private final long[] changedFields;
+
+  private volatile Map<String, FieldUpdateResult> pathIndex;
+
   private FieldUpdateResult(Builder builder) {
     field = builder.field;
     index = builder.index;
     children = builder.children;
+    added = builder.added;
+    ordinals = builder.ordinals;
+    changedFields = builder.changedFields;
   }
 
   public ModelField getField() {
@@ -35,10 +75,99 @@ public class FieldUpdateResult {
     return children;
   }
 
+  /**
+   * Whether this is a list element appended to the target list.
+   *
+   * @return {@code true} for an appended element
+   */
+  public boolean isAdded() {
+    return added;
+  }
+
   public boolean hasUpdates() {
     return field != null || index != null || CollectionUtils.isNotEmpty(children);
   }
 
+  /**
+   * Checks whether the child field was changed.
+   *
+   * @param field child field
+   * @return {@code true} if the field was written or merged with changes
+   */
+  public boolean isChanged(ModelField field) {
+    if (ordinals != null) {
+      int ordinal = ordinals.ordinalOf(field);
+      if (ordinal >= 0) {
+        return changedFields != null && (changedFields[ordinal >>> 6] & 1L << ordinal) != 0;
+      }
+    }
+    if (children != null) {
+      for (FieldUpdateResult child : children) {
+        if (field.equals(child.field)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the changed top level fields by ordinal, see {@link FieldOrdinals}.
+   *
+   * @return changed fields, empty without ordinals
+   */
+  public BitSet getChangedFields() {
+    return changedFields == null ? new BitSet() : BitSet.valueOf(changedFields);
+  }
+
+  /**
+   * Returns the result of a nested change.
+   *
+   * @param path path relative to this result, e.g. {@code lines[0].product}
+   * @return result or {@code null} if nothing was changed at the path
+   */
+  public FieldUpdateResult get(String path) {
+    if (CollectionUtils.isEmpty(children)) {
+      return null;
+    }
+    Map<String, FieldUpdateResult> index = pathIndex;
+    if (index == null) {
+      index = new HashMap<>();
+      indexChildren(index, "");
+      pathIndex = index;
+    }
+    return index.get(path);
+  }
+
+  /**
+   * Checks whether there is a change at the path, see {@link #get(String)}.
+   *
+   * @param path path relative to this result
+   * @return {@code true} if something was changed at the path
+   */
+  public boolean isChanged(String path) {
+    return get(path) != null;
+  }
+
+  private void indexChildren(Map<String, FieldUpdateResult> index, String prefix) {
+    if (children == null) {
+      return;
+    }
+    for (FieldUpdateResult child : children) {
+      String path;
+      if (child.field != null) {
+        path = prefix.isEmpty() ? child.field.getFieldName()
+            : prefix + '.' + child.field.getFieldName();
+      } else if (child.index != null) {
+        path = prefix + '[' + child.index + ']';
+      } else {
+        path = prefix;
+      }
+      index.putIfAbsent(path, child);
+      child.indexChildren(index, path);
+    }
+  }
+
   /**
    * To builder method.
    *
@@ -49,13 +178,112 @@ public class FieldUpdateResult {
     builder.field = getField();
     builder.index = getIndex();
     builder.children = getChildren();
+    builder.added = added;
+    builder.ordinals = ordinals;
+    builder.changedFields = changedFields;
     return builder;
   }
 
+  /**
+   * Replays this result as update events.
+   *
+   * @param listener update listener
+   */
+  public void accept(UpdateListener listener) {
+    if (field != null) {
+      if (children == null) {
+        listener.onFieldUpdate(field);
+        return;
+      }
+      listener.enterField(field);
+      acceptChildren(listener);
+      listener.exitField(field);
+    } else if (index != null) {
+      if (children == null) {
+        if (added) {
+          listener.onElementAdd(index);
+        } else {
+          listener.onElementUpdate(index);
+        }
+        return;
+      }
+      listener.enterElement(index);
+      acceptChildren(listener);
+      listener.exitElement(index);
+    } else {
+      acceptChildren(listener);
+    }
+  }
+
+  private void acceptChildren(UpdateListener listener) {
+    if (children != null) {
+      for (FieldUpdateResult child : children) {
+        child.accept(listener);
+      }
+    }
+  }
+
   public static Builder builder() {
     return new Builder();
   }
 
+  /**
+   * Shared result without updates.
+   *
+   * @return empty result
+   */
+  public static FieldUpdateResult empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Leaf result of a written field, interned for the first 4096 distinct fields, so fields
+   * created on the fly do not fill the cache without bound.
+   *
+   * @param field field
+   * @return leaf result
+   */
+  public static FieldUpdateResult of(ModelField field) {
+    FieldUpdateResult leaf = FIELD_LEAVES.get(field);
+    if (leaf != null) {
+      return leaf;
+    }
+    leaf = builder().field(field).build();
+    if (FIELD_LEAVES.size() < FIELD_CACHE_SIZE) {
+      FieldUpdateResult interned = FIELD_LEAVES.putIfAbsent(field, leaf);
+      if (interned != null) {
+        return interned;
+      }
+    }
+    return leaf;
+  }
+
+  /**
+   * Leaf result of a written list element, interned for the first list positions.
+   *
+   * @param index element index
+   * @return leaf result
+   */
+  public static FieldUpdateResult ofIndex(int index) {
+    if (index >= 0 && index < INDEX_CACHE_SIZE) {
+      return INDEX_LEAVES[index];
+    }
+    return builder().index(index).build();
+  }
+
+  /**
+   * Leaf result of an appended list element, interned for the first list positions.
+   *
+   * @param index element index
+   * @return leaf result
+   */
+  public static FieldUpdateResult ofAddedIndex(int index) {
+    if (index >= 0 && index < INDEX_CACHE_SIZE) {
+      return ADDED_INDEX_LEAVES[index];
+    }
+    return builder().index(index).added(true).build();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -99,6 +327,10 @@ public class FieldUpdateResult {
 
     private Integer index;
     private List<FieldUpdateResult> children;
+    private boolean added;
+
+    private FieldOrdinals ordinals;
+    private long[] changedFields;
 
     private Builder() {
     }
@@ -118,6 +350,24 @@ public class FieldUpdateResult {
       return this;
     }
 
+    public Builder added(boolean added) {
+      this.added = added;
+      return this;
+    }
+
+    /**
+     * Sets the bitset of the changed top level fields.
+     *
+     * @param ordinals      field ordinals of the processor
+     * @param changedFields changed fields by ordinal, {@code null} for none
+     * @return builder
+     */
+    public Builder changedFields(FieldOrdinals ordinals, long[] changedFields) {
+      this.ordinals = ordinals;
+      this.changedFields = changedFields;
+      return this;
+    }
+
     public FieldUpdateResult build() {
       return new FieldUpdateResult(this);
     }
@@ -0,0 +1,130 @@
+package io.github.dominys.patcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Update listener building the {@link FieldUpdateResult} tree.
+ *
+ * <p>Written values are represented by the interned leaf results, lists are only allocated for
+ * levels that have changes. With the field ordinals of the processor the result also carries a
+ * bitset of the changed top level fields.
+ */
+public class FieldUpdateResultCollector implements UpdateListener {
+
+  private final List<List<FieldUpdateResult>> parents = new ArrayList<>();
+
+  private final FieldOrdinals ordinals;
+
+  private List<FieldUpdateResult> children;
+
+  private long[] changedFields;
+
+  /**
+   * Constructor.
+   */
+  public FieldUpdateResultCollector() {
+    this(null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param ordinals field ordinals of the processor, {@code null} for no bitset
+   */
+  public FieldUpdateResultCollector(FieldOrdinals ordinals) {
+    this.ordinals = ordinals;
+  }
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    markChanged(field);
+    add(FieldUpdateResult.of(field));
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    add(FieldUpdateResult.ofIndex(index));
+  }
+
+  @Override
+  public void onElementAdd(int index) {
+    add(FieldUpdateResult.ofAddedIndex(index));
+  }
+
+  @Override
+  public void enterField(ModelField field) {
+    enter();
+  }
+
+  @Override
+  public void exitField(ModelField field) {
+    List<FieldUpdateResult> fieldChildren = exit();
+    markChanged(field);
+    add(FieldUpdateResult.builder()
+        .field(field)
+        .children(fieldChildren)
+        .build());
+  }
+
+  @Override
+  public void enterElement(int index) {
+    enter();
+  }
+
+  @Override
+  public void exitElement(int index) {
+    List<FieldUpdateResult> elementChildren = exit();
+    add(FieldUpdateResult.builder()
+        .index(index)
+        .children(elementChildren)
+        .build());
+  }
+
+  /**
+   * Returns the collected result.
+   *
+   * @return result with the top level changes as children
+   */
+  public FieldUpdateResult getResult() {
+    if (children == null) {
+      return FieldUpdateResult.empty();
+    }
+    return FieldUpdateResult.builder()
+        .children(children)
+        .changedFields(ordinals, changedFields)
+        .build();
+  }
+
+  private void markChanged(ModelField field) {
+    if (ordinals == null || !parents.isEmpty()) {
+      return;
+    }
+    int ordinal = ordinals.ordinalOf(field);
+    if (ordinal < 0) {
+      return;
+    }
+    if (changedFields == null) {
+      changedFields = new long[(ordinals.size() + 63) >>> 6];
+    }
+    changedFields[ordinal >>> 6] |= 1L << ordinal;
+  }
+
+  private void add(FieldUpdateResult result) {
+    if (children == null) {
+      children = new ArrayList<>();
+    }
+    children.add(result);
+  }
+
+  private void enter() {
+    parents.add(children);
+    children = null;
+  }
+
+  private List<FieldUpdateResult> exit() {
+    List<FieldUpdateResult> current = children == null ? List.of() : children;
+    children = parents.remove(parents.size() - 1);
+    return current;
+  }
+}
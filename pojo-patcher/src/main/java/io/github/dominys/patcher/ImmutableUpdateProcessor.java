@@ -0,0 +1,37 @@
+package io.github.dominys.patcher;
+
+/**
+ * Interface for update processors of immutable objects.
+ *
+ * <p>Instead of writing to the target, a processor returns a patched copy of it. Unchanged
+ * values are shared with the target by reference, and the target itself is returned when
+ * nothing changes. The changes are reported to the listener as by a {@link FieldUpdateProcessor}.
+ *
+ * @param <T> type
+ */
+@FunctionalInterface
+public interface ImmutableUpdateProcessor<T> {
+
+  /**
+   * Patches the target with the source.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param listener update listener, a dry run returns the target
+   * @return patched copy of the target, the target itself when there are no changes
+   */
+  T patch(T target, T source, UpdateListener listener);
+
+  /**
+   * Whether the target can be patched from the source, otherwise the enclosing operation
+   * replaces the target value with the source value.
+   *
+   * @param target target object
+   * @param source source object
+   * @return {@code true} to patch the target with this processor
+   */
+  default boolean canMerge(T target, T source) {
+    return true;
+  }
+
+}
@@ -0,0 +1,101 @@
+package io.github.dominys.patcher;
+
+/**
+ * Failure of a field or list element, collected by an {@link ErrorCollector}.
+ *
+ * <p>The path is kept as field and index segments from the root and only rendered to a string,
+ * e.g. {@code lines[3].product}, on demand.
+ */
+public final class PatchError {
+
+  private final ModelField[] fields;
+  private final int[] indices;
+  private final String nestedPath;
+  private final Throwable cause;
+  private String path;
+
+  PatchError(ModelField[] fields, int[] indices, Exception ex) {
+    this.fields = fields;
+    this.indices = indices;
+    if (ex instanceof FieldUpdateException) {
+      this.nestedPath = ((FieldUpdateException) ex).getField();
+      this.cause = ex.getCause();
+    } else {
+      this.nestedPath = null;
+      this.cause = ex;
+    }
+  }
+
+  /**
+   * Returns the number of path segments.
+   *
+   * @return path depth
+   */
+  public int getDepth() {
+    return fields.length;
+  }
+
+  /**
+   * Returns the field of a path segment.
+   *
+   * @param segment segment position
+   * @return field or {@code null} for a list element segment
+   */
+  public ModelField getField(int segment) {
+    return fields[segment];
+  }
+
+  /**
+   * Returns the index of a path segment.
+   *
+   * @param segment segment position
+   * @return element index or {@code -1} for a field segment
+   */
+  public int getIndex(int segment) {
+    return indices[segment];
+  }
+
+  public Throwable getCause() {
+    return cause;
+  }
+
+  /**
+   * Renders the path, e.g. {@code lines[3].product}.
+   *
+   * @return path
+   */
+  public String getPath() {
+    if (path == null) {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < fields.length; i++) {
+        if (fields[i] == null) {
+          builder.append('[').append(indices[i]).append(']');
+        } else {
+          if (builder.length() > 0) {
+            builder.append('.');
+          }
+          builder.append(fields[i].getFieldName());
+        }
+      }
+      if (nestedPath != null) {
+        builder.append('.').append(nestedPath);
+      }
+      path = builder.toString();
+    }
+    return path;
+  }
+
+  /**
+   * Converts the error into the exception the update would have thrown without collecting.
+   *
+   * @return field update exception
+   */
+  public FieldUpdateException toException() {
+    return new FieldUpdateException(getPath(), cause);
+  }
+
+  @Override
+  public String toString() {
+    return getPath() + ": " + cause;
+  }
+}
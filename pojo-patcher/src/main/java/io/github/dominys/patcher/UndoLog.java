@@ -0,0 +1,221 @@
+package io.github.dominys.patcher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Log of the values overwritten by an update, to roll the update back.
+ *
+ * <p>Operations record the previous value of a field right before they write it, when the
+ * listener of the update carries a log, see {@link UpdateListener#getUndoLog()}. Only written
+ * values are recorded, so the log and the rollback scale with the size of the change instead of
+ * the size of the target. Writes of processors that do not implement the listener
+ * {@code execute} are not recorded.
+ *
+ * <p>Not thread-safe, concurrent merges record into a log per thread, see
+ * {@link #append(UndoLog)}.
+ */
+public final class UndoLog {
+
+  private static final int SETTER = 0;
+  private static final int ELEMENT = 1;
+  private static final int SIZE = 2;
+
+  private byte[] kinds = new byte[8];
+  private Object[] targets = new Object[8];
+  private Object[] setters = new Object[8];
+  private Object[] values = new Object[8];
+  private int[] indices = new int[8];
+  private int size;
+
+  /**
+   * Records the value of a field before it is overwritten.
+   *
+   * @param target   target object
+   * @param setter   field setter
+   * @param previous previous field value
+   * @param <T>      target type
+   * @param <R>      field type
+   */
+  public <T, R> void record(T target, BiConsumer<T, R> setter, R previous) {
+    add(SETTER, target, setter, previous, 0);
+  }
+
+  /**
+   * Records the element of a list before it is replaced.
+   *
+   * @param list     list
+   * @param index    element index
+   * @param previous previous element
+   * @param <R>      element type
+   */
+  public <R> void recordElement(List<R> list, int index, R previous) {
+    add(ELEMENT, list, null, previous, index);
+  }
+
+  /**
+   * Records the size of a list before elements are appended to it.
+   *
+   * @param list list
+   * @param size previous size
+   */
+  public void recordSize(List<?> list, int size) {
+    add(SIZE, list, null, null, size);
+  }
+
+  /**
+   * Moves the entries of another log, e.g. recorded by another thread, to this log.
+   *
+   * @param other log to drain
+   */
+  public void append(UndoLog other) {
+    for (int i = 0; i < other.size; i++) {
+      add(other.kinds[i], other.targets[i], other.setters[i], other.values[i],
+          other.indices[i]);
+    }
+    other.clear();
+  }
+
+  /**
+   * Restores the recorded values in reverse order and clears the log.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void rollback() {
+    for (int i = size - 1; i >= 0; i--) {
+      switch (kinds[i]) {
+        case SETTER:
+          ((BiConsumer) setters[i]).accept(targets[i], values[i]);
+          break;
+        case ELEMENT:
+          ((List) targets[i]).set(indices[i], values[i]);
+          break;
+        default:
+          List<?> list = (List<?>) targets[i];
+          list.subList(indices[i], list.size()).clear();
+          break;
+      }
+    }
+    clear();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Drops the recorded entries, e.g. once the update has been committed.
+   */
+  public void clear() {
+    Arrays.fill(targets, 0, size, null);
+    Arrays.fill(setters, 0, size, null);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+  }
+
+  /**
+   * Wraps the listener into one passing the events on and recording into this log.
+   *
+   * @param listener update listener
+   * @return recording listener
+   */
+  public UpdateListener attach(UpdateListener listener) {
+    return new RecordingListener(listener, this);
+  }
+
+  private void add(int kind, Object target, Object setter, Object value, int index) {
+    if (size == kinds.length) {
+      int capacity = size * 2;
+      kinds = Arrays.copyOf(kinds, capacity);
+      targets = Arrays.copyOf(targets, capacity);
+      setters = Arrays.copyOf(setters, capacity);
+      values = Arrays.copyOf(values, capacity);
+      indices = Arrays.copyOf(indices, capacity);
+    }
+    kinds[size] = (byte) kind;
+    targets[size] = target;
+    setters[size] = setter;
+    values[size] = value;
+    indices[size] = index;
+    size++;
+  }
+
+  /**
+   * Update listener passing the events on, carrying the undo log.
+   */
+  private static final class RecordingListener implements UpdateListener {
+
+    private final UpdateListener listener;
+    private final UndoLog undoLog;
+
+    RecordingListener(UpdateListener listener, UndoLog undoLog) {
+      this.listener = listener;
+      this.undoLog = undoLog;
+    }
+
+    @Override
+    public void onFieldUpdate(ModelField field) {
+      listener.onFieldUpdate(field);
+    }
+
+    @Override
+    public void onElementUpdate(int index) {
+      listener.onElementUpdate(index);
+    }
+
+    @Override
+    public void onElementAdd(int index) {
+      listener.onElementAdd(index);
+    }
+
+    @Override
+    public void enterField(ModelField field) {
+      listener.enterField(field);
+    }
+
+    @Override
+    public void exitField(ModelField field) {
+      listener.exitField(field);
+    }
+
+    @Override
+    public void enterElement(int index) {
+      listener.enterElement(index);
+    }
+
+    @Override
+    public void exitElement(int index) {
+      listener.exitElement(index);
+    }
+
+    @Override
+    public boolean isDryRun() {
+      return listener.isDryRun();
+    }
+
+    @Override
+    public boolean isDone() {
+      return listener.isDone();
+    }
+
+    @Override
+    public boolean isCollectingErrors() {
+      return listener.isCollectingErrors();
+    }
+
+    @Override
+    public void onFieldError(ModelField field, Exception ex) {
+      listener.onFieldError(field, ex);
+    }
+
+    @Override
+    public void onElementError(int index, Exception ex) {
+      listener.onElementError(index, ex);
+    }
+
+    @Override
+    public UndoLog getUndoLog() {
+      return undoLog;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package io.github.dominys.patcher;
+
+/**
+ * Receives the changes made by an update as they happen.
+ *
+ * <p>A value that was written to the target is reported with {@link #onFieldUpdate(ModelField)}
+ * or {@link #onElementUpdate(int)}. A value that was merged by a nested processor is reported as
+ * an {@code enter}/{@code exit} pair around the changes of the nested object. The events map one
+ * to one onto the {@link FieldUpdateResult} tree, see {@link FieldUpdateResultCollector}.
+ *
+ * <p>A listener can also make the update a dry run that never calls setters, and stop it early,
+ * see {@link DiffCollector}.
+ */
+public interface UpdateListener {
+
+  void onFieldUpdate(ModelField field);
+
+  void onElementUpdate(int index);
+
+  /**
+   * Reports a list element appended to the target list, reported as an update by default.
+   *
+   * @param index element index
+   */
+  default void onElementAdd(int index) {
+    onElementUpdate(index);
+  }
+
+  default void enterField(ModelField field) {
+  }
+
+  default void exitField(ModelField field) {
+  }
+
+  default void enterElement(int index) {
+  }
+
+  default void exitElement(int index) {
+  }
+
+  /**
+   * Whether the changes are only reported, without writing them to the target.
+   *
+   * @return {@code true} for a dry run
+   */
+  default boolean isDryRun() {
+    return false;
+  }
+
+  /**
+   * Whether the update can stop, checked before every field and list element.
+   *
+   * @return {@code true} to skip the remaining changes
+   */
+  default boolean isDone() {
+    return false;
+  }
+
+  /**
+   * Whether a failed field or element is reported with {@link #onFieldError(ModelField, Exception)}
+   * or {@link #onElementError(int, Exception)} and the update goes on with the remaining ones,
+   * instead of throwing a {@link FieldUpdateException}, see {@link ErrorCollector}.
+   *
+   * @return {@code true} to continue on errors
+   */
+  default boolean isCollectingErrors() {
+    return false;
+  }
+
+  /**
+   * Reports a failed field, when collecting errors. The target value is left as it is.
+   *
+   * @param field field name
+   * @param ex    failure
+   */
+  default void onFieldError(ModelField field, Exception ex) {
+  }
+
+  /**
+   * Reports a failed list element, when collecting errors. The target element is kept.
+   *
+   * @param index element index
+   * @param ex    failure
+   */
+  default void onElementError(int index, Exception ex) {
+  }
+
+  /**
+   * Returns the log the overwritten values are recorded into, see {@link UndoLog}.
+   *
+   * @return undo log or {@code null} to not record them
+   */
+  default UndoLog getUndoLog() {
+    return null;
+  }
+
+}
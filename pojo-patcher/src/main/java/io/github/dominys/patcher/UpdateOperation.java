@@ -10,4 +10,29 @@ public interface UpdateOperation<T> {
 
   FieldUpdateResult execute(T target, T source);
 
+  /**
+   * Executes the operation reporting changes to the listener instead of building a result.
+   * The default implementation writes to the target without recording the overwritten values,
+   * so it rejects dry-run listeners and listeners with an undo log.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param listener update listener
+   * @throws IllegalStateException if the listener is a dry-run listener or has an undo log
+   */
+  default void execute(T target, T source, UpdateListener listener) {
+    if (listener.isDryRun()) {
+      throw new IllegalStateException("Operation " + getClass().getName()
+          + " does not support dry runs");
+    }
+    if (listener.getUndoLog() != null) {
+      throw new IllegalStateException("Operation " + getClass().getName()
+          + " does not support transactional updates");
+    }
+    FieldUpdateResult result = execute(target, source);
+    if (result != null) {
+      result.accept(listener);
+    }
+  }
+
 }
@@ -0,0 +1,42 @@
+package io.github.dominys.patcher.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a field of a {@link Patchable} POJO.
+ *
+ * <p>The field is read and written through its bean getter and setter. Fields of a
+ * {@link Patchable} type, and {@link PatchMode#MERGE_LIST} elements of a {@link Patchable} type,
+ * are merged with the processor generated for that type.
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.CLASS)
+public @interface PatchField {
+
+  /**
+   * Update mode.
+   *
+   * @return mode
+   */
+  PatchMode mode() default PatchMode.MAP;
+
+  /**
+   * Name of the element property used as joining key, required for
+   * {@link PatchMode#MERGE_LIST} and {@link PatchMode#MERGE_LIST_IN_PLACE}.
+   *
+   * @return key property name
+   */
+  String key() default "";
+
+  /**
+   * Model field name, defaults to the java field name.
+   *
+   * @return field name
+   */
+  String name() default "";
+}
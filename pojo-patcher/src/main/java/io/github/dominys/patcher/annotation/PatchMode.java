@@ -0,0 +1,28 @@
+package io.github.dominys.patcher.annotation;
+
+/**
+ * Field update modes, matching the {@code BaseFieldUpdateProcessor} registration methods.
+ */
+public enum PatchMode {
+
+  /**
+   * Updates the field if the source value is not {@code null}, see {@code map}.
+   */
+  MAP,
+
+  /**
+   * Always updates the field, see {@code mapAlways}. The value is replaced, never merged.
+   */
+  MAP_ALWAYS,
+
+  /**
+   * Merges a non empty source list by key, see {@code mergeList}.
+   */
+  MERGE_LIST,
+
+  /**
+   * Merges a non empty source list by key into the target list itself, see
+   * {@code mergeListInPlace}.
+   */
+  MERGE_LIST_IN_PLACE
+}
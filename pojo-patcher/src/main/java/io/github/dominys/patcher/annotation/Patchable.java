@@ -0,0 +1,19 @@
+package io.github.dominys.patcher.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a POJO for which {@code pojo-patcher-apt} generates a {@code FieldUpdateProcessor}.
+ *
+ * <p>The processor is generated as {@code <SimpleName>UpdateProcessor} in the package of the
+ * POJO and handles the fields annotated with {@link PatchField}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface Patchable {
+}
@@ -0,0 +1,160 @@
+package io.github.dominys.patcher.encoding;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a {@link FieldUpdateResult} and the patched target into a compact binary change-set.
+ *
+ * <p>Fields are identified by their ordinal in the processor of their level, see
+ * {@link FieldOrdinals}, and list elements by index, both written as unsigned varints:
+ * <pre>
+ * object  := varint(count) (varint(ordinal &lt;&lt; 1 | nested) (object | list | value))*
+ * list    := varint(count) (varint(index &lt;&lt; 2 | nested &lt;&lt; 1 | added) (object | value))*
+ * </pre>
+ * A nested field is followed by the changes of the nested object, or of the list elements for
+ * a list field. A written field or element is followed by its new value, written by the
+ * {@link BinaryValueWriter}, or by nothing for a structure only change-set.
+ *
+ * <p>The result is walked by a {@link ChangeSetVisitor}, so the processor must be the one that
+ * produced it.
+ */
+public class BinaryChangeSetEncoder {
+
+  private final BinaryValueWriter valueWriter;
+
+  /**
+   * Constructor of a structure only encoder.
+   */
+  public BinaryChangeSetEncoder() {
+    this(null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param valueWriter writer of the changed values, {@code null} for structure only
+   */
+  public BinaryChangeSetEncoder(BinaryValueWriter valueWriter) {
+    this.valueWriter = valueWriter;
+  }
+
+  /**
+   * Encodes the change-set into the stream.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param out       output
+   * @param <T>       target type
+   * @throws IOException on write errors
+   */
+  public <T> void encode(FieldUpdateResult result, T target,
+                         BaseFieldUpdateProcessor<T> processor, OutputStream out)
+      throws IOException {
+    writeObject(result, target, processor, out);
+  }
+
+  /**
+   * Encodes the change-set directly into the buffer.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param buffer    output buffer
+   * @param <T>       target type
+   * @throws java.nio.BufferOverflowException if the buffer is too small
+   */
+  public <T> void encode(FieldUpdateResult result, T target,
+                         BaseFieldUpdateProcessor<T> processor, ByteBuffer buffer) {
+    try {
+      writeObject(result, target, processor, new ByteBufferOutputStream(buffer));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private <T> void writeObject(FieldUpdateResult result, T target,
+                               BaseFieldUpdateProcessor<T> processor, OutputStream out)
+      throws IOException {
+    new ChangeSetVisitor() {
+      @Override
+      protected void enterObject(Object object, int changeCount) throws IOException {
+        writeVarint(changeCount, out);
+      }
+
+      @Override
+      protected void visitField(ModelField field, int ordinal, Object object, Object value)
+          throws IOException {
+        writeVarint(ordinal << 1, out);
+        writeValue(field, value, out);
+      }
+
+      @Override
+      protected void enterField(ModelField field, int ordinal, Object object)
+          throws IOException {
+        writeVarint(ordinal << 1 | 1, out);
+      }
+
+      @Override
+      protected void enterList(ModelField field, int changeCount) throws IOException {
+        writeVarint(changeCount, out);
+      }
+
+      @Override
+      protected void visitElement(ModelField field, int index, boolean added, Object value)
+          throws IOException {
+        writeVarint(index << 2 | (added ? 1 : 0), out);
+        writeValue(field, value, out);
+      }
+
+      @Override
+      protected void enterElement(int index, boolean added) throws IOException {
+        writeVarint(index << 2 | 2 | (added ? 1 : 0), out);
+      }
+    }.visit(result, target, processor);
+  }
+
+  private void writeValue(ModelField field, Object value, OutputStream out) throws IOException {
+    if (valueWriter != null) {
+      valueWriter.write(field, value, out);
+    }
+  }
+
+  private static void writeVarint(int value, OutputStream out) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write(value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /**
+   * Output stream writing directly into a buffer.
+   */
+  private static final class ByteBufferOutputStream extends OutputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferOutputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+      buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+      buffer.put(bytes, offset, length);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package io.github.dominys.patcher.encoding;
+
+import io.github.dominys.patcher.ModelField;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the changed values of a binary change-set, see {@link BinaryChangeSetEncoder}.
+ */
+@FunctionalInterface
+public interface BinaryValueWriter {
+
+  /**
+   * Writes the value.
+   *
+   * @param field field of the value, the list field for list elements
+   * @param value new value, may be {@code null}
+   * @param out   output
+   * @throws IOException on write errors
+   */
+  void write(ModelField field, Object value, OutputStream out) throws IOException;
+}
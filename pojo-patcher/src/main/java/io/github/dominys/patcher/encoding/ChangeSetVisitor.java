@@ -0,0 +1,197 @@
+package io.github.dominys.patcher.encoding;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.operation.BaseUpdateOperation;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import io.github.dominys.patcher.processor.SubtypeDispatchProcessor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Walks a {@link FieldUpdateResult} together with the patched target, reporting the changed
+ * values to the hooks of a change-set encoder.
+ *
+ * <p>The processor must be the {@link BaseFieldUpdateProcessor} that produced the result. Nested
+ * and element processors are resolved from its operations, a {@link SubtypeDispatchProcessor}
+ * by the class of the nested value. Fields are reported in result order with their ordinal in
+ * the processor of their level, see {@link FieldOrdinals}.
+ *
+ * <p>A visitor holds the state of one walk, so encoders create one per call. The hooks do
+ * nothing by default.
+ */
+public abstract class ChangeSetVisitor {
+
+  /**
+   * Walks the changes of the result.
+   *
+   * @param result    update result
+   * @param target    patched target
+   * @param processor processor that produced the result
+   * @param <T>       target type
+   * @throws IOException              on write errors of the hooks
+   * @throws IllegalArgumentException if a changed field is not registered in its processor, or
+   *                                  its nested processor is not a
+   *                                  {@code BaseFieldUpdateProcessor}
+   */
+  public final <T> void visit(FieldUpdateResult result, T target,
+                              BaseFieldUpdateProcessor<T> processor) throws IOException {
+    visitObject(result, target, processor);
+  }
+
+  /**
+   * Called before the changed fields of an object, including one without changes.
+   *
+   * @param target      object
+   * @param changeCount number of changed fields
+   * @throws IOException on write errors
+   */
+  protected void enterObject(Object target, int changeCount) throws IOException {
+  }
+
+  /**
+   * Called for a written field.
+   *
+   * @param field   field
+   * @param ordinal ordinal of the field
+   * @param target  object holding the field
+   * @param value   new value
+   * @throws IOException on write errors
+   */
+  protected void visitField(ModelField field, int ordinal, Object target, Object value)
+      throws IOException {
+  }
+
+  /**
+   * Called before the changes of a nested object or of the elements of a list field.
+   *
+   * @param field   field
+   * @param ordinal ordinal of the field
+   * @param target  object holding the field
+   * @throws IOException on write errors
+   */
+  protected void enterField(ModelField field, int ordinal, Object target) throws IOException {
+  }
+
+  /**
+   * Called after the changes of a nested object or of the elements of a list field.
+   *
+   * @param field field
+   * @throws IOException on write errors
+   */
+  protected void exitField(ModelField field) throws IOException {
+  }
+
+  /**
+   * Called before the changed elements of a list field.
+   *
+   * @param field       list field
+   * @param changeCount number of changed elements
+   * @throws IOException on write errors
+   */
+  protected void enterList(ModelField field, int changeCount) throws IOException {
+  }
+
+  /**
+   * Called for a written or appended element.
+   *
+   * @param field list field
+   * @param index element index
+   * @param added whether the element was appended
+   * @param value new element
+   * @throws IOException on write errors
+   */
+  protected void visitElement(ModelField field, int index, boolean added, Object value)
+      throws IOException {
+  }
+
+  /**
+   * Called before the changes of an element merged by the element processor.
+   *
+   * @param index element index
+   * @param added whether the element was appended
+   * @throws IOException on write errors
+   */
+  protected void enterElement(int index, boolean added) throws IOException {
+  }
+
+  /**
+   * Called after the changes of an element merged by the element processor.
+   *
+   * @param index element index
+   * @throws IOException on write errors
+   */
+  protected void exitElement(int index) throws IOException {
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void visitObject(FieldUpdateResult node, Object target,
+                           FieldUpdateProcessor<?> processor) throws IOException {
+    List<FieldUpdateResult> children = node.getChildren();
+    enterObject(target, children == null ? 0 : children.size());
+    if (children == null) {
+      return;
+    }
+
+    BaseFieldUpdateProcessor<Object> baseProcessor = baseProcessor(processor, target);
+    FieldOrdinals ordinals = baseProcessor.getFieldOrdinals();
+    for (FieldUpdateResult child : children) {
+      ModelField field = child.getField();
+      int ordinal = ordinals.ordinalOf(field);
+      UpdateOperation<Object> operation = baseProcessor.getOperation(field.getFieldName());
+      if (ordinal < 0 || !(operation instanceof BaseUpdateOperation)) {
+        throw new IllegalArgumentException("Field " + field.getFieldName()
+            + " is not registered in the processor");
+      }
+
+      Object value = ((BaseUpdateOperation) operation).getGetter().apply(target);
+      if (child.getChildren() == null) {
+        visitField(field, ordinal, target, value);
+        continue;
+      }
+      enterField(field, ordinal, target);
+      if (operation instanceof ListUpdateOperation) {
+        visitList(child, (List<Object>) value,
+            ((ListUpdateOperation) operation).getFieldUpdateProcessor());
+      } else {
+        visitObject(child, value, ((FieldUpdateOperation) operation).getFieldUpdateProcessor());
+      }
+      exitField(field);
+    }
+  }
+
+  private void visitList(FieldUpdateResult node, List<Object> list,
+                         FieldUpdateProcessor<?> elementProcessor) throws IOException {
+    List<FieldUpdateResult> children = node.getChildren();
+    enterList(node.getField(), children.size());
+    for (FieldUpdateResult child : children) {
+      int index = child.getIndex();
+      if (child.getChildren() == null) {
+        visitElement(node.getField(), index, child.isAdded(), list.get(index));
+        continue;
+      }
+      enterElement(index, child.isAdded());
+      visitObject(child, list.get(index), elementProcessor);
+      exitElement(index);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BaseFieldUpdateProcessor<Object> baseProcessor(
+      FieldUpdateProcessor<?> processor, Object target) {
+    if (processor instanceof SubtypeDispatchProcessor) {
+      processor = ((SubtypeDispatchProcessor<Object>) processor).getProcessor(target);
+    }
+    if (!(processor instanceof BaseFieldUpdateProcessor)) {
+      throw new IllegalArgumentException("Nested changes of " + processor
+          + " can not be resolved, a BaseFieldUpdateProcessor is required");
+    }
+    return (BaseFieldUpdateProcessor<Object>) processor;
+  }
+}
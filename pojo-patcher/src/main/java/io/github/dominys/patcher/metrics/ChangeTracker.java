@@ -0,0 +1,101 @@
+package io.github.dominys.patcher.metrics;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+/**
+ * Update listener counting the written values before passing the events on, so instrumented
+ * operations can tell changes from no-ops. One instance is shared by the operations of one
+ * execution.
+ */
+final class ChangeTracker implements UpdateListener {
+
+  private final UpdateListener listener;
+
+  private long changes;
+
+  private long errors;
+
+  ChangeTracker(UpdateListener listener) {
+    this.listener = listener;
+  }
+
+  long getChanges() {
+    return changes;
+  }
+
+  long getErrors() {
+    return errors;
+  }
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    changes++;
+    listener.onFieldUpdate(field);
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    changes++;
+    listener.onElementUpdate(index);
+  }
+
+  @Override
+  public void onElementAdd(int index) {
+    changes++;
+    listener.onElementAdd(index);
+  }
+
+  @Override
+  public void enterField(ModelField field) {
+    listener.enterField(field);
+  }
+
+  @Override
+  public void exitField(ModelField field) {
+    listener.exitField(field);
+  }
+
+  @Override
+  public void enterElement(int index) {
+    listener.enterElement(index);
+  }
+
+  @Override
+  public void exitElement(int index) {
+    listener.exitElement(index);
+  }
+
+  @Override
+  public boolean isDryRun() {
+    return listener.isDryRun();
+  }
+
+  @Override
+  public boolean isDone() {
+    return listener.isDone();
+  }
+
+  @Override
+  public boolean isCollectingErrors() {
+    return listener.isCollectingErrors();
+  }
+
+  @Override
+  public void onFieldError(ModelField field, Exception ex) {
+    errors++;
+    listener.onFieldError(field, ex);
+  }
+
+  @Override
+  public void onElementError(int index, Exception ex) {
+    errors++;
+    listener.onElementError(index, ex);
+  }
+
+  @Override
+  public UndoLog getUndoLog() {
+    return listener.getUndoLog();
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.dominys.patcher.metrics;
+
+import io.github.dominys.patcher.ModelField;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the operations of one field.
+ *
+ * <p>An execution that wrote at least one value, including values of nested objects and list
+ * elements, counts as a change, any other completed execution as a no-op.
+ */
+public final class FieldMetrics {
+
+  private final ModelField field;
+  private final LongAdder changes = new LongAdder();
+  private final LongAdder noOps = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder listMerges = new LongAdder();
+  private final LongAdder mergedElements = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  FieldMetrics(ModelField field) {
+    this.field = field;
+  }
+
+  public ModelField getField() {
+    return field;
+  }
+
+  public long getChangeCount() {
+    return changes.sum();
+  }
+
+  public long getNoOpCount() {
+    return noOps.sum();
+  }
+
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  /**
+   * Returns the number of list merges that changed the target list.
+   *
+   * @return count
+   */
+  public long getListMergeCount() {
+    return listMerges.sum();
+  }
+
+  /**
+   * Returns the total size of the source lists of the merges that changed the target list.
+   *
+   * @return elements count
+   */
+  public long getMergedElementCount() {
+    return mergedElements.sum();
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  void recordExecution(boolean changed) {
+    (changed ? changes : noOps).increment();
+  }
+
+  void recordError() {
+    errors.increment();
+  }
+
+  void recordListMerge(int size) {
+    listMerges.increment();
+    mergedElements.add(size);
+  }
+
+  @Override
+  public String toString() {
+    return field.getFieldName() + "{changes=" + getChangeCount() + ", noOps=" + getNoOpCount()
+        + ", errors=" + getErrorCount() + ", listMerges=" + getListMergeCount()
+        + ", mergedElements=" + getMergedElementCount() + "}";
+  }
+}
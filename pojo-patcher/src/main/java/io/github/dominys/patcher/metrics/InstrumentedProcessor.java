@@ -0,0 +1,100 @@
+package io.github.dominys.patcher.metrics;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Processor running {@link InstrumentedUpdateOperation}s and recording its own executions in
+ * the {@link PatchMetrics} when it is the root processor.
+ *
+ * <p>Built by {@link io.github.dominys.patcher.processor.BaseFieldUpdateProcessor#instrument}.
+ *
+ * @param <T> type
+ */
+public final class InstrumentedProcessor<T> implements FieldUpdateProcessor<T> {
+
+  private final PatchMetrics metrics;
+  private final boolean root;
+
+  private final UpdateOperation<T>[] operations;
+  private final FieldOrdinals fieldOrdinals;
+
+  /**
+   * Constructor.
+   *
+   * <p>The operations are built by the constructor, with this processor at hand for the nested
+   * processors of recursive models. The processor is immutable once built.
+   *
+   * @param metrics       metrics
+   * @param root          whether the executions are recorded, {@code false} for nested
+   *                      processors
+   * @param fieldOrdinals field ordinals
+   * @param operations    builds the instrumented operations, may refer to this processor
+   */
+  @SuppressWarnings("unchecked")
+  public InstrumentedProcessor(PatchMetrics metrics, boolean root, FieldOrdinals fieldOrdinals,
+                               Function<InstrumentedProcessor<T>,
+                                   List<UpdateOperation<T>>> operations) {
+    this.metrics = metrics;
+    this.root = root;
+    this.fieldOrdinals = fieldOrdinals;
+    this.operations = operations.apply(this).toArray(new UpdateOperation[0]);
+  }
+
+  @Override
+  public FieldOrdinals getFieldOrdinals() {
+    return fieldOrdinals;
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector(fieldOrdinals);
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    if (!metrics.isEnabled()) {
+      executeOperations(target, source, listener);
+      return;
+    }
+
+    ChangeTracker tracker = listener instanceof ChangeTracker ? (ChangeTracker) listener
+        : new ChangeTracker(listener);
+    if (!root) {
+      executeOperations(target, source, tracker);
+      return;
+    }
+
+    long errors = tracker.getErrors();
+    long start = System.nanoTime();
+    try {
+      executeOperations(target, source, tracker);
+      if (tracker.getErrors() != errors) {
+        metrics.recordError();
+      }
+    } catch (RuntimeException ex) {
+      metrics.recordError();
+      throw ex;
+    } finally {
+      metrics.recordExecution(System.nanoTime() - start);
+    }
+  }
+
+  private void executeOperations(T target, T source, UpdateListener listener) {
+    for (UpdateOperation<T> operation : operations) {
+      if (listener.isDone()) {
+        return;
+      }
+      operation.execute(target, source, listener);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package io.github.dominys.patcher.metrics;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Update operation recording the {@link FieldMetrics} of the operation it wraps.
+ *
+ * <p>Only executions run by an enabled {@link InstrumentedProcessor} are recorded, any other
+ * execution is passed on as is.
+ *
+ * @param <T> type
+ */
+public final class InstrumentedUpdateOperation<T> implements UpdateOperation<T> {
+
+  private final UpdateOperation<T> operation;
+  private final FieldMetrics metrics;
+  private final Function<T, ? extends List<?>> listGetter;
+
+  /**
+   * Constructor.
+   *
+   * @param operation  wrapped operation
+   * @param metrics    field metrics
+   * @param listGetter getter of the source list to record its size when the merge changed the
+   *                   target, {@code null} for other fields
+   */
+  public InstrumentedUpdateOperation(UpdateOperation<T> operation, FieldMetrics metrics,
+                                     Function<T, ? extends List<?>> listGetter) {
+    this.operation = operation;
+    this.metrics = metrics;
+    this.listGetter = listGetter;
+  }
+
+  public UpdateOperation<T> getOperation() {
+    return operation;
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    return operation.execute(target, source);
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    if (!(listener instanceof ChangeTracker)) {
+      operation.execute(target, source, listener);
+      return;
+    }
+
+    ChangeTracker tracker = (ChangeTracker) listener;
+    long changes = tracker.getChanges();
+    long errors = tracker.getErrors();
+    long start = System.nanoTime();
+    try {
+      operation.execute(target, source, tracker);
+    } catch (RuntimeException ex) {
+      metrics.recordError();
+      throw ex;
+    } finally {
+      metrics.getLatency().record(System.nanoTime() - start);
+    }
+    if (tracker.getErrors() != errors) {
+      metrics.recordError();
+    }
+    boolean changed = tracker.getChanges() != changes;
+    if (changed && listGetter != null) {
+      List<?> list = listGetter.apply(source);
+      metrics.recordListMerge(list == null ? 0 : list.size());
+    }
+    metrics.recordExecution(changed);
+  }
+}
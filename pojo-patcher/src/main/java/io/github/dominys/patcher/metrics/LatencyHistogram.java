@@ -0,0 +1,95 @@
+package io.github.dominys.patcher.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with power of two nanosecond buckets.
+ *
+ * <p>Bucket {@code b} counts the latencies from {@code 2^(b-1)} to {@code 2^b - 1} nanoseconds,
+ * bucket {@code 0} the zero latencies. Recording is a striped counter increment, so concurrent
+ * updates do not contend.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * Number of buckets, the last one also counts all longer latencies.
+   */
+  public static final int BUCKETS = 40;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder totalNanos = new LongAdder();
+
+  LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  void record(long nanos) {
+    int bucket = nanos <= 0 ? 0 : Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos),
+        BUCKETS - 1);
+    buckets[bucket].increment();
+    totalNanos.add(Math.max(nanos, 0));
+  }
+
+  /**
+   * Returns the number of recorded latencies.
+   *
+   * @return count
+   */
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  /**
+   * Returns the number of latencies recorded in the bucket.
+   *
+   * @param bucket bucket index
+   * @return count
+   */
+  public long getBucketCount(int bucket) {
+    return buckets[bucket].sum();
+  }
+
+  /**
+   * Returns the largest latency counted by the bucket.
+   *
+   * @param bucket bucket index
+   * @return upper bound in nanoseconds
+   */
+  public static long getBucketUpperBound(int bucket) {
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  /**
+   * Returns the upper bound of the bucket holding the percentile, e.g. {@code 0.99}.
+   *
+   * @param percentile percentile from 0 to 1
+   * @return latency upper bound in nanoseconds, {@code 0} when nothing is recorded
+   */
+  public long getPercentileNanos(double percentile) {
+    long[] counts = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      count += counts[i];
+    }
+    long rank = (long) Math.ceil(percentile * count);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && seen > 0) {
+        return getBucketUpperBound(i);
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.dominys.patcher.metrics;
+
+import io.github.dominys.patcher.ModelField;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of instrumented processors, see
+ * {@link io.github.dominys.patcher.processor.BaseFieldUpdateProcessor#instrument(PatchMetrics)}.
+ *
+ * <p>Records the executions, errors and latency of the instrumented processor and
+ * {@link FieldMetrics} per {@link ModelField} of it and its nested processors. All counters are
+ * {@link LongAdder}s, so an instance can be shared by processors used from many threads.
+ * Processors that are not instrumented have no overhead, and instrumented ones only check
+ * {@link #isEnabled()} while disabled.
+ *
+ * <p>The getters read the counters on demand, so they can back the gauges and function counters
+ * of a metrics library, e.g. with Micrometer:
+ * <pre>
+ * for (FieldMetrics field : metrics.getFieldMetrics()) {
+ *   FunctionCounter.builder("patcher.field.changes", field, FieldMetrics::getChangeCount)
+ *       .tag("field", field.getField().getFieldName())
+ *       .register(registry);
+ * }
+ * </pre>
+ */
+public class PatchMetrics {
+
+  private final Map<ModelField, FieldMetrics> fields = new ConcurrentHashMap<>();
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  private volatile boolean enabled = true;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables recording, instrumented processors run uninstrumented while disabled.
+   *
+   * @param enabled whether to record
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the metrics of the field, creating them on first use.
+   *
+   * @param field field
+   * @return field metrics
+   */
+  public FieldMetrics getFieldMetrics(ModelField field) {
+    return fields.computeIfAbsent(field, FieldMetrics::new);
+  }
+
+  /**
+   * Returns the metrics of all instrumented fields.
+   *
+   * @return field metrics
+   */
+  public Collection<FieldMetrics> getFieldMetrics() {
+    return Collections.unmodifiableCollection(fields.values());
+  }
+
+  public long getExecutionCount() {
+    return executions.sum();
+  }
+
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  void recordExecution(long nanos) {
+    executions.increment();
+    latency.record(nanos);
+  }
+
+  void recordError() {
+    errors.increment();
+  }
+}
@@ -1,9 +1,16 @@
 package io.github.dominys.patcher.operation;
 
 
+import io.github.dominys.patcher.DiffCollector;
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
 import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
 import io.github.dominys.patcher.UpdateOperation;
 
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -45,4 +52,64 @@ public abstract class BaseUpdateOperation<T, R> implements UpdateOperation<T> {
     return condition;
   }
 
+  /**
+   * Writes the field value, recording the previous one if the listener carries an undo log.
+   *
+   * @param target   target object
+   * @param previous previous field value
+   * @param val      new field value
+   * @param listener update listener
+   */
+  public void write(T target, R previous, R val, UpdateListener listener) {
+    UndoLog undoLog = listener.getUndoLog();
+    if (undoLog != null) {
+      undoLog.record(target, setter, previous);
+    }
+    setter.accept(target, val);
+  }
+
+  /**
+   * Reports the failure of the field when the listener collects errors, or else throws it as a
+   * {@link FieldUpdateException}, prefixing the path of a nested failure with the field.
+   *
+   * @param ex       failure
+   * @param listener update listener
+   */
+  protected void handleFailure(Exception ex, UpdateListener listener) {
+    if (listener.isCollectingErrors()) {
+      listener.onFieldError(field, ex);
+    } else if (ex instanceof FieldUpdateException) {
+      throw new FieldUpdateException(field.getFieldName() + "."
+          + ((FieldUpdateException) ex).getField(), ex.getCause());
+    } else {
+      throw new FieldUpdateException(field.getFieldName(), ex);
+    }
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    execute(target, source, collector);
+    List<FieldUpdateResult> results = collector.getResult().getChildren();
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  /**
+   * Computes the result {@link #execute(Object, Object)} would return without calling setters.
+   *
+   * @param target target object
+   * @param source source object
+   * @param maxDifferences differences count to stop at
+   * @return update result, {@code null} when there are no differences
+   */
+  public FieldUpdateResult diff(T target, T source, int maxDifferences) {
+    DiffCollector collector = new DiffCollector(maxDifferences);
+    execute(target, source, collector);
+    List<FieldUpdateResult> results = collector.getResult().getChildren();
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  @Override
+  public abstract void execute(T target, T source, UpdateListener listener);
+
 }
@@ -0,0 +1,65 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.function.Predicate;
+
+/**
+ * Update operation of a {@code boolean} field.
+ *
+ * @param <T> base type
+ */
+public class BooleanFieldUpdateOperation<T> extends PrimitiveFieldUpdateOperation<T, Boolean> {
+
+  private final Predicate<T> booleanGetter;
+  private final ObjBooleanConsumer<T> booleanSetter;
+
+  /**
+   * Constructor.
+   *
+   * @param field  field name
+   * @param getter field getter
+   * @param setter field setter
+   */
+  public BooleanFieldUpdateOperation(ModelField field, Predicate<T> getter,
+                                     ObjBooleanConsumer<T> setter) {
+    super(field, getter::test, setter::accept);
+    this.booleanGetter = getter;
+    this.booleanSetter = setter;
+  }
+
+  public Predicate<T> getBooleanGetter() {
+    return booleanGetter;
+  }
+
+  public ObjBooleanConsumer<T> getBooleanSetter() {
+    return booleanSetter;
+  }
+
+  @Override
+  protected void doExecute(T target, T source, UpdateListener listener) {
+    update(target, booleanGetter.test(source), listener);
+  }
+
+  @Override
+  protected void doExecuteValue(T target, Boolean val, UpdateListener listener) {
+    update(target, val, listener);
+  }
+
+  private void update(T target, boolean val, UpdateListener listener) {
+    boolean targetVal = booleanGetter.test(target);
+    if (val == targetVal) {
+      return;
+    }
+    if (!listener.isDryRun()) {
+      UndoLog undoLog = listener.getUndoLog();
+      if (undoLog != null) {
+        undoLog.record(target, getSetter(), targetVal);
+      }
+      booleanSetter.accept(target, val);
+    }
+    listener.onFieldUpdate(getField());
+  }
+}
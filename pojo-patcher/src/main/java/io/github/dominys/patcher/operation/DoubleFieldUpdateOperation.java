@@ -0,0 +1,66 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Update operation of a {@code double} field.
+ *
+ * @param <T> base type
+ */
+public class DoubleFieldUpdateOperation<T> extends PrimitiveFieldUpdateOperation<T, Double> {
+
+  private final ToDoubleFunction<T> doubleGetter;
+  private final ObjDoubleConsumer<T> doubleSetter;
+
+  /**
+   * Constructor.
+   *
+   * @param field  field name
+   * @param getter field getter
+   * @param setter field setter
+   */
+  public DoubleFieldUpdateOperation(ModelField field, ToDoubleFunction<T> getter,
+                                    ObjDoubleConsumer<T> setter) {
+    super(field, getter::applyAsDouble, setter::accept);
+    this.doubleGetter = getter;
+    this.doubleSetter = setter;
+  }
+
+  public ToDoubleFunction<T> getDoubleGetter() {
+    return doubleGetter;
+  }
+
+  public ObjDoubleConsumer<T> getDoubleSetter() {
+    return doubleSetter;
+  }
+
+  @Override
+  protected void doExecute(T target, T source, UpdateListener listener) {
+    update(target, doubleGetter.applyAsDouble(source), listener);
+  }
+
+  @Override
+  protected void doExecuteValue(T target, Double val, UpdateListener listener) {
+    update(target, val, listener);
+  }
+
+  private void update(T target, double val, UpdateListener listener) {
+    double targetVal = doubleGetter.applyAsDouble(target);
+    if (Double.doubleToLongBits(val) == Double.doubleToLongBits(targetVal)) {
+      return;
+    }
+    if (!listener.isDryRun()) {
+      UndoLog undoLog = listener.getUndoLog();
+      if (undoLog != null) {
+        undoLog.record(target, getSetter(), targetVal);
+      }
+      doubleSetter.accept(target, val);
+    }
+    listener.onFieldUpdate(getField());
+  }
+}
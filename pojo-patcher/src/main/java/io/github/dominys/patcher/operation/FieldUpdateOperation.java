@@ -1,9 +1,8 @@
 package io.github.dominys.patcher.operation;
 
-import io.github.dominys.patcher.FieldUpdateException;
 import io.github.dominys.patcher.FieldUpdateProcessor;
-import io.github.dominys.patcher.FieldUpdateResult;
 import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
 
 import java.util.Objects;
 import java.util.function.BiConsumer;
@@ -13,12 +12,18 @@ import java.util.function.Predicate;
 /**
  * Field update operation.
  *
+ * <p>A source value is applied when it differs from the target value by {@code equals}. With a
+ * version provider, e.g. an entity version or a precomputed hash, two non-null values are
+ * compared by their versions instead: matching versions skip the whole subtree and differing
+ * ones descend into the nested processor without comparing the values deeply.
+ *
  * @param <T> base type
  * @param <R> field type
  */
 public class FieldUpdateOperation<T, R> extends BaseUpdateOperation<T, R> {
 
   private final FieldUpdateProcessor<R> fieldUpdateProcessor;
+  private final Function<R, ?> versionProvider;
 
   /**
    * Constructor.
@@ -32,49 +37,105 @@ public class FieldUpdateOperation<T, R> extends BaseUpdateOperation<T, R> {
   public FieldUpdateOperation(
       ModelField field, Function<T, R> getter, BiConsumer<T, R> setter,
       Predicate<R> condition, FieldUpdateProcessor<R> fieldUpdateProcessor) {
+    this(field, getter, setter, condition, fieldUpdateProcessor, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param field                field name
+   * @param getter               field getter
+   * @param setter               field setter
+   * @param condition            source field check condition
+   * @param fieldUpdateProcessor field update processor
+   * @param versionProvider      version of a field value, {@code null} to compare by equals
+   */
+  public FieldUpdateOperation(
+      ModelField field, Function<T, R> getter, BiConsumer<T, R> setter,
+      Predicate<R> condition, FieldUpdateProcessor<R> fieldUpdateProcessor,
+      Function<R, ?> versionProvider) {
     super(field, getter, setter, condition);
     this.fieldUpdateProcessor = fieldUpdateProcessor;
+    this.versionProvider = versionProvider;
   }
 
   public FieldUpdateProcessor<R> getFieldUpdateProcessor() {
     return fieldUpdateProcessor;
   }
 
+  public Function<R, ?> getVersionProvider() {
+    return versionProvider;
+  }
+
+  /**
+   * Creates a copy of this operation with another nested processor.
+   *
+   * @param updateProcessor field update processor
+   * @return operation copy
+   */
+  public FieldUpdateOperation<T, R> withFieldUpdateProcessor(
+      FieldUpdateProcessor<R> updateProcessor) {
+    return new FieldUpdateOperation<>(getField(), getGetter(), getSetter(), getCondition(),
+        updateProcessor, versionProvider);
+  }
+
   @Override
-  public FieldUpdateResult execute(T target, T source) {
+  public void execute(T target, T source, UpdateListener listener) {
+    try {
+      doExecute(target, source, listener);
+    } catch (Exception ex) {
+      handleFailure(ex, listener);
+    }
+  }
+
+  /**
+   * Updates the field of the target with a value, as if it was read from a source object.
+   *
+   * @param target   target object
+   * @param val      source field value
+   * @param listener update listener
+   */
+  public void executeValue(T target, R val, UpdateListener listener) {
     try {
-      return doExecute(target, source);
-    } catch (FieldUpdateException ex) {
-      throw new FieldUpdateException(getField().getFieldName() + "." + ex.getField(),
-          ex.getCause());
+      doExecuteValue(target, val, listener);
     } catch (Exception ex) {
-      throw new FieldUpdateException(getField().getFieldName(), ex);
+      handleFailure(ex, listener);
     }
   }
 
-  private FieldUpdateResult doExecute(T target, T source) {
-    R val = getGetter().apply(source);
-    if (getCondition().negate().test(val)) {
-      return null;
+  private void doExecute(T target, T source, UpdateListener listener) {
+    doExecuteValue(target, getGetter().apply(source), listener);
+  }
+
+  private void doExecuteValue(T target, R val, UpdateListener listener) {
+    if (!getCondition().test(val)) {
+      return;
     }
 
     R targetVal = getGetter().apply(target);
-    if (Objects.equals(val, targetVal)) {
-      return null;
+    if (versionProvider != null && val != null && targetVal != null) {
+      if (Objects.equals(versionProvider.apply(val), versionProvider.apply(targetVal))) {
+        return;
+      }
+    } else if (Objects.equals(val, targetVal)) {
+      return;
     }
 
-    if (targetVal == null || fieldUpdateProcessor == null) {
-      getSetter().accept(target, val);
-      return FieldUpdateResult.builder()
-          .field(getField())
-          .build();
+    if (targetVal == null || fieldUpdateProcessor == null
+        || !fieldUpdateProcessor.canMerge(targetVal, val)) {
+      if (!listener.isDryRun()) {
+        write(target, targetVal, val, listener);
+      }
+      listener.onFieldUpdate(getField());
+      return;
     }
 
-    return fieldUpdateProcessor
-        .execute(getGetter().apply(target), getGetter().apply(source))
-        .toBuilder()
-        .field(getField())
-        .build();
+    listener.enterField(getField());
+    try {
+      fieldUpdateProcessor.execute(targetVal, val, listener);
+    } finally {
+      listener.exitField(getField());
+    }
   }
 
 }
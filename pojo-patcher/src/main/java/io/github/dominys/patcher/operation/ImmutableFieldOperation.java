@@ -0,0 +1,63 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.ImmutableUpdateProcessor;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Field operation of an immutable object.
+ *
+ * <p>A nested value is patched by the nested processor, otherwise the source value replaces the
+ * target value.
+ *
+ * @param <T> base type
+ * @param <B> draft type
+ * @param <R> field type
+ */
+public class ImmutableFieldOperation<T, B, R> extends ImmutableUpdateOperation<T, B, R> {
+
+  private final ImmutableUpdateProcessor<R> updateProcessor;
+
+  /**
+   * Constructor.
+   *
+   * @param field           field name
+   * @param getter          field getter
+   * @param writer          writes the field to a draft, e.g. a wither or a builder setter
+   * @param condition       source field check condition
+   * @param updateProcessor nested value processor, {@code null} to replace the value
+   */
+  public ImmutableFieldOperation(ModelField field, Function<T, R> getter,
+                                 BiFunction<B, R, B> writer, Predicate<R> condition,
+                                 ImmutableUpdateProcessor<R> updateProcessor) {
+    super(field, getter, writer, condition);
+    this.updateProcessor = updateProcessor;
+  }
+
+  public ImmutableUpdateProcessor<R> getUpdateProcessor() {
+    return updateProcessor;
+  }
+
+  @Override
+  protected R patch(R targetVal, R val, UpdateListener listener) {
+    if (targetVal == null || updateProcessor == null || !updateProcessor.canMerge(targetVal, val)) {
+      listener.onFieldUpdate(getField());
+      return val;
+    }
+
+    listener.enterField(getField());
+    try {
+      return updateProcessor.patch(targetVal, val, listener);
+    } catch (FieldUpdateException ex) {
+      throw new FieldUpdateException(getField().getFieldName() + "." + ex.getField(),
+          ex.getCause());
+    } finally {
+      listener.exitField(getField());
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.ImmutableUpdateProcessor;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * List field operation of an immutable object.
+ *
+ * <p>Elements are joined by key as by {@link ListUpdateOperation}: the target elements keep
+ * their order, source elements with a new key are appended in source order, and for duplicate
+ * keys the first element wins. Target elements with a duplicate key are kept, and joined
+ * elements equal to their source element are skipped.
+ *
+ * <p>The patched list is an unmodifiable copy of the target list sharing the unchanged elements
+ * by reference. It is only created on the first changed element, so a merge without changes
+ * returns the target list.
+ *
+ * @param <T> base type
+ * @param <B> draft type
+ * @param <R> element type
+ * @param <K> key type
+ */
+public class ImmutableListOperation<T, B, R, K> extends ImmutableUpdateOperation<T, B, List<R>> {
+
+  private final Function<R, K> keyProvider;
+  private final ImmutableUpdateProcessor<R> updateProcessor;
+
+  /**
+   * Constructor.
+   *
+   * @param field           field name
+   * @param getter          field getter
+   * @param writer          writes the field to a draft, e.g. a wither or a builder setter
+   * @param condition       source field check condition
+   * @param keyProvider     joining key provider
+   * @param updateProcessor element processor, {@code null} to replace the elements
+   */
+  public ImmutableListOperation(ModelField field, Function<T, List<R>> getter,
+                                BiFunction<B, List<R>, B> writer, Predicate<List<R>> condition,
+                                Function<R, K> keyProvider,
+                                ImmutableUpdateProcessor<R> updateProcessor) {
+    super(field, getter, writer, condition);
+    this.keyProvider = keyProvider;
+    this.updateProcessor = updateProcessor;
+  }
+
+  public Function<R, K> getKeyProvider() {
+    return keyProvider;
+  }
+
+  public ImmutableUpdateProcessor<R> getUpdateProcessor() {
+    return updateProcessor;
+  }
+
+  @Override
+  protected List<R> patch(List<R> targetVal, List<R> val, UpdateListener listener) {
+    if (targetVal == null) {
+      listener.onFieldUpdate(getField());
+      return val;
+    }
+
+    listener.enterField(getField());
+    try {
+      return merge(targetVal, val, listener);
+    } finally {
+      listener.exitField(getField());
+    }
+  }
+
+  private List<R> merge(List<R> target, List<R> source, UpdateListener listener) {
+    int targetCount = target.size();
+    KeyIndex keyIndex = new KeyIndex(Math.max(targetCount, source.size()));
+    int index = 0;
+    for (R targetItem : target) {
+      keyIndex.putIfAbsent(keyProvider.apply(targetItem), index++);
+    }
+
+    Object[] sourceItems = new Object[targetCount];
+    List<R> added = null;
+    for (R sourceItem : source) {
+      int addedCount = added == null ? 0 : added.size();
+      int position = keyIndex.putIfAbsent(keyProvider.apply(sourceItem), targetCount + addedCount);
+      if (position < 0) {
+        if (added == null) {
+          added = new ArrayList<>();
+        }
+        added.add(sourceItem);
+      } else if (position < targetCount && sourceItems[position] == null) {
+        sourceItems[position] = sourceItem;
+      }
+    }
+
+    List<R> merged = null;
+    boolean dryRun = listener.isDryRun();
+    for (int i = 0; i < targetCount && !listener.isDone(); i++) {
+      @SuppressWarnings("unchecked")
+      R sourceItem = (R) sourceItems[i];
+      if (sourceItem == null) {
+        continue;
+      }
+      R targetItem = target.get(i);
+      R patched = patchElement(i, targetItem, sourceItem, listener);
+      if (patched != targetItem && !dryRun) {
+        if (merged == null) {
+          merged = new ArrayList<>(target);
+        }
+        merged.set(i, patched);
+      }
+    }
+    if (added != null) {
+      for (int i = 0; i < added.size() && !listener.isDone(); i++) {
+        if (!dryRun) {
+          if (merged == null) {
+            merged = new ArrayList<>(targetCount + added.size());
+            merged.addAll(target);
+          }
+          merged.add(added.get(i));
+        }
+        listener.onElementAdd(targetCount + i);
+      }
+    }
+    return merged == null ? target : Collections.unmodifiableList(merged);
+  }
+
+  private R patchElement(int index, R targetItem, R sourceItem, UpdateListener listener) {
+    try {
+      if (Objects.equals(sourceItem, targetItem)) {
+        return targetItem;
+      }
+      if (targetItem == null || updateProcessor == null
+          || !updateProcessor.canMerge(targetItem, sourceItem)) {
+        listener.onElementUpdate(index);
+        return sourceItem;
+      }
+
+      listener.enterElement(index);
+      try {
+        return updateProcessor.patch(targetItem, sourceItem, listener);
+      } finally {
+        listener.exitElement(index);
+      }
+    } catch (FieldUpdateException ex) {
+      throw new FieldUpdateException(getField().getFieldName() + '[' + index + "]."
+          + ex.getField(), ex.getCause());
+    } catch (Exception ex) {
+      throw new FieldUpdateException(getField().getFieldName() + '[' + index + "]", ex);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Base class for a field operation of an immutable object.
+ *
+ * <p>Changes are written to a draft of the target, created on the first change: the target
+ * itself for withers, which return a new draft on every write, or a builder of it. A source
+ * value is applied when it differs from the target value by {@code equals}, so an unchanged
+ * field neither creates a draft nor allocates.
+ *
+ * @param <T> base type
+ * @param <B> draft type
+ * @param <R> field type
+ */
+public abstract class ImmutableUpdateOperation<T, B, R> {
+
+  private final ModelField field;
+  private final Function<T, R> getter;
+  private final BiFunction<B, R, B> writer;
+  private final Predicate<R> condition;
+
+  protected ImmutableUpdateOperation(ModelField field, Function<T, R> getter,
+                                     BiFunction<B, R, B> writer, Predicate<R> condition) {
+    this.field = field;
+    this.getter = getter;
+    this.writer = writer;
+    this.condition = condition;
+  }
+
+  public ModelField getField() {
+    return field;
+  }
+
+  public Function<T, R> getGetter() {
+    return getter;
+  }
+
+  public BiFunction<B, R, B> getWriter() {
+    return writer;
+  }
+
+  public Predicate<R> getCondition() {
+    return condition;
+  }
+
+  /**
+   * Patches the field of the target with the source.
+   *
+   * @param target   target object
+   * @param source   source object
+   * @param draft    draft with the previous changes, {@code null} when there are none
+   * @param drafts   creates the draft of the target
+   * @param listener update listener
+   * @return draft with the change, the given draft when the field is unchanged
+   */
+  public B execute(T target, T source, B draft, Function<T, B> drafts, UpdateListener listener) {
+    try {
+      R val = getter.apply(source);
+      if (!condition.test(val)) {
+        return draft;
+      }
+      R targetVal = getter.apply(target);
+      if (Objects.equals(val, targetVal)) {
+        return draft;
+      }
+
+      R patched = patch(targetVal, val, listener);
+      if (patched == targetVal || listener.isDryRun()) {
+        return draft;
+      }
+      return writer.apply(draft == null ? drafts.apply(target) : draft, patched);
+    } catch (FieldUpdateException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new FieldUpdateException(field.getFieldName(), ex);
+    }
+  }
+
+  /**
+   * Patches the target value with a differing source value.
+   *
+   * @param targetVal target value
+   * @param val       source value
+   * @param listener  update listener
+   * @return patched value, the target value itself when it is unchanged
+   */
+  protected abstract R patch(R targetVal, R val, UpdateListener listener);
+
+}
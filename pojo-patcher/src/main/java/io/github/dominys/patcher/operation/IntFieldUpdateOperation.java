@@ -0,0 +1,66 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Update operation of an {@code int} field.
+ *
+ * @param <T> base type
+ */
+public class IntFieldUpdateOperation<T> extends PrimitiveFieldUpdateOperation<T, Integer> {
+
+  private final ToIntFunction<T> intGetter;
+  private final ObjIntConsumer<T> intSetter;
+
+  /**
+   * Constructor.
+   *
+   * @param field  field name
+   * @param getter field getter
+   * @param setter field setter
+   */
+  public IntFieldUpdateOperation(ModelField field, ToIntFunction<T> getter,
+                                 ObjIntConsumer<T> setter) {
+    super(field, getter::applyAsInt, setter::accept);
+    this.intGetter = getter;
+    this.intSetter = setter;
+  }
+
+  public ToIntFunction<T> getIntGetter() {
+    return intGetter;
+  }
+
+  public ObjIntConsumer<T> getIntSetter() {
+    return intSetter;
+  }
+
+  @Override
+  protected void doExecute(T target, T source, UpdateListener listener) {
+    update(target, intGetter.applyAsInt(source), listener);
+  }
+
+  @Override
+  protected void doExecuteValue(T target, Integer val, UpdateListener listener) {
+    update(target, val, listener);
+  }
+
+  private void update(T target, int val, UpdateListener listener) {
+    int targetVal = intGetter.applyAsInt(target);
+    if (val == targetVal) {
+      return;
+    }
+    if (!listener.isDryRun()) {
+      UndoLog undoLog = listener.getUndoLog();
+      if (undoLog != null) {
+        undoLog.record(target, getSetter(), targetVal);
+      }
+      intSetter.accept(target, val);
+    }
+    listener.onFieldUpdate(getField());
+  }
+}
@@ -0,0 +1,88 @@
+package io.github.dominys.patcher.operation;
+
+/**
+ * Open addressing hash index from joining key to list position.
+ *
+ * <p>Positions are stored in a primitive array, so indexing a list does not box them and does
+ * not allocate a node per element. {@code null} keys are supported.
+ */
+final class KeyIndex {
+
+  private static final Object NULL_KEY = new Object();
+
+  private static final int MIN_CAPACITY = 16;
+
+  private Object[] keys;
+  private int[] positions;
+  private int size;
+  private int threshold;
+
+  KeyIndex(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2 && capacity > 0) {
+      capacity <<= 1;
+    }
+    init(capacity);
+  }
+
+  /**
+   * Indexes the key unless it is already indexed.
+   *
+   * @param key      joining key
+   * @param position position of the key
+   * @return position of the already indexed key or {@code -1} if the key has been added
+   */
+  int putIfAbsent(Object key, int position) {
+    Object maskedKey = maskNull(key);
+    int mask = keys.length - 1;
+    int slot = hash(maskedKey) & mask;
+    while (true) {
+      Object current = keys[slot];
+      if (current == null) {
+        keys[slot] = maskedKey;
+        positions[slot] = position;
+        if (++size > threshold) {
+          resize();
+        }
+        return -1;
+      }
+      if (current == maskedKey || current.equals(maskedKey)) {
+        return positions[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void init(int capacity) {
+    keys = new Object[capacity];
+    positions = new int[capacity];
+    threshold = capacity >>> 1;
+  }
+
+  private void resize() {
+    Object[] oldKeys = keys;
+    int[] oldPositions = positions;
+    init(oldKeys.length << 1);
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      Object key = oldKeys[i];
+      if (key != null) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        positions[slot] = oldPositions[i];
+      }
+    }
+  }
+
+  private static Object maskNull(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
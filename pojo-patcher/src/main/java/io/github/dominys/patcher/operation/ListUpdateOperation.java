@@ -1,38 +1,70 @@
 package io.github.dominys.patcher.operation;
 
-import com.google.common.collect.Streams;
 import io.github.dominys.patcher.FieldUpdateException;
 import io.github.dominys.patcher.FieldUpdateProcessor;
 import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
 import io.github.dominys.patcher.ModelField;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
 
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static java.util.function.Function.identity;
+import java.util.stream.Stream;
 
 /**
  * List field update operation.
  *
+ * <p>Elements are joined by key: the target elements keep their order, source elements with a
+ * new key are appended in source order, and for duplicate keys the first element wins. Target
+ * elements are indexed once and the source is walked once.
+ *
+ * <p>When at least {@code parallelThreshold} elements are merged by the field update processor,
+ * the elements are merged concurrently on the executor in contiguous chunks. Every chunk records
+ * its events and the chunks are replayed in index order, so the events and a failure path are
+ * the same as in a sequential merge. Elements following a failed one may
+ * have been merged already. Dry runs are merged sequentially, so they can stop early. Lists
+ * nested in a concurrently merged element are merged sequentially too, so a bounded executor
+ * shared with them is not filled by chunks waiting for their own nested chunks.
+ *
+ * <p>With an element version provider, e.g. an entity version or a precomputed hash, the lists
+ * are compared element by element by their versions instead of {@code equals} before merging,
+ * and joined elements with matching versions are skipped without descending into them.
+ *
+ * <p>By default the merged list is a new list set on the target. An in-place merge instead
+ * appends to and replaces the changed positions of the mutable target list, and keeps the list
+ * instance, e.g. for collections managed by an ORM. Elements updated by the field update
+ * processor are not touched, and target elements with a duplicate key are kept.
+ *
+ * <p>Sources that do not fit in memory next to the target can be merged from an iterator or a
+ * stream with {@link #mergeStreaming(Object, Iterator, UpdateListener)}.
+ *
  * @param <T> base type
  * @param <R> field type
  */
 public class ListUpdateOperation<T, R, K> extends BaseUpdateOperation<T, List<R>> {
 
+  private static final int PARALLEL_CHUNKS = Runtime.getRuntime().availableProcessors() * 4;
+
+  private static final int STREAM_CHUNK_SIZE = 1024;
+
   private final Function<R, K> keyProvider;
   private final FieldUpdateProcessor<R> fieldUpdateProcessor;
+  private final int parallelThreshold;
+  private final Executor executor;
+  private final Function<R, ?> elementVersionProvider;
+  private final boolean inPlace;
 
   /**
    * Constructor.
@@ -48,9 +80,42 @@ public class ListUpdateOperation<T, R, K> extends BaseUpdateOperation<T, List<R>
       ModelField field, Function<T, List<R>> getter, BiConsumer<T, List<R>> setter,
       Predicate<List<R>> condition, Function<R, K> keyProvider,
       FieldUpdateProcessor<R> fieldUpdateProcessor) {
+    this(field, getter, setter, condition, keyProvider, fieldUpdateProcessor, Integer.MAX_VALUE,
+        null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param field field name
+   * @param getter field getter
+   * @param setter field setter
+   * @param condition source field check condition
+   * @param keyProvider joining key provider
+   * @param fieldUpdateProcessor field update processor
+   * @param parallelThreshold merged elements count from which elements are merged concurrently
+   * @param executor executor of the concurrent merge, {@code null} for the common pool
+   */
+  public ListUpdateOperation(
+      ModelField field, Function<T, List<R>> getter, BiConsumer<T, List<R>> setter,
+      Predicate<List<R>> condition, Function<R, K> keyProvider,
+      FieldUpdateProcessor<R> fieldUpdateProcessor, int parallelThreshold, Executor executor) {
+    this(field, getter, setter, condition, keyProvider, fieldUpdateProcessor, parallelThreshold,
+        executor, null, false);
+  }
+
+  private ListUpdateOperation(
+      ModelField field, Function<T, List<R>> getter, BiConsumer<T, List<R>> setter,
+      Predicate<List<R>> condition, Function<R, K> keyProvider,
+      FieldUpdateProcessor<R> fieldUpdateProcessor, int parallelThreshold, Executor executor,
+      Function<R, ?> elementVersionProvider, boolean inPlace) {
     super(field, getter, setter, condition);
     this.keyProvider = keyProvider;
     this.fieldUpdateProcessor = fieldUpdateProcessor;
+    this.parallelThreshold = Math.max(parallelThreshold, 1);
+    this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+    this.elementVersionProvider = elementVersionProvider;
+    this.inPlace = inPlace;
   }
 
   public Function<R, K> getKeyProvider() {
@@ -61,96 +126,413 @@ public class ListUpdateOperation<T, R, K> extends BaseUpdateOperation<T, List<R>
     return fieldUpdateProcessor;
   }
 
+  public int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  public Function<R, ?> getElementVersionProvider() {
+    return elementVersionProvider;
+  }
+
+  public boolean isInPlace() {
+    return inPlace;
+  }
+
+  /**
+   * Creates a copy of this operation with another element processor.
+   *
+   * @param elementProcessor field update processor of the elements
+   * @return operation copy
+   */
+  public ListUpdateOperation<T, R, K> withFieldUpdateProcessor(
+      FieldUpdateProcessor<R> elementProcessor) {
+    return new ListUpdateOperation<>(getField(), getGetter(), getSetter(), getCondition(),
+        keyProvider, elementProcessor, parallelThreshold, executor, elementVersionProvider,
+        inPlace);
+  }
+
+  /**
+   * Creates a copy of this operation merging the elements concurrently. The merge runs
+   * sequentially when it is nested in an element merged concurrently.
+   *
+   * @param parallelThreshold merged elements count from which elements are merged concurrently
+   * @param executor executor of the concurrent merge, {@code null} for the common pool
+   * @return operation copy
+   */
+  public ListUpdateOperation<T, R, K> withParallelMerge(int parallelThreshold, Executor executor) {
+    return new ListUpdateOperation<>(getField(), getGetter(), getSetter(), getCondition(),
+        keyProvider, fieldUpdateProcessor, parallelThreshold, executor, elementVersionProvider,
+        inPlace);
+  }
+
+  /**
+   * Creates a copy of this operation skipping joined elements with matching versions.
+   *
+   * @param elementVersionProvider version of an element, {@code null} to compare by equals
+   * @return operation copy
+   */
+  public ListUpdateOperation<T, R, K> withElementVersionProvider(
+      Function<R, ?> elementVersionProvider) {
+    return new ListUpdateOperation<>(getField(), getGetter(), getSetter(), getCondition(),
+        keyProvider, fieldUpdateProcessor, parallelThreshold, executor, elementVersionProvider,
+        inPlace);
+  }
+
+  /**
+   * Creates a copy of this operation merging into the target list itself.
+   *
+   * @param inPlace whether to mutate the target list instead of setting a merged copy
+   * @return operation copy
+   */
+  public ListUpdateOperation<T, R, K> withInPlaceMerge(boolean inPlace) {
+    return new ListUpdateOperation<>(getField(), getGetter(), getSetter(), getCondition(),
+        keyProvider, fieldUpdateProcessor, parallelThreshold, executor, elementVersionProvider,
+        inPlace);
+  }
+
   @Override
-  public FieldUpdateResult execute(T target, T source) {
+  public void execute(T target, T source, UpdateListener listener) {
+    try {
+      doExecute(target, source, listener);
+    } catch (RuntimeException ex) {
+      if (!listener.isCollectingErrors()) {
+        throw ex;
+      }
+      listener.onFieldError(getField(), ex);
+    }
+  }
 
+  private void doExecute(T target, T source, UpdateListener listener) {
     List<R> val = getGetter().apply(source);
-    if (getCondition().negate().test(val)) {
-      return null;
+    if (!getCondition().test(val)) {
+      return;
     }
 
     List<R> targetVal = getGetter().apply(target);
-    if (Objects.equals(val, targetVal)) {
-      return null;
+    if (elementVersionProvider == null ? Objects.equals(val, targetVal)
+        : sameVersions(val, targetVal)) {
+      return;
     }
 
     if (targetVal == null) {
-      getSetter().accept(target, val);
-      return FieldUpdateResult.builder()
-          .field(getField())
-          .build();
+      if (!listener.isDryRun()) {
+        write(target, null, val, listener);
+      }
+      listener.onFieldUpdate(getField());
+      return;
     }
 
-    List<Pair<R, FieldUpdateResult>> results = mergeCollections(getGetter().apply(target),
-        getGetter().apply(source));
+    listener.enterField(getField());
+    try {
+      List<R> merged = mergeCollections(targetVal, val, listener);
+      if (!listener.isDryRun() && merged != targetVal) {
+        write(target, targetVal, merged, listener);
+      }
+    } finally {
+      listener.exitField(getField());
+    }
+  }
+
+  /**
+   * Merges the source elements into the target list as they are read, see
+   * {@link #mergeStreaming(Object, Iterator, UpdateListener)}.
+   *
+   * @param target target object
+   * @param source source elements, closed after the merge
+   * @return update result, {@code null} when there are no updates
+   */
+  public FieldUpdateResult mergeStreaming(T target, Stream<? extends R> source) {
+    try (source) {
+      FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+      mergeStreaming(target, source.iterator(), collector);
+      List<FieldUpdateResult> results = collector.getResult().getChildren();
+      return results.isEmpty() ? null : results.get(0);
+    }
+  }
 
-    getSetter().accept(target, results.stream()
-        .map(Pair::getLeft)
-        .collect(Collectors.toList()));
+  /**
+   * Merges the source elements into the target list as they are read, without materializing the
+   * source list. The target elements are indexed once and the source is consumed in chunks, only
+   * the elements of the current chunk are held besides the merged list.
+   *
+   * <p>The merged list is the one {@code execute} would build for the same source list. The
+   * changes are reported chunk by chunk, in index order within a chunk, so the element results
+   * are ordered by chunk rather than by index.
+   *
+   * @param target   target object
+   * @param source   source elements
+   * @param listener update listener
+   */
+  public void mergeStreaming(T target, Iterator<? extends R> source, UpdateListener listener) {
+    if (!source.hasNext()) {
+      return;
+    }
 
-    List<FieldUpdateResult> updateResults = results.stream()
-        .map(Pair::getRight)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+    List<R> targetVal = getGetter().apply(target);
+    if (targetVal == null) {
+      List<R> val = new ArrayList<>();
+      source.forEachRemaining(val::add);
+      if (!listener.isDryRun()) {
+        write(target, null, val, listener);
+      }
+      listener.onFieldUpdate(getField());
+      return;
+    }
 
-    return FieldUpdateResult.builder()
-        .field(getField())
-        .children(updateResults)
-        .build();
+    listener.enterField(getField());
+    try {
+      List<R> merged = mergeChunks(targetVal, source, listener);
+      if (!listener.isDryRun() && merged != targetVal) {
+        write(target, targetVal, merged, listener);
+      }
+    } finally {
+      listener.exitField(getField());
+    }
   }
 
-  private List<Pair<R, FieldUpdateResult>> mergeCollections(
-      Collection<R> target, Collection<R> source) {
+  private List<R> mergeChunks(List<R> target, Iterator<? extends R> source,
+                              UpdateListener listener) {
+    KeyIndex keyIndex = new KeyIndex(target.size());
+    List<R> merged = indexTarget(target, keyIndex, listener);
 
-    Map<K, R> targetMap = aggregateByJoiningKey(target);
+    int targetCount = merged.size();
+    BitSet matched = new BitSet(targetCount);
+    long[] matches = new long[STREAM_CHUNK_SIZE];
+    Object[] chunkItems = new Object[STREAM_CHUNK_SIZE];
+    while (source.hasNext() && !listener.isDone()) {
+      int appendedFrom = merged.size();
+      int matchCount = 0;
+      for (int read = 0; read < STREAM_CHUNK_SIZE && source.hasNext(); read++) {
+        R sourceItem = source.next();
+        int position = keyIndex.putIfAbsent(keyProvider.apply(sourceItem), merged.size());
+        if (position < 0) {
+          merged.add(sourceItem);
+        } else if (position < targetCount && !matched.get(position)) {
+          matched.set(position);
+          matches[matchCount] = (long) position << 32 | matchCount;
+          chunkItems[matchCount++] = sourceItem;
+        }
+      }
 
-    Map<K, R> sourceMap = aggregateByJoiningKey(source);
+      Arrays.sort(matches, 0, matchCount);
+      for (int m = 0; m < matchCount && !listener.isDone(); m++) {
+        int position = (int) (matches[m] >>> 32);
+        @SuppressWarnings("unchecked")
+        R sourceItem = (R) chunkItems[(int) matches[m]];
+        setElement(merged, position,
+            updateElement(position, merged.get(position), sourceItem, listener), listener);
+      }
+      Arrays.fill(chunkItems, 0, matchCount, null);
+      for (int i = appendedFrom; i < merged.size() && !listener.isDone(); i++) {
+        listener.onElementAdd(i);
+      }
+    }
+    return merged;
+  }
+
+  private boolean sameVersions(List<R> source, List<R> target) {
+    if (source == target) {
+      return true;
+    }
+    if (source == null || target == null || source.size() != target.size()) {
+      return false;
+    }
+    Iterator<R> targetItems = target.iterator();
+    for (R sourceItem : source) {
+      R targetItem = targetItems.next();
+      if (sourceItem == null || targetItem == null ? sourceItem != targetItem
+          : !Objects.equals(elementVersionProvider.apply(sourceItem),
+          elementVersionProvider.apply(targetItem))) {
+        return false;
+      }
+    }
+    return true;
+  }
 
-    Set<K> keys = new LinkedHashSet<>(targetMap.keySet());
-    keys.addAll(sourceMap.keySet());
+  private List<R> mergeCollections(List<R> target, List<R> source, UpdateListener listener) {
+    KeyIndex keyIndex = new KeyIndex(Math.max(target.size(), source.size()));
+    List<R> merged = indexTarget(target, keyIndex, listener);
 
-    return Streams.zip(keys.stream(), IntStream.range(0, keys.size()).boxed(), Pair::of)
-        .map(f -> updateElement(targetMap, sourceMap, f))
-        .collect(Collectors.toList());
+    int targetCount = merged.size();
+    Object[] sourceItems = new Object[targetCount];
+    for (R sourceItem : source) {
+      int position = keyIndex.putIfAbsent(keyProvider.apply(sourceItem), merged.size());
+      if (position < 0) {
+        merged.add(sourceItem);
+      } else if (position < targetCount && sourceItems[position] == null) {
+        sourceItems[position] = sourceItem;
+      }
+    }
+
+    if (fieldUpdateProcessor != null && targetCount >= parallelThreshold
+        && !listener.isDryRun() && !(listener instanceof UpdateEventLog)) {
+      updateElementsParallel(merged, sourceItems, listener);
+    } else {
+      for (int i = 0; i < targetCount && !listener.isDone(); i++) {
+        @SuppressWarnings("unchecked")
+        R sourceItem = (R) sourceItems[i];
+        if (sourceItem != null) {
+          setElement(merged, i, updateElement(i, merged.get(i), sourceItem, listener), listener);
+        }
+      }
+    }
+    for (int i = targetCount; i < merged.size() && !listener.isDone(); i++) {
+      listener.onElementAdd(i);
+    }
+    return merged;
   }
 
-  private LinkedHashMap<K, R> aggregateByJoiningKey(Collection<R> target) {
-    return target.stream()
-        .collect(Collectors.toMap(keyProvider, identity(), (f1, f2) -> f1, LinkedHashMap::new));
+  @SuppressWarnings("unchecked")
+  private void updateElementsParallel(List<R> merged, Object[] sourceItems,
+                                      UpdateListener listener) {
+    int[] positions = new int[sourceItems.length];
+    int count = 0;
+    for (int i = 0; i < sourceItems.length; i++) {
+      if (sourceItems[i] != null) {
+        positions[count++] = i;
+      }
+    }
+    if (count < parallelThreshold) {
+      for (int p = 0; p < count; p++) {
+        int i = positions[p];
+        setElement(merged, i, updateElement(i, merged.get(i), (R) sourceItems[i], listener),
+            listener);
+      }
+      return;
+    }
+
+    UndoLog undoLog = listener.getUndoLog();
+    AtomicInteger failedPosition = new AtomicInteger(count);
+    FieldUpdateException[] failures = new FieldUpdateException[count];
+    int chunks = Math.min(count, PARALLEL_CHUNKS);
+    UpdateEventLog[] logs = new UpdateEventLog[chunks];
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      int from = (int) ((long) count * chunk / chunks);
+      int to = (int) ((long) count * (chunk + 1) / chunks);
+      UpdateEventLog log = new UpdateEventLog(undoLog == null ? null : new UndoLog(),
+          listener.isCollectingErrors());
+      logs[chunk] = log;
+      futures[chunk] = CompletableFuture.runAsync(() -> {
+        for (int p = from; p < to && p < failedPosition.get(); p++) {
+          int i = positions[p];
+          int logSize = log.size();
+          try {
+            sourceItems[i] = updateElementUnchecked(i, merged.get(i), (R) sourceItems[i], log);
+          } catch (Exception ex) {
+            if (log.isCollectingErrors()) {
+              log.onElementError(i, ex);
+              sourceItems[i] = merged.get(i);
+              continue;
+            }
+            log.truncate(logSize);
+            failures[p] = wrapElementException(i, ex);
+            failedPosition.accumulateAndGet(p, Math::min);
+            return;
+          }
+        }
+      }, executor);
+    }
+    CompletableFuture.allOf(futures).join();
+    if (undoLog != null) {
+      for (UpdateEventLog log : logs) {
+        undoLog.append(log.getUndoLog());
+      }
+    }
+
+    int failed = failedPosition.get();
+    for (int p = 0; p < failed; p++) {
+      setElement(merged, positions[p], (R) sourceItems[positions[p]], listener);
+    }
+    for (int chunk = 0; chunk < chunks && (long) count * chunk / chunks <= failed; chunk++) {
+      logs[chunk].replay(listener);
+    }
+    if (failed < count) {
+      throw failures[failed];
+    }
   }
 
-  private Pair<R, FieldUpdateResult> updateElement(
-      Map<K, R> targetMap, Map<K, R> sourceMap, Pair<K, Integer> orderedKey) {
+  /**
+   * Returns the list the merge is applied to, with the target elements indexed by key. That is
+   * the target list itself for an in-place merge, or else a copy without duplicate keys.
+   */
+  private List<R> indexTarget(List<R> target, KeyIndex keyIndex, UpdateListener listener) {
+    if (inPlace) {
+      List<R> merged = listener.isDryRun() ? new ArrayList<>(target) : target;
+      UndoLog undoLog = listener.getUndoLog();
+      if (undoLog != null && merged == target) {
+        undoLog.recordSize(target, target.size());
+      }
+      int index = 0;
+      for (R targetItem : merged) {
+        keyIndex.putIfAbsent(keyProvider.apply(targetItem), index++);
+      }
+      return merged;
+    }
+
+    List<R> merged = new ArrayList<>(target.size());
+    for (R targetItem : target) {
+      if (keyIndex.putIfAbsent(keyProvider.apply(targetItem), merged.size()) < 0) {
+        merged.add(targetItem);
+      }
+    }
+    return merged;
+  }
+
+  private void setElement(List<R> list, int index, R element, UpdateListener listener) {
+    R previous = list.get(index);
+    if (previous != element) {
+      UndoLog undoLog = listener.getUndoLog();
+      if (inPlace && undoLog != null) {
+        undoLog.recordElement(list, index, previous);
+      }
+      list.set(index, element);
+    }
+  }
+
+  private R updateElement(int index, R targetItem, R sourceItem, UpdateListener listener) {
     try {
-      return updateElementUnchecked(targetMap, sourceMap, orderedKey);
-    } catch (FieldUpdateException ex) {
-      throw new FieldUpdateException(getField().getFieldName() + '[' + orderedKey.getRight() + "]."
-         + ex.getField(), ex.getCause());
+      return updateElementUnchecked(index, targetItem, sourceItem, listener);
     } catch (Exception ex) {
-      throw new FieldUpdateException(getField().getFieldName() + '[' + orderedKey.getRight() + "]",
-          ex);
+      if (!listener.isCollectingErrors()) {
+        throw wrapElementException(index, ex);
+      }
+      listener.onElementError(index, ex);
+      return targetItem;
     }
   }
 
-  private Pair<R, FieldUpdateResult> updateElementUnchecked(
-      Map<K, R> targetMap, Map<K, R> sourceMap, Pair<K, Integer> orderedKey) {
+  private FieldUpdateException wrapElementException(int index, Exception ex) {
+    if (ex instanceof FieldUpdateException) {
+      return new FieldUpdateException(getField().getFieldName() + '[' + index + "]."
+          + ((FieldUpdateException) ex).getField(), ex.getCause());
+    }
+    return new FieldUpdateException(getField().getFieldName() + '[' + index + "]", ex);
+  }
 
-    R targetItem = targetMap.get(orderedKey.getLeft());
-    R sourceItem = sourceMap.get(orderedKey.getLeft());
-    if (sourceItem == null) {
-      return ImmutablePair.left(targetItem);
+  private R updateElementUnchecked(int index, R targetItem, R sourceItem,
+                                   UpdateListener listener) {
+    boolean nullItem = sourceItem == null || targetItem == null;
+    if (elementVersionProvider != null && (nullItem ? sourceItem == targetItem : Objects.equals(
+        elementVersionProvider.apply(sourceItem), elementVersionProvider.apply(targetItem)))) {
+      return targetItem;
     }
-    if (targetItem == null || fieldUpdateProcessor == null) {
-      return ImmutablePair.of(sourceItem,
-          FieldUpdateResult.builder()
-              .index(orderedKey.getRight())
-              .build());
+    if (fieldUpdateProcessor == null || nullItem
+        || !fieldUpdateProcessor.canMerge(targetItem, sourceItem)) {
+      listener.onElementUpdate(index);
+      return sourceItem;
     }
 
-    FieldUpdateResult updateResult = fieldUpdateProcessor.execute(targetItem, sourceItem)
-        .toBuilder()
-        .index(orderedKey.getRight())
-        .build();
-    return ImmutablePair.of(targetItem, updateResult);
+    listener.enterElement(index);
+    try {
+      fieldUpdateProcessor.execute(targetItem, sourceItem, listener);
+    } finally {
+      listener.exitElement(index);
+    }
+    return targetItem;
   }
 }
@@ -0,0 +1,66 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Update operation of a {@code long} field.
+ *
+ * @param <T> base type
+ */
+public class LongFieldUpdateOperation<T> extends PrimitiveFieldUpdateOperation<T, Long> {
+
+  private final ToLongFunction<T> longGetter;
+  private final ObjLongConsumer<T> longSetter;
+
+  /**
+   * Constructor.
+   *
+   * @param field  field name
+   * @param getter field getter
+   * @param setter field setter
+   */
+  public LongFieldUpdateOperation(ModelField field, ToLongFunction<T> getter,
+                                  ObjLongConsumer<T> setter) {
+    super(field, getter::applyAsLong, setter::accept);
+    this.longGetter = getter;
+    this.longSetter = setter;
+  }
+
+  public ToLongFunction<T> getLongGetter() {
+    return longGetter;
+  }
+
+  public ObjLongConsumer<T> getLongSetter() {
+    return longSetter;
+  }
+
+  @Override
+  protected void doExecute(T target, T source, UpdateListener listener) {
+    update(target, longGetter.applyAsLong(source), listener);
+  }
+
+  @Override
+  protected void doExecuteValue(T target, Long val, UpdateListener listener) {
+    update(target, val, listener);
+  }
+
+  private void update(T target, long val, UpdateListener listener) {
+    long targetVal = longGetter.applyAsLong(target);
+    if (val == targetVal) {
+      return;
+    }
+    if (!listener.isDryRun()) {
+      UndoLog undoLog = listener.getUndoLog();
+      if (undoLog != null) {
+        undoLog.record(target, getSetter(), targetVal);
+      }
+      longSetter.accept(target, val);
+    }
+    listener.onFieldUpdate(getField());
+  }
+}
@@ -0,0 +1,14 @@
+package io.github.dominys.patcher.operation;
+
+/**
+ * Operation accepting an object and a {@code boolean}, the {@code boolean} counterpart of
+ * {@link java.util.function.ObjIntConsumer}.
+ *
+ * @param <T> object type
+ */
+@FunctionalInterface
+public interface ObjBooleanConsumer<T> {
+
+  void accept(T t, boolean value);
+
+}
@@ -0,0 +1,59 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Base class for update operations of primitive fields.
+ *
+ * <p>Subclasses read, compare and write the field with primitive accessors, so an update does
+ * not box. The field is written when the source value differs from the target value, with the
+ * {@code equals} semantics of the wrapper type. The boxed getter and setter of
+ * {@link BaseUpdateOperation} are adapters for code that handles fields generically.
+ *
+ * @param <T> base type
+ * @param <R> wrapper type
+ */
+public abstract class PrimitiveFieldUpdateOperation<T, R> extends BaseUpdateOperation<T, R> {
+
+  protected PrimitiveFieldUpdateOperation(ModelField field, Function<T, R> getter,
+                                          BiConsumer<T, R> setter) {
+    super(field, getter, setter, Objects::nonNull);
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    try {
+      doExecute(target, source, listener);
+    } catch (Exception ex) {
+      handleFailure(ex, listener);
+    }
+  }
+
+  /**
+   * Updates the field of the target with a boxed value, as if it was read from a source object.
+   *
+   * @param target   target object
+   * @param val      source field value, {@code null} is skipped
+   * @param listener update listener
+   */
+  public void executeValue(T target, R val, UpdateListener listener) {
+    if (val == null) {
+      return;
+    }
+    try {
+      doExecuteValue(target, val, listener);
+    } catch (Exception ex) {
+      handleFailure(ex, listener);
+    }
+  }
+
+  protected abstract void doExecute(T target, T source, UpdateListener listener);
+
+  protected abstract void doExecuteValue(T target, R val, UpdateListener listener);
+
+}
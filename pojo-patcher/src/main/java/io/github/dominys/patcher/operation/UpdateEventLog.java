@@ -0,0 +1,182 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+
+import java.util.Arrays;
+
+/**
+ * Update listener recording the events into flat arrays, to be replayed on another listener.
+ */
+final class UpdateEventLog implements UpdateListener {
+
+  private static final byte FIELD_UPDATE = 0;
+  private static final byte ELEMENT_UPDATE = 1;
+  private static final byte ENTER_FIELD = 2;
+  private static final byte EXIT_FIELD = 3;
+  private static final byte ENTER_ELEMENT = 4;
+  private static final byte EXIT_ELEMENT = 5;
+  private static final byte ELEMENT_ADD = 6;
+  private static final byte FIELD_ERROR = 7;
+  private static final byte ELEMENT_ERROR = 8;
+
+  private byte[] events = new byte[16];
+  private ModelField[] fields = new ModelField[16];
+  private int[] indices = new int[16];
+  private int size;
+
+  private Exception[] failures;
+
+  private final UndoLog undoLog;
+
+  private final boolean collectingErrors;
+
+  /**
+   * Constructor.
+   *
+   * @param undoLog          log of the overwritten values, {@code null} to not record them
+   * @param collectingErrors whether failures are recorded instead of thrown
+   */
+  UpdateEventLog(UndoLog undoLog, boolean collectingErrors) {
+    this.undoLog = undoLog;
+    this.collectingErrors = collectingErrors;
+  }
+
+  @Override
+  public void onFieldUpdate(ModelField field) {
+    add(FIELD_UPDATE, field, 0);
+  }
+
+  @Override
+  public void onElementUpdate(int index) {
+    add(ELEMENT_UPDATE, null, index);
+  }
+
+  @Override
+  public void onElementAdd(int index) {
+    add(ELEMENT_ADD, null, index);
+  }
+
+  @Override
+  public void enterField(ModelField field) {
+    add(ENTER_FIELD, field, 0);
+  }
+
+  @Override
+  public void exitField(ModelField field) {
+    add(EXIT_FIELD, field, 0);
+  }
+
+  @Override
+  public void enterElement(int index) {
+    add(ENTER_ELEMENT, null, index);
+  }
+
+  @Override
+  public void exitElement(int index) {
+    add(EXIT_ELEMENT, null, index);
+  }
+
+  @Override
+  public boolean isCollectingErrors() {
+    return collectingErrors;
+  }
+
+  @Override
+  public void onFieldError(ModelField field, Exception ex) {
+    addFailure(ex);
+    add(FIELD_ERROR, field, 0);
+  }
+
+  @Override
+  public void onElementError(int index, Exception ex) {
+    addFailure(ex);
+    add(ELEMENT_ERROR, null, index);
+  }
+
+  @Override
+  public UndoLog getUndoLog() {
+    return undoLog;
+  }
+
+  /**
+   * Returns the number of recorded events.
+   *
+   * @return events count
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Drops the events recorded after the given count.
+   *
+   * @param count events count to keep
+   */
+  void truncate(int count) {
+    size = count;
+  }
+
+  /**
+   * Replays the recorded events in order.
+   *
+   * @param listener update listener
+   */
+  void replay(UpdateListener listener) {
+    for (int i = 0; i < size; i++) {
+      switch (events[i]) {
+        case FIELD_UPDATE:
+          listener.onFieldUpdate(fields[i]);
+          break;
+        case ELEMENT_UPDATE:
+          listener.onElementUpdate(indices[i]);
+          break;
+        case ENTER_FIELD:
+          listener.enterField(fields[i]);
+          break;
+        case EXIT_FIELD:
+          listener.exitField(fields[i]);
+          break;
+        case ENTER_ELEMENT:
+          listener.enterElement(indices[i]);
+          break;
+        case ELEMENT_ADD:
+          listener.onElementAdd(indices[i]);
+          break;
+        case FIELD_ERROR:
+          listener.onFieldError(fields[i], failures[i]);
+          break;
+        case ELEMENT_ERROR:
+          listener.onElementError(indices[i], failures[i]);
+          break;
+        default:
+          listener.exitElement(indices[i]);
+          break;
+      }
+    }
+  }
+
+  private void addFailure(Exception ex) {
+    int capacity = Math.max(events.length, size + 1);
+    if (failures == null) {
+      failures = new Exception[capacity];
+    } else if (failures.length < capacity) {
+      failures = Arrays.copyOf(failures, capacity);
+    }
+    failures[size] = ex;
+  }
+
+  private void add(byte event, ModelField field, int index) {
+    if (size == events.length) {
+      int capacity = size * 2;
+      events = Arrays.copyOf(events, capacity);
+      fields = Arrays.copyOf(fields, capacity);
+      indices = Arrays.copyOf(indices, capacity);
+    }
+    events[size] = event;
+    fields[size] = field;
+    indices[size] = index;
+    size++;
+  }
+}
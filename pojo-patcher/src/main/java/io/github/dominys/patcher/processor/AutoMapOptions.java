@@ -0,0 +1,139 @@
+package io.github.dominys.patcher.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Options of {@code BaseFieldUpdateProcessor.autoMap}.
+ */
+public final class AutoMapOptions {
+
+  private static final AutoMapOptions DEFAULTS = builder().build();
+
+  private final Predicate<Class<?>> nestedTypes;
+  private final Map<Class<?>, Function<?, ?>> listKeys;
+  private final Set<String> excludedProperties;
+
+  private AutoMapOptions(Builder builder) {
+    List<Predicate<Class<?>>> predicates = List.copyOf(builder.nestedTypes);
+    nestedTypes = type -> predicates.stream().anyMatch(predicate -> predicate.test(type));
+    listKeys = Map.copyOf(builder.listKeys);
+    excludedProperties = Set.copyOf(builder.excludedProperties);
+  }
+
+  /**
+   * Default options: no nested processors, lists without a key are replaced.
+   *
+   * @return options
+   */
+  public static AutoMapOptions defaults() {
+    return DEFAULTS;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  boolean isNested(Class<?> type) {
+    return !type.isPrimitive() && nestedTypes.test(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  Function<Object, Object> getListKey(Class<?> elementType) {
+    return (Function<Object, Object>) listKeys.get(elementType);
+  }
+
+  boolean isExcluded(String property) {
+    return excludedProperties.contains(property);
+  }
+
+  /**
+   * Builder class.
+   */
+  public static final class Builder {
+
+    private final List<Predicate<Class<?>>> nestedTypes = new ArrayList<>();
+    private final Map<Class<?>, Function<?, ?>> listKeys = new HashMap<>();
+    private final Set<String> excludedProperties = new HashSet<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Merges properties of the given types with auto mapped processors instead of replacing
+     * them. Recursive types are merged by the same processor.
+     *
+     * @param types nested types
+     * @return builder
+     */
+    public Builder nested(Class<?>... types) {
+      Set<Class<?>> typeSet = Set.of(types);
+      nestedTypes.add(typeSet::contains);
+      return this;
+    }
+
+    /**
+     * Merges properties of the types in the given package, or its sub packages, with auto mapped
+     * processors.
+     *
+     * @param packageName package name
+     * @return builder
+     */
+    public Builder nestedPackage(String packageName) {
+      nestedTypes.add(type -> type.getPackageName().equals(packageName)
+          || type.getPackageName().startsWith(packageName + "."));
+      return this;
+    }
+
+    /**
+     * Merges {@code List} properties with the element type by key.
+     *
+     * @param elementType list element type
+     * @param keyProvider joining key provider
+     * @param <R>         element type
+     * @return builder
+     */
+    public <R> Builder listKey(Class<R> elementType, Function<? super R, ?> keyProvider) {
+      listKeys.put(elementType, keyProvider);
+      return this;
+    }
+
+    /**
+     * Merges {@code List} properties with the element type by the value of an element property.
+     *
+     * @param elementType list element type
+     * @param keyProperty key property name
+     * @return builder
+     */
+    public Builder listKey(Class<?> elementType, String keyProperty) {
+      BeanProperty property = BeanProperties.of(elementType, keyProperty);
+      if (property == null) {
+        throw new IllegalArgumentException("Property " + keyProperty + " not found on "
+            + elementType);
+      }
+      listKeys.put(elementType, property.getGetter());
+      return this;
+    }
+
+    /**
+     * Skips properties with the given names.
+     *
+     * @param properties property names
+     * @return builder
+     */
+    public Builder exclude(String... properties) {
+      excludedProperties.addAll(List.of(properties));
+      return this;
+    }
+
+    public AutoMapOptions build() {
+      return new AutoMapOptions(this);
+    }
+  }
+}
@@ -1,41 +1,216 @@
 package io.github.dominys.patcher.processor;
 
 
+import io.github.dominys.patcher.FieldOrdinals;
 import io.github.dominys.patcher.FieldUpdateProcessor;
 import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
 import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
 import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.metrics.PatchMetrics;
+import io.github.dominys.patcher.operation.BooleanFieldUpdateOperation;
+import io.github.dominys.patcher.operation.DoubleFieldUpdateOperation;
 import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.IntFieldUpdateOperation;
 import io.github.dominys.patcher.operation.ListUpdateOperation;
+import io.github.dominys.patcher.operation.LongFieldUpdateOperation;
+import io.github.dominys.patcher.operation.ObjBooleanConsumer;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.util.LinkedList;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Base class for field update processors.
+ *
+ * <p>Operations are registered while the processor is built, which is not thread safe. Once
+ * {@link #freeze() frozen} the operations, the operation lookups and the field ordinals are
+ * immutable, the processor runs its operations from an array and can be shared between threads
+ * however it is published. State added by subclasses is not covered and has to be published
+ * safely by the subclass.
  */
 public class BaseFieldUpdateProcessor<T> implements FieldUpdateProcessor<T> {
 
-  private final List<UpdateOperation<T>> operations = new LinkedList<>();
+  private final List<UpdateOperation<T>> operations = new ArrayList<>();
+
+  private final FieldOrdinals fieldOrdinals = new FieldOrdinals();
+
+  private final Map<String, UpdateOperation<T>> operationsByName = new HashMap<>();
+
+  private UpdateOperation<T>[] frozenOperations;
+
+  private List<UpdateOperation<T>> frozenOperationList;
+
+  private Map<String, UpdateOperation<T>> frozenOperationsByName;
+
+  private FieldOrdinals frozenFieldOrdinals;
+
+  private volatile boolean frozen;
 
   protected List<UpdateOperation<T>> getOperations() {
-    return List.copyOf(operations);
+    return frozen ? frozenOperationList : List.copyOf(operations);
+  }
+
+  /**
+   * Makes this processor and its nested processors immutable. Registering an operation
+   * afterwards fails, and the operations and field ordinals of the processor are safe to share
+   * between threads.
+   *
+   * @return this processor
+   */
+  public BaseFieldUpdateProcessor<T> freeze() {
+    freeze(Collections.newSetFromMap(new IdentityHashMap<>()));
+    return this;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void freeze(Set<BaseFieldUpdateProcessor<?>> visited) {
+    if (frozen || !visited.add(this)) {
+      return;
+    }
+    frozenOperations = operations.toArray(new UpdateOperation[0]);
+    frozenOperationList = List.of(frozenOperations);
+    frozenOperationsByName = Map.copyOf(operationsByName);
+    frozenFieldOrdinals = fieldOrdinals.freeze();
+    for (UpdateOperation<T> operation : frozenOperations) {
+      FieldUpdateProcessor<?> nested = null;
+      if (operation instanceof FieldUpdateOperation) {
+        nested = ((FieldUpdateOperation<T, ?>) operation).getFieldUpdateProcessor();
+      } else if (operation instanceof ListUpdateOperation) {
+        nested = ((ListUpdateOperation<T, ?, ?>) operation).getFieldUpdateProcessor();
+      }
+      if (nested instanceof BaseFieldUpdateProcessor) {
+        ((BaseFieldUpdateProcessor<?>) nested).freeze(visited);
+      }
+    }
+    frozen = true;
+  }
+
+  /**
+   * Compiles the registered operations, including nested processors, into a processor with its
+   * own classes and monomorphic getter, setter and condition call sites for every field.
+   *
+   * <p>The classes are cached by the shape of the processor and reused by later compilations of
+   * processors built by the same code. Operations registered after the call are not picked up. Falls back to this processor when
+   * the runtime does not allow defining classes or {@code execute} is overridden.
+   *
+   * @return compiled processor
+   */
+  public FieldUpdateProcessor<T> compile() {
+    return ProcessorCompiler.compile(this);
+  }
+
+  /**
+   * Wraps the registered operations, including nested processors, into a processor recording
+   * per field change, no-op and error counts, list merge sizes and latencies in the metrics.
+   *
+   * <p>This processor is left as is and does not pay for the instrumentation. Operations
+   * registered after the call are not picked up. Returns this processor when {@code execute} is
+   * overridden.
+   *
+   * @param metrics metrics to record into, can be shared by several processors
+   * @return instrumented processor
+   */
+  public FieldUpdateProcessor<T> instrument(PatchMetrics metrics) {
+    return ProcessorInstrumenter.instrument(this, metrics);
+  }
+
+  /**
+   * Freezes this processor and wraps it into one patching shared targets from several threads,
+   * with 4 lock stripes per available processor.
+   *
+   * @return concurrent processor
+   * @see #concurrent(int)
+   */
+  public FieldUpdateProcessor<T> concurrent() {
+    return concurrent(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * Freezes this processor and wraps it into one patching shared targets from several threads.
+   *
+   * <p>Every top-level field is updated under a lock picked by the target identity and the field
+   * from the given number of stripes. A patch holds the locks of all the fields its source
+   * provides while it runs, so it is applied atomically: patches touching disjoint fields run in
+   * parallel and patches sharing a field, including its nested fields and list merges, are
+   * serialized.
+   * Nested processors run under the lock of their top-level field and must not be concurrent
+   * processors themselves. Processors overriding {@code execute} are locked per target.
+   *
+   * @param stripes number of locks, rounded up to a power of two
+   * @return concurrent processor
+   */
+  public FieldUpdateProcessor<T> concurrent(int stripes) {
+    return StripedLockProcessor.of(this, stripes);
+  }
+
+  /**
+   * Returns the operation registered for the field.
+   *
+   * @param fieldName field name, see {@link ModelField#getFieldName()}
+   * @return first operation registered for the field or {@code null}
+   */
+  public UpdateOperation<T> getOperation(String fieldName) {
+    return (frozen ? frozenOperationsByName : operationsByName).get(fieldName);
+  }
+
+  /**
+   * Returns the ordinals of the registered fields, assigned in registration order.
+   *
+   * @return field ordinals
+   */
+  @Override
+  public FieldOrdinals getFieldOrdinals() {
+    return frozen ? frozenFieldOrdinals : fieldOrdinals;
   }
 
   @Override
   public FieldUpdateResult execute(T target, T source) {
-    return FieldUpdateResult.builder()
-        .children(operations.stream()
-            .map(operation -> operation.execute(target, source))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList()))
-        .build();
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector(getFieldOrdinals());
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    if (frozen) {
+      for (UpdateOperation<T> operation : frozenOperations) {
+        if (listener.isDone()) {
+          return;
+        }
+        operation.execute(target, source, listener);
+      }
+      return;
+    }
+    for (UpdateOperation<T> operation : operations) {
+      if (listener.isDone()) {
+        return;
+      }
+      operation.execute(target, source, listener);
+    }
   }
 
   protected <R> void mapAlways(ModelField field, Function<T, R> getter, BiConsumer<T, R> setter) {
@@ -53,6 +228,36 @@ public class BaseFieldUpdateProcessor<T> implements FieldUpdateProcessor<T> {
     mapIf(field, getter, setter, Objects::nonNull, updateProcessor);
   }
 
+  /**
+   * Maps an {@code int} field, read, compared and written without boxing.
+   */
+  protected void mapInt(ModelField field, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+    register(field, new IntFieldUpdateOperation<>(field, getter, setter));
+  }
+
+  /**
+   * Maps a {@code long} field, read, compared and written without boxing.
+   */
+  protected void mapLong(ModelField field, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+    register(field, new LongFieldUpdateOperation<>(field, getter, setter));
+  }
+
+  /**
+   * Maps a {@code double} field, read, compared and written without boxing.
+   */
+  protected void mapDouble(ModelField field, ToDoubleFunction<T> getter,
+                           ObjDoubleConsumer<T> setter) {
+    register(field, new DoubleFieldUpdateOperation<>(field, getter, setter));
+  }
+
+  /**
+   * Maps a {@code boolean} field, read, compared and written without boxing.
+   */
+  protected void mapBoolean(ModelField field, Predicate<T> getter,
+                            ObjBooleanConsumer<T> setter) {
+    register(field, new BooleanFieldUpdateOperation<>(field, getter, setter));
+  }
+
   protected <R, K> void mergeList(ModelField field,
                                   Function<T, List<R>> getter,
                                   BiConsumer<T, List<R>> setter,
@@ -74,10 +279,176 @@ public class BaseFieldUpdateProcessor<T> implements FieldUpdateProcessor<T> {
                                Function<R, K> keyProvider,
                                FieldUpdateProcessor<R> updateProcessor,
                                Predicate<List<R>> condition) {
-    operations.add(new ListUpdateOperation<>(field, getter, setter, condition, keyProvider,
+    register(field, new ListUpdateOperation<>(field, getter, setter, condition, keyProvider,
         updateProcessor));
   }
 
+  /**
+   * Merges the list, merging the elements concurrently when at least {@code parallelThreshold}
+   * of them are merged by the update processor. Lists nested in the elements are merged
+   * sequentially, so the executor can be shared with them.
+   *
+   * @param field             field
+   * @param getter            field getter
+   * @param setter            field setter
+   * @param keyProvider       joining key provider
+   * @param updateProcessor   element update processor
+   * @param parallelThreshold merged elements count from which elements are merged concurrently
+   * @param executor          executor of the concurrent merge, {@code null} for the common pool
+   */
+  protected <R, K> void mergeList(ModelField field,
+                                  Function<T, List<R>> getter,
+                                  BiConsumer<T, List<R>> setter,
+                                  Function<R, K> keyProvider,
+                                  FieldUpdateProcessor<R> updateProcessor,
+                                  int parallelThreshold,
+                                  Executor executor) {
+    register(field, new ListUpdateOperation<>(field, getter, setter, CollectionUtils::isNotEmpty,
+        keyProvider, updateProcessor, parallelThreshold, executor));
+  }
+
+  /**
+   * Merges the list into the target list itself, keeping the list instance and only touching
+   * the changed positions, see {@link ListUpdateOperation}. The setter is only called when the
+   * target list is {@code null}.
+   *
+   * @param field           field
+   * @param getter          field getter
+   * @param setter          field setter
+   * @param keyProvider     joining key provider
+   * @param updateProcessor element update processor
+   */
+  protected <R, K> void mergeListInPlace(ModelField field,
+                                         Function<T, List<R>> getter,
+                                         BiConsumer<T, List<R>> setter,
+                                         Function<R, K> keyProvider,
+                                         FieldUpdateProcessor<R> updateProcessor) {
+    register(field, new ListUpdateOperation<>(field, getter, setter, CollectionUtils::isNotEmpty,
+        keyProvider, updateProcessor).withInPlaceMerge(true));
+  }
+
+  /**
+   * Merges the list, skipping joined elements whose versions match, see
+   * {@link ListUpdateOperation}. The version is e.g. an entity version or a precomputed hash
+   * that changes whenever the element changes.
+   *
+   * @param field                  field
+   * @param getter                 field getter
+   * @param setter                 field setter
+   * @param keyProvider            joining key provider
+   * @param updateProcessor        element update processor
+   * @param elementVersionProvider element version provider
+   */
+  protected <R, K> void mergeListVersioned(ModelField field,
+                                           Function<T, List<R>> getter,
+                                           BiConsumer<T, List<R>> setter,
+                                           Function<R, K> keyProvider,
+                                           FieldUpdateProcessor<R> updateProcessor,
+                                           Function<R, ?> elementVersionProvider) {
+    register(field, new ListUpdateOperation<>(field, getter, setter, CollectionUtils::isNotEmpty,
+        keyProvider, updateProcessor).withElementVersionProvider(elementVersionProvider));
+  }
+
+  /**
+   * Maps all writable bean properties of the type, see {@link #autoMap(Class, AutoMapOptions)}.
+   *
+   * @param type bean type
+   */
+  protected void autoMap(Class<T> type) {
+    autoMap(type, AutoMapOptions.defaults());
+  }
+
+  /**
+   * Maps all writable bean properties of the type with {@link #map}. {@code List} properties
+   * with a key for their element type are merged with {@link #mergeList}, properties of nested
+   * types are merged with auto mapped processors.
+   *
+   * <p>Properties are discovered once per class and their getters and setters are spun from
+   * method handles, so the registered operations perform like ones registered with method
+   * references.
+   *
+   * @param type    bean type
+   * @param options auto mapping options
+   */
+  protected void autoMap(Class<T> type, AutoMapOptions options) {
+    autoMap(type, options, new HashMap<>());
+  }
+
+  private void autoMap(Class<T> type, AutoMapOptions options,
+                       Map<Class<?>, BaseFieldUpdateProcessor<?>> processors) {
+    processors.put(type, this);
+    for (BeanProperty property : BeanProperties.of(type)) {
+      if (!property.isWritable() || options.isExcluded(property.getName())) {
+        continue;
+      }
+      Class<?> elementType = List.class.equals(property.getType())
+          ? elementType(property.getGenericType()) : null;
+      Function<Object, Object> keyProvider = elementType == null ? null
+          : options.getListKey(elementType);
+      if (keyProvider != null) {
+        mergeList(property.getField(), property.getGetter(), property.getSetter(), keyProvider,
+            nestedProcessor(elementType, options, processors));
+      } else {
+        map(property.getField(), property.getGetter(), property.getSetter(),
+            nestedProcessor(property.getType(), options, processors));
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R> FieldUpdateProcessor<R> nestedProcessor(
+      Class<?> type, AutoMapOptions options,
+      Map<Class<?>, BaseFieldUpdateProcessor<?>> processors) {
+    if (!options.isNested(type)) {
+      return null;
+    }
+    BaseFieldUpdateProcessor<R> processor = (BaseFieldUpdateProcessor<R>) processors.get(type);
+    if (processor == null) {
+      processor = new BaseFieldUpdateProcessor<>();
+      processor.autoMap((Class<R>) type, options, processors);
+    }
+    return processor;
+  }
+
+  private static Class<?> elementType(Type type) {
+    if (type instanceof ParameterizedType) {
+      Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+      if (argument instanceof Class) {
+        return (Class<?>) argument;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Maps the field, comparing the values by version instead of {@code equals}, see
+   * {@link FieldUpdateOperation}. The whole nested object is skipped when the versions match.
+   *
+   * @param field           field
+   * @param getter          field getter
+   * @param setter          field setter
+   * @param updateProcessor nested update processor
+   * @param versionProvider version provider
+   */
+  protected <R> void mapVersioned(ModelField field,
+                                  Function<T, R> getter,
+                                  BiConsumer<T, R> setter,
+                                  FieldUpdateProcessor<R> updateProcessor,
+                                  Function<R, ?> versionProvider) {
+    register(field, new FieldUpdateOperation<>(field, getter, setter, Objects::nonNull,
+        updateProcessor, versionProvider));
+  }
+
+  private void register(ModelField field, UpdateOperation<T> operation) {
+    if (frozen) {
+      throw new IllegalStateException("Processor is frozen, field " + field.getFieldName()
+          + " can not be registered");
+    }
+    fieldOrdinals.register(field);
+    operationsByName.putIfAbsent(field.getFieldName(), operation);
+    operations.add(operation);
+  }
+
   protected <R> void mapIf(ModelField field,
                         Function<T, R> getter,
                         BiConsumer<T, R> setter,
@@ -90,7 +461,7 @@ public class BaseFieldUpdateProcessor<T> implements FieldUpdateProcessor<T> {
                                    BiConsumer<T, R> setter,
                                    Predicate<R> condition,
                                    FieldUpdateProcessor<R> updateProcessor) {
-    operations.add(new FieldUpdateOperation<>(field, getter, setter, condition, updateProcessor));
+    register(field, new FieldUpdateOperation<>(field, getter, setter, condition, updateProcessor));
   }
 
 }
@@ -0,0 +1,203 @@
+package io.github.dominys.patcher.processor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Per class cache of bean properties, discovered once per JVM.
+ *
+ * <p>A property is a public getter ({@code getX()} or {@code isX()} for {@code boolean}) with an
+ * optional public setter of the same type. Getters and setters are spun into {@link Function} and
+ * {@link BiConsumer} instances by {@link LambdaMetafactory}, so they perform like method
+ * references. Accessors of classes the metafactory can not link to fall back to invoking the
+ * method handles.
+ */
+final class BeanProperties {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final ClassValue<List<BeanProperty>> PROPERTIES = new ClassValue<>() {
+    @Override
+    protected List<BeanProperty> computeValue(Class<?> type) {
+      return discover(type);
+    }
+  };
+
+  private BeanProperties() {
+  }
+
+  /**
+   * Returns the properties of the type, ordered as the backing fields are declared.
+   *
+   * @param type bean type
+   * @return properties
+   */
+  static List<BeanProperty> of(Class<?> type) {
+    return PROPERTIES.get(type);
+  }
+
+  /**
+   * Returns the property.
+   *
+   * @param type bean type
+   * @param name property name
+   * @return property or {@code null}
+   */
+  static BeanProperty of(Class<?> type, String name) {
+    for (BeanProperty property : of(type)) {
+      if (property.getName().equals(name)) {
+        return property;
+      }
+    }
+    return null;
+  }
+
+  private static List<BeanProperty> discover(Class<?> type) {
+    List<BeanProperty> properties = new ArrayList<>();
+    for (Method getter : type.getMethods()) {
+      String name = propertyName(getter);
+      if (name == null) {
+        continue;
+      }
+      Method setter = findSetter(type, name, getter.getReturnType());
+      try {
+        properties.add(new BeanProperty(new PropertyField(type, name), getter.getReturnType(),
+            getter.getGenericReturnType(), getter(type, getter),
+            setter == null ? null : setter(type, setter)));
+      } catch (IllegalAccessException ex) {
+        throw new IllegalArgumentException("Property " + name + " of " + type
+            + " is not accessible", ex);
+      }
+    }
+    Map<String, Integer> fieldOrder = fieldOrder(type);
+    properties.sort(Comparator
+        .comparing((BeanProperty p) -> fieldOrder.getOrDefault(p.getName(), Integer.MAX_VALUE))
+        .thenComparing(BeanProperty::getName));
+    return List.copyOf(properties);
+  }
+
+  private static String propertyName(Method method) {
+    if (Modifier.isStatic(method.getModifiers()) || method.isBridge()
+        || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+      return null;
+    }
+    String methodName = method.getName();
+    String suffix;
+    if (methodName.startsWith("get") && !methodName.equals("getClass")) {
+      suffix = methodName.substring(3);
+    } else if (methodName.startsWith("is") && method.getReturnType() == boolean.class) {
+      suffix = methodName.substring(2);
+    } else {
+      return null;
+    }
+    if (suffix.isEmpty()) {
+      return null;
+    }
+    if (suffix.length() > 1 && Character.isUpperCase(suffix.charAt(1))) {
+      return suffix;
+    }
+    return Character.toLowerCase(suffix.charAt(0)) + suffix.substring(1);
+  }
+
+  private static Method findSetter(Class<?> type, String name, Class<?> propertyType) {
+    try {
+      Method setter = type.getMethod("set" + Character.toUpperCase(name.charAt(0))
+          + name.substring(1), propertyType);
+      return Modifier.isStatic(setter.getModifiers()) ? null : setter;
+    } catch (NoSuchMethodException ex) {
+      return null;
+    }
+  }
+
+  private static Map<String, Integer> fieldOrder(Class<?> type) {
+    List<Class<?>> hierarchy = new ArrayList<>();
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      hierarchy.add(0, current);
+    }
+    Map<String, Integer> order = new HashMap<>();
+    for (Class<?> current : hierarchy) {
+      for (Field field : current.getDeclaredFields()) {
+        order.putIfAbsent(field.getName(), order.size());
+      }
+    }
+    return order;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> getter(Class<?> type, Method method)
+      throws IllegalAccessException {
+    MethodHandle handle = unreflect(method);
+    try {
+      CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+          MethodType.methodType(Function.class),
+          MethodType.methodType(Object.class, Object.class), handle,
+          MethodType.methodType(boxed(method.getReturnType()), type));
+      return (Function<Object, Object>) callSite.getTarget().invoke();
+    } catch (Throwable ex) {
+      MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+      return target -> {
+        try {
+          return getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new UndeclaredThrowableException(e);
+        }
+      };
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BiConsumer<Object, Object> setter(Class<?> type, Method method)
+      throws IllegalAccessException {
+    MethodHandle handle = unreflect(method);
+    try {
+      CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+          MethodType.methodType(BiConsumer.class),
+          MethodType.methodType(void.class, Object.class, Object.class), handle,
+          MethodType.methodType(void.class, type, boxed(method.getParameterTypes()[0])));
+      return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+    } catch (Throwable ex) {
+      MethodHandle setter = handle.asType(
+          MethodType.methodType(void.class, Object.class, Object.class));
+      return (target, value) -> {
+        try {
+          setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable e) {
+          throw new UndeclaredThrowableException(e);
+        }
+      };
+    }
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return MethodHandles.publicLookup().unreflect(method);
+    } catch (IllegalAccessException ex) {
+      if (!method.trySetAccessible()) {
+        throw ex;
+      }
+      return LOOKUP.unreflect(method);
+    }
+  }
+
+  private static Class<?> boxed(Class<?> type) {
+    return MethodType.methodType(type).wrap().returnType();
+  }
+}
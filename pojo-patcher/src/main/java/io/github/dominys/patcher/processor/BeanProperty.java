@@ -0,0 +1,57 @@
+package io.github.dominys.patcher.processor;
+
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bean property with accessors spun from its getter and setter method handles. Read only
+ * properties have no setter.
+ */
+final class BeanProperty {
+
+  private final PropertyField field;
+  private final Class<?> type;
+  private final Type genericType;
+  private final Function<Object, Object> getter;
+  private final BiConsumer<Object, Object> setter;
+
+  BeanProperty(PropertyField field, Class<?> type, Type genericType,
+               Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+    this.field = field;
+    this.type = type;
+    this.genericType = genericType;
+    this.getter = getter;
+    this.setter = setter;
+  }
+
+  PropertyField getField() {
+    return field;
+  }
+
+  String getName() {
+    return field.getFieldName();
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  Type getGenericType() {
+    return genericType;
+  }
+
+  @SuppressWarnings("unchecked")
+  <T, R> Function<T, R> getGetter() {
+    return (Function<T, R>) getter;
+  }
+
+  boolean isWritable() {
+    return setter != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  <T, R> BiConsumer<T, R> getSetter() {
+    return (BiConsumer<T, R>) setter;
+  }
+}
@@ -0,0 +1,117 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.ImmutableUpdateProcessor;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.operation.ImmutableFieldOperation;
+import io.github.dominys.patcher.operation.ImmutableListOperation;
+import io.github.dominys.patcher.operation.ImmutableUpdateOperation;
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Update processor of immutable objects, patching through withers or a builder.
+ *
+ * <p>The fields are written to a draft created on the first change and built into the patched
+ * copy at the end. For withers the draft is the object itself:
+ * <pre>{@code
+ * super(Function.identity(), Function.identity());
+ * map(NAME, Product::getName, Product::withName);
+ * }</pre>
+ * and for builders a builder initialized from the target:
+ * <pre>{@code
+ * super(Product::toBuilder, Product.Builder::build);
+ * map(NAME, Product::getName, Product.Builder::name);
+ * }</pre>
+ * Unchanged nested values and list elements are shared with the target by reference, and a
+ * patch without changes returns the target without allocating.
+ *
+ * @param <T> type
+ * @param <B> draft type
+ */
+public class ImmutableFieldUpdateProcessor<T, B> implements ImmutableUpdateProcessor<T> {
+
+  private static final UpdateListener IGNORING_LISTENER = new UpdateListener() {
+    @Override
+    public void onFieldUpdate(ModelField field) {
+    }
+
+    @Override
+    public void onElementUpdate(int index) {
+    }
+  };
+
+  private final Function<T, B> drafts;
+  private final Function<B, T> build;
+  private final List<ImmutableUpdateOperation<T, B, ?>> operations = new ArrayList<>();
+
+  /**
+   * Constructor.
+   *
+   * @param drafts creates the draft of a target, e.g. {@code toBuilder}
+   * @param build  builds the patched object from the draft
+   */
+  public ImmutableFieldUpdateProcessor(Function<T, B> drafts, Function<B, T> build) {
+    this.drafts = drafts;
+    this.build = build;
+  }
+
+  protected List<ImmutableUpdateOperation<T, B, ?>> getOperations() {
+    return List.copyOf(operations);
+  }
+
+  /**
+   * Patches the target with the source.
+   *
+   * @param target target object
+   * @param source source object
+   * @return patched copy of the target, the target itself when there are no changes
+   */
+  public T patch(T target, T source) {
+    return patch(target, source, IGNORING_LISTENER);
+  }
+
+  @Override
+  public T patch(T target, T source, UpdateListener listener) {
+    B draft = null;
+    for (ImmutableUpdateOperation<T, B, ?> operation : operations) {
+      if (listener.isDone()) {
+        break;
+      }
+      draft = operation.execute(target, source, draft, drafts, listener);
+    }
+    return draft == null ? target : build.apply(draft);
+  }
+
+  protected <R> void mapAlways(ModelField field, Function<T, R> getter,
+                               BiFunction<B, R, B> writer) {
+    operations.add(new ImmutableFieldOperation<>(field, getter, writer, r -> true, null));
+  }
+
+  protected <R> void map(ModelField field, Function<T, R> getter, BiFunction<B, R, B> writer) {
+    map(field, getter, writer, null);
+  }
+
+  protected <R> void map(ModelField field, Function<T, R> getter, BiFunction<B, R, B> writer,
+                         ImmutableUpdateProcessor<R> updateProcessor) {
+    operations.add(new ImmutableFieldOperation<>(field, getter, writer, Objects::nonNull,
+        updateProcessor));
+  }
+
+  protected <R, K> void mergeList(ModelField field, Function<T, List<R>> getter,
+                                  BiFunction<B, List<R>, B> writer, Function<R, K> keyProvider) {
+    mergeList(field, getter, writer, keyProvider, null);
+  }
+
+  protected <R, K> void mergeList(ModelField field, Function<T, List<R>> getter,
+                                  BiFunction<B, List<R>, B> writer, Function<R, K> keyProvider,
+                                  ImmutableUpdateProcessor<R> updateProcessor) {
+    operations.add(new ImmutableListOperation<>(field, getter, writer,
+        CollectionUtils::isNotEmpty, keyProvider, updateProcessor));
+  }
+}
@@ -0,0 +1,131 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable registry resolving processors by the runtime class of the patched objects.
+ *
+ * <p>A class without a processor of its own resolves to the processor of its nearest registered
+ * superclass, or else of its first registered interface. Resolutions are cached per class in a
+ * {@link ClassValue}, so a lookup is a single field load after the first one. Registered
+ * {@link BaseFieldUpdateProcessor}s are {@link BaseFieldUpdateProcessor#freeze() frozen}, so the
+ * registry and its processors can be shared between threads.
+ */
+public final class PatcherRegistry {
+
+  private final Map<Class<?>, FieldUpdateProcessor<?>> processors;
+
+  private final ClassValue<FieldUpdateProcessor<?>> resolved = new ClassValue<>() {
+    @Override
+    protected FieldUpdateProcessor<?> computeValue(Class<?> type) {
+      return resolve(type);
+    }
+  };
+
+  private PatcherRegistry(Map<Class<?>, FieldUpdateProcessor<?>> processors) {
+    this.processors = Map.copyOf(processors);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the processor of the type.
+   *
+   * @param type object type
+   * @param <T>  type
+   * @return processor or {@code null} if neither the type nor its supertypes are registered
+   */
+  @SuppressWarnings("unchecked")
+  public <T> FieldUpdateProcessor<? super T> getProcessor(Class<T> type) {
+    return (FieldUpdateProcessor<? super T>) resolved.get(type);
+  }
+
+  /**
+   * Updates the target from the source with the processor of the target class.
+   *
+   * @param target target object
+   * @param source source object
+   * @param <T>    type
+   * @return update result
+   * @throws IllegalArgumentException if no processor is registered for the target class
+   */
+  @SuppressWarnings("unchecked")
+  public <T> FieldUpdateResult execute(T target, T source) {
+    FieldUpdateProcessor<? super T> processor = getProcessor((Class<T>) target.getClass());
+    if (processor == null) {
+      throw new IllegalArgumentException("No processor registered for "
+          + target.getClass().getName());
+    }
+    return processor.execute(target, source);
+  }
+
+  private FieldUpdateProcessor<?> resolve(Class<?> type) {
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      FieldUpdateProcessor<?> processor = processors.get(current);
+      if (processor != null) {
+        return processor;
+      }
+    }
+
+    Deque<Class<?>> interfaces = new ArrayDeque<>();
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      interfaces.addAll(List.of(current.getInterfaces()));
+    }
+    while (!interfaces.isEmpty()) {
+      Class<?> current = interfaces.poll();
+      FieldUpdateProcessor<?> processor = processors.get(current);
+      if (processor != null) {
+        return processor;
+      }
+      interfaces.addAll(List.of(current.getInterfaces()));
+    }
+    return null;
+  }
+
+  /**
+   * Builder class.
+   */
+  public static final class Builder {
+
+    private final Map<Class<?>, FieldUpdateProcessor<?>> processors = new LinkedHashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Registers the processor of the type and its subtypes.
+     *
+     * @param type      object type
+     * @param processor processor
+     * @param <T>       type
+     * @return this builder
+     */
+    public <T> Builder register(Class<T> type, FieldUpdateProcessor<? super T> processor) {
+      processors.put(type, processor);
+      return this;
+    }
+
+    /**
+     * Builds the registry, freezing the registered base processors.
+     *
+     * @return registry
+     */
+    public PatcherRegistry build() {
+      for (FieldUpdateProcessor<?> processor : processors.values()) {
+        if (processor instanceof BaseFieldUpdateProcessor) {
+          ((BaseFieldUpdateProcessor<?>) processor).freeze();
+        }
+      }
+      return new PatcherRegistry(processors);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+import io.github.dominys.patcher.processor.compiled.CompiledProcessor;
+import io.github.dominys.patcher.processor.compiled.FieldOperationNode;
+import io.github.dominys.patcher.processor.compiled.OperationNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiles {@link BaseFieldUpdateProcessor}s into chains of operation nodes.
+ *
+ * <p>The JIT profiles call sites per class, so with one shared {@code FieldUpdateOperation} class
+ * every getter, setter and condition call site sees all lambdas of all processors and becomes
+ * megamorphic. The compiler defines a private copy of a node template class, each in its own
+ * class loader, for every operation and every processor shape. Every copy has its own call sites that
+ * see exactly one lambda and can be inlined, and every node calls the next one directly, which
+ * gives straight-line code per processor.
+ *
+ * <p>Copies are cached by shape for the lifetime of this library's class loader: the template,
+ * the classes of the getter, setter and condition lambdas, the shapes of nested processors and
+ * of the rest of the chain. Compiling processors of the same shape again, e.g. per tenant,
+ * reuses the classes, so their number is bounded by the code that builds the processors and not
+ * by the number of compilations.
+ */
+final class ProcessorCompiler {
+
+  private static final ClassValue<byte[]> TEMPLATE_BYTES = new ClassValue<>() {
+    @Override
+    protected byte[] computeValue(Class<?> type) {
+      String resource = type.getSimpleName() + ".class";
+      try (InputStream inputStream = type.getResourceAsStream(resource)) {
+        if (inputStream == null) {
+          throw new IOException("Class file not found: " + resource);
+        }
+        return inputStream.readAllBytes();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  };
+
+  private static final Map<List<Object>, Class<?>> COPIES = new ConcurrentHashMap<>();
+
+  private static final List<Object> CYCLE = List.of("cycle");
+
+  private final Map<FieldUpdateProcessor<?>, FieldUpdateProcessor<?>> compiled =
+      new IdentityHashMap<>();
+
+  private final Map<FieldUpdateProcessor<?>, List<Object>> shapes = new IdentityHashMap<>();
+
+  private ProcessorCompiler() {
+  }
+
+  /**
+   * Compiles the processor and its nested processors.
+   *
+   * @param processor processor
+   * @param <T>       type
+   * @return compiled processor or the given processor if classes can not be defined
+   */
+  static <T> FieldUpdateProcessor<T> compile(BaseFieldUpdateProcessor<T> processor) {
+    try {
+      return new ProcessorCompiler().compileProcessor(processor);
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+      return processor;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> FieldUpdateProcessor<T> compileProcessor(BaseFieldUpdateProcessor<T> processor)
+      throws ReflectiveOperationException {
+    FieldUpdateProcessor<T> existing = (FieldUpdateProcessor<T>) compiled.get(processor);
+    if (existing != null) {
+      return existing;
+    }
+    if (!isCompilable(processor.getClass())) {
+      return processor;
+    }
+
+    List<Object> shape = shapeOf(processor);
+    Class<?> processorClass = copyOf(CompiledProcessor.class, shape);
+    FieldUpdateProcessor<T> compiledProcessor =
+        (FieldUpdateProcessor<T>) processorClass.getConstructor().newInstance();
+    compiled.put(processor, compiledProcessor);
+
+    List<UpdateOperation<T>> operations = processor.getOperations();
+    UpdateOperation<T> next = null;
+    for (int i = operations.size() - 1; i >= 0; i--) {
+      next = compileOperation(operations.get(i),
+          List.copyOf(shape.subList(i, operations.size())), next);
+    }
+    processorClass.getMethod("link", UpdateOperation.class, FieldOrdinals.class)
+        .invoke(compiledProcessor, next, processor.getFieldOrdinals());
+    return compiledProcessor;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T, R> UpdateOperation<T> compileOperation(
+      UpdateOperation<T> operation, List<Object> chainShape, UpdateOperation<T> next)
+      throws ReflectiveOperationException {
+    if (operation.getClass() == FieldUpdateOperation.class) {
+      FieldUpdateOperation<T, R> fieldOperation = (FieldUpdateOperation<T, R>) operation;
+      return (UpdateOperation<T>) copyOf(FieldOperationNode.class, chainShape)
+          .getConstructor(ModelField.class, Function.class, BiConsumer.class, Predicate.class,
+              FieldUpdateProcessor.class, Function.class, UpdateOperation.class)
+          .newInstance(fieldOperation.getField(), fieldOperation.getGetter(),
+              fieldOperation.getSetter(), fieldOperation.getCondition(),
+              compileNested(fieldOperation.getFieldUpdateProcessor()),
+              fieldOperation.getVersionProvider(), next);
+    }
+
+    UpdateOperation<T> nodeOperation = operation;
+    if (operation.getClass() == ListUpdateOperation.class) {
+      ListUpdateOperation<T, R, ?> listOperation = (ListUpdateOperation<T, R, ?>) operation;
+      FieldUpdateProcessor<R> elementProcessor = listOperation.getFieldUpdateProcessor();
+      FieldUpdateProcessor<R> compiledElementProcessor = compileNested(elementProcessor);
+      if (compiledElementProcessor != elementProcessor) {
+        nodeOperation = listOperation.withFieldUpdateProcessor(compiledElementProcessor);
+      }
+    }
+    return (UpdateOperation<T>) copyOf(OperationNode.class, chainShape)
+        .getConstructor(UpdateOperation.class, UpdateOperation.class)
+        .newInstance(nodeOperation, next);
+  }
+
+  private <R> FieldUpdateProcessor<R> compileNested(FieldUpdateProcessor<R> processor)
+      throws ReflectiveOperationException {
+    if (processor instanceof BaseFieldUpdateProcessor) {
+      return compileProcessor((BaseFieldUpdateProcessor<R>) processor);
+    }
+    return processor;
+  }
+
+  /**
+   * Returns the shape of a processor, the shapes of its operations in order.
+   */
+  private List<Object> shapeOf(FieldUpdateProcessor<?> processor) {
+    if (!(processor instanceof BaseFieldUpdateProcessor)) {
+      return List.of(classOf(processor));
+    }
+    List<Object> shape = shapes.get(processor);
+    if (shape != null) {
+      return shape;
+    }
+    shapes.put(processor, CYCLE);
+    List<Object> operationShapes = new ArrayList<>();
+    for (UpdateOperation<?> operation
+        : ((BaseFieldUpdateProcessor<?>) processor).getOperations()) {
+      operationShapes.add(operationShape(operation));
+    }
+    shape = List.copyOf(operationShapes);
+    shapes.put(processor, shape);
+    return shape;
+  }
+
+  private List<Object> operationShape(UpdateOperation<?> operation) {
+    if (operation.getClass() == FieldUpdateOperation.class) {
+      FieldUpdateOperation<?, ?> fieldOperation = (FieldUpdateOperation<?, ?>) operation;
+      return List.of(FieldUpdateOperation.class, classOf(fieldOperation.getGetter()),
+          classOf(fieldOperation.getSetter()), classOf(fieldOperation.getCondition()),
+          classOf(fieldOperation.getVersionProvider()),
+          shapeOf(fieldOperation.getFieldUpdateProcessor()));
+    }
+    if (operation.getClass() == ListUpdateOperation.class) {
+      return List.of(ListUpdateOperation.class,
+          shapeOf(((ListUpdateOperation<?, ?, ?>) operation).getFieldUpdateProcessor()));
+    }
+    return List.of(operation.getClass());
+  }
+
+  private static Class<?> classOf(Object value) {
+    return value == null ? Void.class : value.getClass();
+  }
+
+  static boolean isCompilable(Class<?> processorClass) {
+    try {
+      return processorClass.getMethod("execute", Object.class, Object.class)
+          .getDeclaringClass() == BaseFieldUpdateProcessor.class
+          && processorClass.getMethod("execute", Object.class, Object.class, UpdateListener.class)
+          .getDeclaringClass() == BaseFieldUpdateProcessor.class;
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
+  }
+
+  private static Class<?> copyOf(Class<?> template, List<Object> shape) {
+    return COPIES.computeIfAbsent(List.of(template, shape), key -> defineCopy(template));
+  }
+
+  private static Class<?> defineCopy(Class<?> template) {
+    try {
+      return new TemplateClassLoader(template, TEMPLATE_BYTES.get(template))
+          .loadClass(template.getName());
+    } catch (ClassNotFoundException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Class loader defining its own copy of one template class.
+   */
+  private static final class TemplateClassLoader extends ClassLoader {
+
+    private final Class<?> template;
+    private final byte[] bytes;
+
+    private TemplateClassLoader(Class<?> template, byte[] bytes) {
+      super(template.getClassLoader());
+      this.template = template;
+      this.bytes = bytes;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(template.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> loaded = findLoadedClass(name);
+        if (loaded == null) {
+          loaded = defineClass(name, bytes, 0, bytes.length, template.getProtectionDomain());
+        }
+        if (resolve) {
+          resolveClass(loaded);
+        }
+        return loaded;
+      }
+    }
+  }
+}
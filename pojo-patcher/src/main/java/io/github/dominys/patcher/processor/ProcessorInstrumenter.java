@@ -0,0 +1,103 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.metrics.InstrumentedProcessor;
+import io.github.dominys.patcher.metrics.InstrumentedUpdateOperation;
+import io.github.dominys.patcher.metrics.PatchMetrics;
+import io.github.dominys.patcher.operation.BaseUpdateOperation;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps the operations of {@link BaseFieldUpdateProcessor}s, including nested processors, into
+ * {@link InstrumentedUpdateOperation}s recording {@link PatchMetrics}.
+ */
+final class ProcessorInstrumenter {
+
+  private final PatchMetrics metrics;
+
+  private final Map<FieldUpdateProcessor<?>, FieldUpdateProcessor<?>> instrumented =
+      new IdentityHashMap<>();
+
+  private ProcessorInstrumenter(PatchMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Instruments the processor and its nested processors.
+   *
+   * @param processor processor
+   * @param metrics   metrics
+   * @param <T>       type
+   * @return instrumented processor or the given processor if {@code execute} is overridden
+   */
+  static <T> FieldUpdateProcessor<T> instrument(BaseFieldUpdateProcessor<T> processor,
+                                                PatchMetrics metrics) {
+    if (!ProcessorCompiler.isCompilable(processor.getClass())) {
+      return processor;
+    }
+    return new ProcessorInstrumenter(metrics).create(processor, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> FieldUpdateProcessor<T> instrumentNested(FieldUpdateProcessor<T> processor) {
+    if (!(processor instanceof BaseFieldUpdateProcessor)
+        || !ProcessorCompiler.isCompilable(processor.getClass())) {
+      return processor;
+    }
+    FieldUpdateProcessor<T> existing = (FieldUpdateProcessor<T>) instrumented.get(processor);
+    if (existing != null) {
+      return existing;
+    }
+    return create((BaseFieldUpdateProcessor<T>) processor, false);
+  }
+
+  private <T> InstrumentedProcessor<T> create(BaseFieldUpdateProcessor<T> processor,
+                                              boolean root) {
+    return new InstrumentedProcessor<>(metrics, root, processor.getFieldOrdinals(), self -> {
+      if (!root) {
+        instrumented.put(processor, self);
+      }
+      List<UpdateOperation<T>> operations = new ArrayList<>();
+      for (UpdateOperation<T> operation : processor.getOperations()) {
+        operations.add(instrumentOperation(operation));
+      }
+      return operations;
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T, R> UpdateOperation<T> instrumentOperation(UpdateOperation<T> operation) {
+    if (operation.getClass() == FieldUpdateOperation.class) {
+      FieldUpdateOperation<T, R> fieldOperation = (FieldUpdateOperation<T, R>) operation;
+      FieldUpdateProcessor<R> nestedProcessor = fieldOperation.getFieldUpdateProcessor();
+      FieldUpdateProcessor<R> instrumentedProcessor = instrumentNested(nestedProcessor);
+      if (instrumentedProcessor != nestedProcessor) {
+        operation = fieldOperation.withFieldUpdateProcessor(instrumentedProcessor);
+      }
+      return new InstrumentedUpdateOperation<>(operation,
+          metrics.getFieldMetrics(fieldOperation.getField()), null);
+    }
+    if (operation.getClass() == ListUpdateOperation.class) {
+      ListUpdateOperation<T, R, ?> listOperation = (ListUpdateOperation<T, R, ?>) operation;
+      FieldUpdateProcessor<R> elementProcessor = listOperation.getFieldUpdateProcessor();
+      FieldUpdateProcessor<R> instrumentedProcessor = instrumentNested(elementProcessor);
+      if (instrumentedProcessor != elementProcessor) {
+        operation = listOperation.withFieldUpdateProcessor(instrumentedProcessor);
+      }
+      return new InstrumentedUpdateOperation<>(operation,
+          metrics.getFieldMetrics(listOperation.getField()), listOperation.getGetter());
+    }
+    if (operation instanceof BaseUpdateOperation) {
+      return new InstrumentedUpdateOperation<>(operation,
+          metrics.getFieldMetrics(((BaseUpdateOperation<T, ?>) operation).getField()), null);
+    }
+    return operation;
+  }
+}
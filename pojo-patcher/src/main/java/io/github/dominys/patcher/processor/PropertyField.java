@@ -0,0 +1,50 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.ModelField;
+
+import java.util.Objects;
+
+/**
+ * Model field of a bean property discovered by {@code autoMap}.
+ */
+public final class PropertyField implements ModelField {
+
+  private final Class<?> beanType;
+  private final String fieldName;
+
+  PropertyField(Class<?> beanType, String fieldName) {
+    this.beanType = beanType;
+    this.fieldName = fieldName;
+  }
+
+  public Class<?> getBeanType() {
+    return beanType;
+  }
+
+  @Override
+  public String getFieldName() {
+    return fieldName;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PropertyField that = (PropertyField) o;
+    return beanType == that.beanType && fieldName.equals(that.fieldName);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(beanType, fieldName);
+  }
+
+  @Override
+  public String toString() {
+    return beanType.getSimpleName() + "." + fieldName;
+  }
+}
@@ -0,0 +1,157 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.operation.BaseUpdateOperation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Processor patching shared targets from several threads, each top-level field under a lock of
+ * its own stripe.
+ *
+ * <p>The stripe of an operation is picked by the identity of the target and the ordinal of the
+ * field. A patch locks the stripes of the fields its source provides, in ascending order, before
+ * running any operation, so each patch is applied atomically: patches of disjoint fields of one
+ * target, or of different targets, mostly run in parallel while patches sharing a field are
+ * serialized. A lock covers the whole subtree of its field, nested fields and list merges
+ * included. Processors that override {@code execute} run under a single stripe per target.
+ *
+ * @param <T> type
+ */
+final class StripedLockProcessor<T> implements FieldUpdateProcessor<T> {
+
+  private static final int SPREAD = 0x9E3779B9;
+
+  private final FieldUpdateProcessor<T> processor;
+  private final UpdateOperation<T>[] operations;
+  private final int[] ordinals;
+  private final Predicate<T>[] provided;
+  private final ReentrantLock[] locks;
+  private final int mask;
+
+  @SuppressWarnings("unchecked")
+  private StripedLockProcessor(BaseFieldUpdateProcessor<T> processor, int stripes) {
+    this.processor = processor;
+    if (ProcessorCompiler.isCompilable(processor.getClass())) {
+      List<UpdateOperation<T>> operationList = processor.getOperations();
+      this.operations = operationList.toArray(new UpdateOperation[0]);
+    } else {
+      this.operations = new UpdateOperation[] {new WholeTargetOperation<>(processor)};
+    }
+    this.ordinals = new int[operations.length];
+    this.provided = new Predicate[operations.length];
+    FieldOrdinals fieldOrdinals = processor.getFieldOrdinals();
+    for (int i = 0; i < operations.length; i++) {
+      if (operations[i] instanceof BaseUpdateOperation) {
+        BaseUpdateOperation<T, Object> operation = (BaseUpdateOperation<T, Object>) operations[i];
+        ordinals[i] = fieldOrdinals.ordinalOf(operation.getField());
+        provided[i] = source -> operation.getCondition().test(operation.getGetter().apply(source));
+      } else {
+        provided[i] = source -> true;
+      }
+    }
+    int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+    this.locks = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      locks[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Creates a concurrent processor, freezing the given one.
+   *
+   * @param processor processor
+   * @param stripes   number of locks, rounded up to a power of two
+   * @param <T>       type
+   * @return concurrent processor
+   */
+  static <T> FieldUpdateProcessor<T> of(BaseFieldUpdateProcessor<T> processor, int stripes) {
+    if (stripes < 1) {
+      throw new IllegalArgumentException("Stripes must be positive: " + stripes);
+    }
+    return new StripedLockProcessor<>(processor.freeze(), stripes);
+  }
+
+  @Override
+  public FieldOrdinals getFieldOrdinals() {
+    return processor.getFieldOrdinals();
+  }
+
+  @Override
+  public boolean canMerge(T target, T source) {
+    return processor.canMerge(target, source);
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector(getFieldOrdinals());
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    int hash = System.identityHashCode(target) * SPREAD;
+    hash ^= hash >>> 16;
+    boolean[] touched = new boolean[operations.length];
+    int[] stripes = new int[operations.length];
+    int count = 0;
+    for (int i = 0; i < operations.length; i++) {
+      if (provided[i].test(source)) {
+        touched[i] = true;
+        stripes[count++] = (hash + ordinals[i]) & mask;
+      }
+    }
+    Arrays.sort(stripes, 0, count);
+
+    int locked = 0;
+    try {
+      for (int i = 0; i < count; i++) {
+        if (i == 0 || stripes[i] != stripes[i - 1]) {
+          locks[stripes[i]].lock();
+          stripes[locked++] = stripes[i];
+        }
+      }
+      for (int i = 0; i < operations.length && !listener.isDone(); i++) {
+        if (touched[i]) {
+          operations[i].execute(target, source, listener);
+        }
+      }
+    } finally {
+      while (locked > 0) {
+        locks[stripes[--locked]].unlock();
+      }
+    }
+  }
+
+  /**
+   * Runs a processor overriding {@code execute} as a single operation.
+   */
+  private static final class WholeTargetOperation<T> implements UpdateOperation<T> {
+
+    private final FieldUpdateProcessor<T> processor;
+
+    WholeTargetOperation(FieldUpdateProcessor<T> processor) {
+      this.processor = processor;
+    }
+
+    @Override
+    public FieldUpdateResult execute(T target, T source) {
+      return processor.execute(target, source);
+    }
+
+    @Override
+    public void execute(T target, T source, UpdateListener listener) {
+      processor.execute(target, source, listener);
+    }
+  }
+}
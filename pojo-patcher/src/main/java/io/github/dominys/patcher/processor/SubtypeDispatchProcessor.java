@@ -0,0 +1,110 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.UpdateListener;
+
+/**
+ * Processor of a polymorphic type, updating every object with the processor of its subtype.
+ *
+ * <p>Used as the nested processor of {@code map} or the element processor of {@code mergeList}
+ * for values of mixed subtypes. Processors are resolved by runtime class like in
+ * {@link PatcherRegistry}. A target and a source of different classes, or of a class without
+ * a processor, can not be merged, so the enclosing operation replaces the target value with the
+ * source value, see {@link FieldUpdateProcessor#canMerge(Object, Object)}.
+ *
+ * @param <T> base type
+ */
+public final class SubtypeDispatchProcessor<T> implements FieldUpdateProcessor<T> {
+
+  private final PatcherRegistry registry;
+
+  private SubtypeDispatchProcessor(PatcherRegistry registry) {
+    this.registry = registry;
+  }
+
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Returns the processor the object is updated with.
+   *
+   * @param value object
+   * @return subtype processor or {@code null} if the class has no processor
+   */
+  @SuppressWarnings("unchecked")
+  public FieldUpdateProcessor<T> getProcessor(T value) {
+    return (FieldUpdateProcessor<T>) registry.getProcessor(value.getClass());
+  }
+
+  @Override
+  public boolean canMerge(T target, T source) {
+    if (target.getClass() != source.getClass()) {
+      return false;
+    }
+    FieldUpdateProcessor<T> processor = getProcessor(target);
+    return processor != null && processor.canMerge(target, source);
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  /**
+   * Updates the target with the processor of its class.
+   *
+   * @param target   target object
+   * @param source   source object of the same class
+   * @param listener update listener
+   * @throws IllegalArgumentException if the classes differ or have no processor
+   */
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    if (target.getClass() != source.getClass()) {
+      throw new IllegalArgumentException("Can not update " + target.getClass().getName()
+          + " from " + source.getClass().getName());
+    }
+    FieldUpdateProcessor<T> processor = getProcessor(target);
+    if (processor == null) {
+      throw new IllegalArgumentException("No processor registered for "
+          + target.getClass().getName());
+    }
+    processor.execute(target, source, listener);
+  }
+
+  /**
+   * Builder class.
+   *
+   * @param <T> base type
+   */
+  public static final class Builder<T> {
+
+    private final PatcherRegistry.Builder registry = PatcherRegistry.builder();
+
+    private Builder() {
+    }
+
+    /**
+     * Registers the processor of the subtype and its own subtypes.
+     *
+     * @param type      subtype
+     * @param processor subtype processor
+     * @param <S>       subtype
+     * @return this builder
+     */
+    public <S extends T> Builder<T> register(Class<S> type,
+                                             FieldUpdateProcessor<? super S> processor) {
+      registry.register(type, processor);
+      return this;
+    }
+
+    public SubtypeDispatchProcessor<T> build() {
+      return new SubtypeDispatchProcessor<>(registry.build());
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package io.github.dominys.patcher.processor.compiled;
+
+import io.github.dominys.patcher.FieldOrdinals;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+
+/**
+ * Compiled processor template, runs a chain of operation nodes.
+ *
+ * <p>Internal class, the compiler defines a private copy of it for every processor shape.
+ *
+ * @param <T> type
+ */
+public final class CompiledProcessor<T> implements FieldUpdateProcessor<T> {
+
+  private UpdateOperation<T> head;
+  private FieldOrdinals fieldOrdinals;
+
+  public void link(UpdateOperation<T> head, FieldOrdinals fieldOrdinals) {
+    this.head = head;
+    this.fieldOrdinals = fieldOrdinals;
+  }
+
+  @Override
+  public FieldOrdinals getFieldOrdinals() {
+    return fieldOrdinals;
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector(fieldOrdinals);
+    execute(target, source, collector);
+    return collector.getResult();
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    if (head != null) {
+      head.execute(target, source, listener);
+    }
+  }
+}
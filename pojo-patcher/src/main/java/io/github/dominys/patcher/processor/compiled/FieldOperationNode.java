@@ -0,0 +1,127 @@
+package io.github.dominys.patcher.processor.compiled;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UndoLog;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiled node template with the field update logic inlined.
+ *
+ * <p>Internal class, the compiler defines a private copy of it for every field shape, so the
+ * getter, setter, condition and nested processor calls are made from call sites that only ever
+ * see one implementation.
+ *
+ * @param <T> base type
+ * @param <R> field type
+ */
+public final class FieldOperationNode<T, R> implements UpdateOperation<T> {
+
+  private final ModelField field;
+  private final Function<T, R> getter;
+  private final BiConsumer<T, R> setter;
+  private final Predicate<R> condition;
+  private final FieldUpdateProcessor<R> fieldUpdateProcessor;
+  private final Function<R, ?> versionProvider;
+  private final UpdateOperation<T> next;
+
+  /**
+   * Constructor.
+   *
+   * @param field                field name
+   * @param getter               field getter
+   * @param setter               field setter
+   * @param condition            source field check condition
+   * @param fieldUpdateProcessor field update processor
+   * @param versionProvider      version of a field value, {@code null} to compare by equals
+   * @param next                 next node
+   */
+  public FieldOperationNode(ModelField field, Function<T, R> getter, BiConsumer<T, R> setter,
+                            Predicate<R> condition, FieldUpdateProcessor<R> fieldUpdateProcessor,
+                            Function<R, ?> versionProvider, UpdateOperation<T> next) {
+    this.field = field;
+    this.getter = getter;
+    this.setter = setter;
+    this.condition = condition;
+    this.fieldUpdateProcessor = fieldUpdateProcessor;
+    this.versionProvider = versionProvider;
+    this.next = next;
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    executeField(target, source, collector);
+    List<FieldUpdateResult> results = collector.getResult().getChildren();
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    executeField(target, source, listener);
+    if (next != null && !listener.isDone()) {
+      next.execute(target, source, listener);
+    }
+  }
+
+  private void executeField(T target, T source, UpdateListener listener) {
+    try {
+      doExecute(target, source, listener);
+    } catch (Exception ex) {
+      if (listener.isCollectingErrors()) {
+        listener.onFieldError(field, ex);
+      } else if (ex instanceof FieldUpdateException) {
+        throw new FieldUpdateException(field.getFieldName() + "."
+            + ((FieldUpdateException) ex).getField(), ex.getCause());
+      } else {
+        throw new FieldUpdateException(field.getFieldName(), ex);
+      }
+    }
+  }
+
+  private void doExecute(T target, T source, UpdateListener listener) {
+    R val = getter.apply(source);
+    if (!condition.test(val)) {
+      return;
+    }
+
+    R targetVal = getter.apply(target);
+    if (versionProvider != null && val != null && targetVal != null) {
+      if (Objects.equals(versionProvider.apply(val), versionProvider.apply(targetVal))) {
+        return;
+      }
+    } else if (Objects.equals(val, targetVal)) {
+      return;
+    }
+
+    if (targetVal == null || fieldUpdateProcessor == null
+        || !fieldUpdateProcessor.canMerge(targetVal, val)) {
+      if (!listener.isDryRun()) {
+        UndoLog undoLog = listener.getUndoLog();
+        if (undoLog != null) {
+          undoLog.record(target, setter, targetVal);
+        }
+        setter.accept(target, val);
+      }
+      listener.onFieldUpdate(field);
+      return;
+    }
+
+    listener.enterField(field);
+    try {
+      fieldUpdateProcessor.execute(targetVal, val, listener);
+    } finally {
+      listener.exitField(field);
+    }
+  }
+}
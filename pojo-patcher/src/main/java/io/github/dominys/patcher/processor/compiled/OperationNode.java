@@ -0,0 +1,42 @@
+package io.github.dominys.patcher.processor.compiled;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.UpdateOperation;
+
+import java.util.List;
+
+/**
+ * Compiled node template delegating to an operation.
+ *
+ * <p>Internal class, the compiler defines a private copy of it for every operation shape.
+ *
+ * @param <T> type
+ */
+public final class OperationNode<T> implements UpdateOperation<T> {
+
+  private final UpdateOperation<T> operation;
+  private final UpdateOperation<T> next;
+
+  public OperationNode(UpdateOperation<T> operation, UpdateOperation<T> next) {
+    this.operation = operation;
+    this.next = next;
+  }
+
+  @Override
+  public FieldUpdateResult execute(T target, T source) {
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    operation.execute(target, source, collector);
+    List<FieldUpdateResult> results = collector.getResult().getChildren();
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  @Override
+  public void execute(T target, T source, UpdateListener listener) {
+    operation.execute(target, source, listener);
+    if (next != null && !listener.isDone()) {
+      next.execute(target, source, listener);
+    }
+  }
+}
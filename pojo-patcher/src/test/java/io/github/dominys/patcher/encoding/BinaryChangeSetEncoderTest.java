@@ -0,0 +1,87 @@
+package io.github.dominys.patcher.encoding;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryChangeSetEncoderTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+  private static final TestField POJO_LIST_FIELD = new TestField("pojoList");
+
+  private final TestPOJOProcessor processor = new TestPOJOProcessor();
+
+  @Test
+  public void testEncodeStructure() {
+    TestPOJO target = target();
+    FieldUpdateResult result = processor.execute(target, source());
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    new BinaryChangeSetEncoder().encode(result, target, processor, buffer);
+
+    assertThat(result).hasToString("{fieldOne,stringList{[0],[3]},pojoList{[0]{fieldOne}}}");
+    assertThat(Arrays.copyOf(buffer.array(), buffer.position()))
+        .containsExactly(3, 0, 3, 2, 0, 13, 5, 1, 2, 1, 0);
+  }
+
+  @Test
+  public void testEncodeValues() throws IOException {
+    TestPOJO target = target();
+    FieldUpdateResult result = processor.execute(target, source());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new BinaryChangeSetEncoder((field, value, stream) -> {
+      byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+      stream.write(bytes.length);
+      stream.write(bytes);
+    }).encode(result, target, processor, out);
+
+    assertThat(new String(out.toByteArray(), StandardCharsets.ISO_8859_1))
+        .isEqualTo("\u0003\u0000\u0007updated\u0003\u0002\u0000\u00031_2\r\u00034_2"
+            + "\u0005\u0001\u0002\u0001\u0000\u0001c");
+  }
+
+  private static TestPOJO target() {
+    TestPOJO child = new TestPOJO();
+    child.setStringList(List.of("c"));
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("original");
+    target.setStringList(List.of("1_1", "2_1", "3_1"));
+    target.setPojoList(List.of(child));
+    return target;
+  }
+
+  private static TestPOJO source() {
+    TestPOJO child = new TestPOJO();
+    child.setStringList(List.of("c"));
+    child.setFieldOne("c");
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("updated");
+    source.setStringList(List.of("1_2", "4_2"));
+    source.setPojoList(List.of(child));
+    return source;
+  }
+
+  private static class TestPOJOProcessor extends BaseFieldUpdateProcessor<TestPOJO> {
+
+    TestPOJOProcessor() {
+      map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+      mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+          s -> s.charAt(0));
+      mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+          pojo -> pojo.getStringList().get(0), this);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package io.github.dominys.patcher.encoding;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ChangeSetVisitorTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+  private static final TestField POJO_LIST_FIELD = new TestField("pojoList");
+
+  @Test
+  public void testVisit() throws IOException {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new TestPOJOProcessor(null);
+    TestPOJO target = pojo("original", "1_1", "2_1");
+    target.setPojoList(List.of(pojo(null, "c")));
+    TestPOJO source = pojo("updated", "1_2", "3_2");
+    source.setPojoList(List.of(pojo("c", "c")));
+    FieldUpdateResult result = processor.execute(target, source);
+    List<String> events = new ArrayList<>();
+
+    new RecordingVisitor(events).visit(result, target, processor);
+
+    assertThat(events).containsExactly("object 3", "field fieldOne 0 updated",
+        "enter stringList 1", "list 2", "element 0 false 1_2", "element 2 true 3_2",
+        "exit stringList", "enter pojoList 2", "list 1", "enter [0] false", "object 1",
+        "field fieldOne 0 c", "exit [0]", "exit pojoList");
+  }
+
+  @Test
+  public void testUnresolvedChanges() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new TestPOJOProcessor(null);
+    TestPOJO target = pojo("original");
+    target.setPojoList(List.of(pojo(null, "c")));
+    TestPOJO source = pojo("updated");
+    source.setPojoList(List.of(pojo("c", "c")));
+    FieldUpdateResult result = processor.execute(target, source);
+
+    BaseFieldUpdateProcessor<TestPOJO> otherProcessor = new BaseFieldUpdateProcessor<>();
+    assertThatThrownBy(() -> new RecordingVisitor(new ArrayList<>())
+        .visit(result, target, otherProcessor))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Field fieldOne is not registered in the processor");
+
+    FieldUpdateProcessor<TestPOJO> lambdaProcessor = (pojoTarget, pojoSource) -> null;
+    BaseFieldUpdateProcessor<TestPOJO> lambdaElements = new TestPOJOProcessor(lambdaProcessor);
+    assertThatThrownBy(() -> new RecordingVisitor(new ArrayList<>())
+        .visit(result, target, lambdaElements))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageEndingWith("can not be resolved, a BaseFieldUpdateProcessor is required");
+  }
+
+  private static TestPOJO pojo(String fieldOne, String... stringList) {
+    TestPOJO pojo = new TestPOJO();
+    pojo.setFieldOne(fieldOne);
+    pojo.setStringList(List.of(stringList));
+    return pojo;
+  }
+
+  private static class TestPOJOProcessor extends BaseFieldUpdateProcessor<TestPOJO> {
+
+    TestPOJOProcessor(FieldUpdateProcessor<TestPOJO> elementProcessor) {
+      map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+      mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+          s -> s.charAt(0));
+      mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+          pojo -> pojo.getStringList().get(0), elementProcessor == null ? this : elementProcessor);
+    }
+  }
+
+  private static final class RecordingVisitor extends ChangeSetVisitor {
+
+    private final List<String> events;
+
+    RecordingVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    protected void enterObject(Object target, int changeCount) {
+      events.add("object " + changeCount);
+    }
+
+    @Override
+    protected void visitField(ModelField field, int ordinal, Object target, Object value) {
+      events.add("field " + field.getFieldName() + " " + ordinal + " " + value);
+    }
+
+    @Override
+    protected void enterField(ModelField field, int ordinal, Object target) {
+      events.add("enter " + field.getFieldName() + " " + ordinal);
+    }
+
+    @Override
+    protected void exitField(ModelField field) {
+      events.add("exit " + field.getFieldName());
+    }
+
+    @Override
+    protected void enterList(ModelField field, int changeCount) {
+      events.add("list " + changeCount);
+    }
+
+    @Override
+    protected void visitElement(ModelField field, int index, boolean added, Object value) {
+      events.add("element " + index + " " + added + " " + value);
+    }
+
+    @Override
+    protected void enterElement(int index, boolean added) {
+      events.add("enter [" + index + "] " + added);
+    }
+
+    @Override
+    protected void exitElement(int index) {
+      events.add("exit [" + index + "]");
+    }
+  }
+}
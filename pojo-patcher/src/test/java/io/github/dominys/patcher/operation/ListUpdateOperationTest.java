@@ -0,0 +1,356 @@
+package io.github.dominys.patcher.operation;
+
+import io.github.dominys.patcher.ErrorCollector;
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.PatchError;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessor;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.apache.commons.collections4.CollectionUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ListUpdateOperationTest {
+
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+  private static final TestField POJO_LIST_FIELD = new TestField("pojoList");
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+
+  private final ListUpdateOperation<TestPOJO, String, Character> operation =
+      new ListUpdateOperation<>(STRING_LIST_FIELD, TestPOJO::getStringList,
+          TestPOJO::setStringList, CollectionUtils::isNotEmpty, s -> s.charAt(0), null);
+
+  @Test
+  public void testDuplicateKeys() {
+    TestPOJO target = new TestPOJO();
+    target.setStringList(List.of("1_1", "2_1", "1_2", "3_1"));
+
+    TestPOJO source = new TestPOJO();
+    source.setStringList(List.of("4_1", "2_2", "4_2", "2_3"));
+
+    FieldUpdateResult result = operation.execute(target, source);
+
+    assertThat(result).hasToString("stringList{[1],[3]}");
+    assertThat(target.getStringList()).containsExactly("1_1", "2_2", "3_1", "4_1");
+  }
+
+  @Test
+  public void testInPlaceMerge() {
+    ListUpdateOperation<TestPOJO, String, Character> inPlaceOperation =
+        operation.withInPlaceMerge(true);
+    List<String> targetList = new ArrayList<>(List.of("1_1", "2_1", "1_2", "3_1"));
+    TestPOJO target = new TestPOJO();
+    target.setStringList(targetList);
+
+    TestPOJO source = new TestPOJO();
+    source.setStringList(List.of("4_1", "2_2", "3_1"));
+
+    FieldUpdateResult result = inPlaceOperation.execute(target, source);
+
+    assertThat(result).hasToString("stringList{[1],[3],[4]}");
+    assertThat(target.getStringList()).isSameAs(targetList)
+        .containsExactly("1_1", "2_2", "1_2", "3_1", "4_1");
+    assertThat(inPlaceOperation.diff(target, pojoWithStrings("5_1"), 10))
+        .hasToString("stringList{[5]}");
+    assertThat(targetList).hasSize(5);
+  }
+
+  @Test
+  public void testParallelInPlaceMerge() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ListUpdateOperation<TestPOJO, TestPOJO, String> inPlaceOperation =
+          pojoListOperation(fieldOneProcessor(TestPOJO::setFieldOne), 2, executor)
+              .withInPlaceMerge(true);
+      TestPOJO target = pojoList(4, i -> "old");
+      List<TestPOJO> targetList = new ArrayList<>(target.getPojoList());
+      target.setPojoList(targetList);
+
+      FieldUpdateResult result = inPlaceOperation.execute(target, pojoList(5, i -> "new"));
+
+      assertThat(result).hasToString(
+          "pojoList{[0]{fieldOne},[1]{fieldOne},[2]{fieldOne},[3]{fieldOne},[4]}");
+      assertThat(target.getPojoList()).isSameAs(targetList).hasSize(5)
+          .extracting(TestPOJO::getFieldOne).containsOnly("new");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static TestPOJO pojoWithStrings(String... strings) {
+    TestPOJO pojo = new TestPOJO();
+    pojo.setStringList(List.of(strings));
+    return pojo;
+  }
+
+  @Test
+  public void testNullKeys() {
+    ListUpdateOperation<TestPOJO, String, String> nullKeyOperation =
+        new ListUpdateOperation<>(STRING_LIST_FIELD, TestPOJO::getStringList,
+            TestPOJO::setStringList, CollectionUtils::isNotEmpty,
+            s -> s.startsWith("-") ? null : s.substring(0, 1), null);
+
+    TestPOJO target = new TestPOJO();
+    target.setStringList(List.of("-1", "1"));
+
+    TestPOJO source = new TestPOJO();
+    source.setStringList(List.of("-2", "2"));
+
+    assertThat(nullKeyOperation.execute(target, source)).hasToString("stringList{[0],[2]}");
+    assertThat(target.getStringList()).containsExactly("-2", "1", "2");
+  }
+
+  @Test
+  public void testVersionedNullElements() {
+    ListUpdateOperation<TestPOJO, TestPOJO, String> versionedOperation =
+        new ListUpdateOperation<TestPOJO, TestPOJO, String>(POJO_LIST_FIELD,
+            TestPOJO::getPojoList, TestPOJO::setPojoList, CollectionUtils::isNotEmpty,
+            pojo -> pojo == null ? "0" : pojo.getStringList().get(0),
+            fieldOneProcessor(TestPOJO::setFieldOne))
+            .withElementVersionProvider(TestPOJO::getFieldOne);
+    List<TestPOJO> oldElements = pojoList(2, i -> "old").getPojoList();
+    List<TestPOJO> newElements = pojoList(2, i -> "new").getPojoList();
+
+    TestPOJO target = new TestPOJO();
+    target.setPojoList(Arrays.asList(null, oldElements.get(1)));
+    TestPOJO source = new TestPOJO();
+    source.setPojoList(Arrays.asList(null, newElements.get(1)));
+
+    assertThat(versionedOperation.execute(target, source)).hasToString("pojoList{[1]{fieldOne}}");
+    assertThat(target.getPojoList()).containsExactly(null, oldElements.get(1));
+    assertThat(oldElements.get(1).getFieldOne()).isEqualTo("new");
+
+    source.setPojoList(Arrays.asList(oldElements.get(0), newElements.get(1)));
+
+    assertThat(versionedOperation.execute(target, source)).hasToString("pojoList{[0]}");
+    assertThat(target.getPojoList()).containsExactly(oldElements.get(0), oldElements.get(1));
+  }
+
+  @Test
+  public void testLargeList() {
+    List<String> targetList = IntStream.range(0, 5000)
+        .mapToObj(i -> i + "_t")
+        .collect(Collectors.toList());
+    List<String> sourceList = IntStream.range(2500, 7500)
+        .mapToObj(i -> i + "_s")
+        .collect(Collectors.toList());
+
+    ListUpdateOperation<TestPOJO, String, String> largeListOperation =
+        new ListUpdateOperation<>(STRING_LIST_FIELD, TestPOJO::getStringList,
+            TestPOJO::setStringList, CollectionUtils::isNotEmpty, s -> s.split("_")[0], null);
+
+    TestPOJO target = new TestPOJO();
+    target.setStringList(targetList);
+
+    TestPOJO source = new TestPOJO();
+    source.setStringList(sourceList);
+
+    FieldUpdateResult result = largeListOperation.execute(target, source);
+
+    List<String> expected = new ArrayList<>(targetList.subList(0, 2500));
+    expected.addAll(sourceList);
+    assertThat(target.getStringList()).isEqualTo(expected);
+    assertThat(result.getChildren())
+        .extracting(FieldUpdateResult::getIndex)
+        .isEqualTo(IntStream.range(2500, 7500).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testMergeStreaming() {
+    List<String> targetList = IntStream.range(0, 5000)
+        .mapToObj(i -> i + "_t")
+        .collect(Collectors.toList());
+    List<String> sourceList = IntStream.range(2500, 7500)
+        .map(i -> 10000 - i)
+        .mapToObj(i -> i + "_s")
+        .collect(Collectors.toList());
+    sourceList.add("3000_d");
+
+    ListUpdateOperation<TestPOJO, String, String> largeListOperation =
+        new ListUpdateOperation<>(STRING_LIST_FIELD, TestPOJO::getStringList,
+            TestPOJO::setStringList, CollectionUtils::isNotEmpty, s -> s.split("_")[0], null);
+
+    TestPOJO expectedTarget = new TestPOJO();
+    expectedTarget.setStringList(targetList);
+    TestPOJO expectedSource = new TestPOJO();
+    expectedSource.setStringList(sourceList);
+    FieldUpdateResult expected = largeListOperation.execute(expectedTarget, expectedSource);
+
+    TestPOJO target = new TestPOJO();
+    target.setStringList(targetList);
+
+    FieldUpdateResult result = largeListOperation.mergeStreaming(target, sourceList.stream());
+
+    assertThat(target.getStringList()).isEqualTo(expectedTarget.getStringList());
+    assertThat(result.getChildren())
+        .extracting(FieldUpdateResult::getIndex)
+        .containsExactlyInAnyOrderElementsOf(expected.getChildren().stream()
+            .map(FieldUpdateResult::getIndex)
+            .collect(Collectors.toList()));
+    assertThat(largeListOperation.mergeStreaming(target, Stream.empty())).isNull();
+  }
+
+  @Test
+  public void testUnchangedList() {
+    TestPOJO target = new TestPOJO();
+    target.setStringList(Arrays.asList("1", "2"));
+
+    TestPOJO source = new TestPOJO();
+    source.setStringList(List.of("1", "2"));
+
+    assertThat(operation.execute(target, source)).isNull();
+  }
+
+  @Test
+  public void testParallelMerge() {
+    FieldUpdateProcessor<TestPOJO> elementProcessor = fieldOneProcessor(TestPOJO::setFieldOne);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ListUpdateOperation<TestPOJO, TestPOJO, String> parallelOperation =
+          pojoListOperation(elementProcessor, 16, executor);
+
+      TestPOJO target = pojoList(1000, i -> "t" + i);
+      TestPOJO source = pojoList(1000, i -> i % 3 == 0 ? "s" + i : "t" + i);
+      TestPOJO expectedTarget = pojoList(1000, i -> "t" + i);
+
+      FieldUpdateResult result = parallelOperation.execute(target, source);
+      FieldUpdateResult expected = pojoListOperation(elementProcessor, Integer.MAX_VALUE, null)
+          .execute(expectedTarget, source);
+
+      assertThat(result).hasToString(expected.toString());
+      assertThat(target.getPojoList())
+          .extracting(TestPOJO::getFieldOne)
+          .isEqualTo(expectedTarget.getPojoList().stream()
+              .map(TestPOJO::getFieldOne)
+              .collect(Collectors.toList()));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testNestedParallelMergeOnSharedExecutor() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      FieldUpdateProcessor<TestPOJO> elementProcessor = new BaseFieldUpdateProcessor<>() {
+        {
+          mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+              pojo -> pojo.getStringList().get(0), fieldOneProcessor(TestPOJO::setFieldOne), 1,
+              executor);
+        }
+      };
+      ListUpdateOperation<TestPOJO, TestPOJO, String> parallelOperation =
+          pojoListOperation(elementProcessor, 1, executor);
+      TestPOJO target = pojoList(8, i -> "t");
+      target.getPojoList().forEach(element -> element.setPojoList(pojoList(8, i -> "t")
+          .getPojoList()));
+      TestPOJO source = pojoList(8, i -> "t");
+      source.getPojoList().forEach(element -> element.setPojoList(pojoList(8, i -> "s")
+          .getPojoList()));
+
+      FieldUpdateResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+          () -> parallelOperation.execute(target, source));
+
+      assertThat(result.getChildren()).hasSize(8);
+      assertThat(target.getPojoList())
+          .flatExtracting(TestPOJO::getPojoList)
+          .extracting(TestPOJO::getFieldOne)
+          .hasSize(64)
+          .containsOnly("s");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testParallelMergeException() {
+    FieldUpdateProcessor<TestPOJO> elementProcessor = fieldOneProcessor((pojo, value) -> {
+      if (value.endsWith("7")) {
+        throw new IllegalStateException();
+      }
+    });
+    ListUpdateOperation<TestPOJO, TestPOJO, String> parallelOperation =
+        pojoListOperation(elementProcessor, 1, null);
+
+    assertThatThrownBy(() -> parallelOperation.execute(pojoList(100, i -> "t" + i),
+        pojoList(100, i -> "s" + i)))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: pojoList[7].fieldOne")
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void testParallelMergeCollectingErrors() {
+    FieldUpdateProcessor<TestPOJO> elementProcessor = fieldOneProcessor((pojo, value) -> {
+      if (value.endsWith("7")) {
+        throw new IllegalStateException();
+      }
+      pojo.setFieldOne(value);
+    });
+    ListUpdateOperation<TestPOJO, TestPOJO, String> parallelOperation =
+        pojoListOperation(elementProcessor, 1, null);
+    TestPOJO target = pojoList(100, i -> "t" + i);
+
+    ErrorCollector collector = new ErrorCollector(new FieldUpdateResultCollector());
+    parallelOperation.execute(target, pojoList(100, i -> "s" + i), collector);
+
+    assertThat(collector.getErrors()).extracting(PatchError::getPath)
+        .containsExactlyElementsOf(IntStream.range(0, 10)
+            .mapToObj(i -> "pojoList[" + (i * 10 + 7) + "].fieldOne")
+            .collect(Collectors.toList()));
+    assertThat(collector.getErrors().get(0).getCause())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(target.getPojoList().get(7).getFieldOne()).isEqualTo("t7");
+    assertThat(target.getPojoList().get(8).getFieldOne()).isEqualTo("s8");
+  }
+
+  private static FieldUpdateProcessor<TestPOJO> fieldOneProcessor(
+      BiConsumer<TestPOJO, String> setter) {
+    return new BaseFieldUpdateProcessor<>() {
+      {
+        map(FIELD_ONE, TestPOJO::getFieldOne, setter);
+      }
+    };
+  }
+
+  private static ListUpdateOperation<TestPOJO, TestPOJO, String> pojoListOperation(
+      FieldUpdateProcessor<TestPOJO> elementProcessor, int parallelThreshold,
+      ExecutorService executor) {
+    return new ListUpdateOperation<TestPOJO, TestPOJO, String>(POJO_LIST_FIELD,
+        TestPOJO::getPojoList, TestPOJO::setPojoList, CollectionUtils::isNotEmpty,
+        pojo -> pojo.getStringList().get(0), null)
+        .withFieldUpdateProcessor(elementProcessor)
+        .withParallelMerge(parallelThreshold, executor);
+  }
+
+  private static TestPOJO pojoList(int size, IntFunction<String> fieldOne) {
+    TestPOJO pojo = new TestPOJO();
+    pojo.setPojoList(IntStream.range(0, size)
+        .mapToObj(i -> {
+          TestPOJO element = new TestPOJO();
+          element.setStringList(List.of(String.valueOf(i)));
+          element.setFieldOne(fieldOne.apply(i));
+          return element;
+        })
+        .collect(Collectors.toList()));
+    return pojo;
+  }
+}
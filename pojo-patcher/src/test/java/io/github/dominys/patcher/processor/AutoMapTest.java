@@ -0,0 +1,93 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.UpdateOperation;
+import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.ListUpdateOperation;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AutoMapTest {
+
+  @Test
+  public void testAutoMap() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.autoMap(TestPOJO.class);
+
+    assertThat(processor.getOperations())
+        .extracting(operation -> ((FieldUpdateOperation<?, ?>) operation).getField()
+            .getFieldName())
+        .containsExactly("fieldOne", "stringList", "pojoList");
+
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("originalValue");
+    target.setStringList(List.of("1"));
+
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("updatedValue");
+    source.setStringList(List.of("2"));
+
+    assertThat(processor.execute(target, source)).hasToString("{fieldOne,stringList}");
+    assertThat(target.getFieldOne()).isEqualTo("updatedValue");
+    assertThat(target.getStringList()).isEqualTo(List.of("2"));
+  }
+
+  @Test
+  public void testAutoMapNestedList() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.autoMap(TestPOJO.class, AutoMapOptions.builder()
+        .nested(TestPOJO.class)
+        .listKey(TestPOJO.class, "fieldOne")
+        .listKey(String.class, s -> s.charAt(0))
+        .exclude("fieldOne")
+        .build());
+
+    List<UpdateOperation<TestPOJO>> operations = processor.getOperations();
+    assertThat(operations).hasSize(2);
+    assertThat(((ListUpdateOperation<?, ?, ?>) operations.get(1)).getFieldUpdateProcessor())
+        .isSameAs(processor);
+
+    TestPOJO child = new TestPOJO();
+    child.setFieldOne("child");
+    child.setStringList(List.of("1_1", "2_1"));
+    TestPOJO target = new TestPOJO();
+    target.setPojoList(List.of(child));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("child");
+    sourceChild.setStringList(List.of("2_2", "3_2"));
+    TestPOJO source = new TestPOJO();
+    source.setPojoList(List.of(sourceChild));
+
+    FieldUpdateResult result = processor.execute(target, source);
+
+    assertThat(result).hasToString("{pojoList{[0]{stringList{[1],[2]}}}}");
+    assertThat(child.getStringList()).containsExactly("1_1", "2_2", "3_2");
+  }
+
+  @Test
+  public void testPropertiesAreCached() {
+    BaseFieldUpdateProcessor<TestPOJO> first = new BaseFieldUpdateProcessor<>();
+    first.autoMap(TestPOJO.class);
+    BaseFieldUpdateProcessor<TestPOJO> second = new BaseFieldUpdateProcessor<>();
+    second.autoMap(TestPOJO.class);
+
+    FieldUpdateOperation<?, ?> firstOperation =
+        (FieldUpdateOperation<?, ?>) first.getOperations().get(0);
+    FieldUpdateOperation<?, ?> secondOperation =
+        (FieldUpdateOperation<?, ?>) second.getOperations().get(0);
+    assertThat(firstOperation.getField()).isSameAs(secondOperation.getField());
+    assertThat(firstOperation.getGetter()).isSameAs(secondOperation.getGetter());
+  }
+
+  @Test
+  public void testUnknownKeyProperty() {
+    assertThatThrownBy(() -> AutoMapOptions.builder().listKey(TestPOJO.class, "unknown"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
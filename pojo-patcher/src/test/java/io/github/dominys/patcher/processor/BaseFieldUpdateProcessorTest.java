@@ -1,16 +1,24 @@
 package io.github.dominys.patcher.processor;
 
+import io.github.dominys.patcher.BatchUpdateResult;
+import io.github.dominys.patcher.CountingUpdateListener;
 import io.github.dominys.patcher.FieldUpdateException;
 import io.github.dominys.patcher.FieldUpdateProcessor;
 import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
 import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.PatchError;
 import io.github.dominys.patcher.operation.FieldUpdateOperation;
+import io.github.dominys.patcher.operation.IntFieldUpdateOperation;
 import io.github.dominys.patcher.operation.ListUpdateOperation;
 import org.apache.commons.collections4.CollectionUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -48,6 +56,407 @@ public class BaseFieldUpdateProcessorTest {
     assertThat(target.getStringList()).isEqualTo(List.of("1_2", "2_1", "3_1", "4_2"));
   }
 
+  @Test
+  public void testExecuteWithListener() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+
+    TestPOJO targetChild = new TestPOJO();
+    targetChild.setFieldOne("child");
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("value");
+    target.setPojoList(List.of(targetChild));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("child");
+    TestPOJO newChild = new TestPOJO();
+    newChild.setFieldOne("newChild");
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("value");
+    source.setPojoList(List.of(sourceChild, newChild));
+
+    CountingUpdateListener listener = new CountingUpdateListener();
+    processor.execute(target, source, listener);
+
+    assertThat(listener.getCount()).isEqualTo(1);
+    assertThat(target.getPojoList()).containsExactly(targetChild, newChild);
+
+    listener.reset();
+    processor.execute(target, source, listener);
+
+    assertThat(listener.hasUpdates()).isFalse();
+  }
+
+  @Test
+  public void testExecuteWithoutUpdates() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.map(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList);
+
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("value");
+
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("value");
+
+    assertThat(processor.execute(target, source)).isSameAs(FieldUpdateResult.empty());
+
+    source.setStringList(List.of("1"));
+    FieldUpdateResult fieldUpdateResult = processor.execute(target, source);
+
+    assertThat(fieldUpdateResult).hasToString("{stringList}");
+    assertThat(fieldUpdateResult.getChildren().get(0))
+        .isSameAs(FieldUpdateResult.of(STRING_LIST_FIELD));
+  }
+
+  @Test
+  public void testChangedFields() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.map(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList);
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+
+    TestPOJO targetChild = new TestPOJO();
+    targetChild.setFieldOne("child");
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("value");
+    target.setPojoList(List.of(targetChild));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("child");
+    sourceChild.setStringList(List.of("1"));
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("value");
+    source.setPojoList(List.of(sourceChild));
+
+    assertThat(processor.getFieldOrdinals().ordinalOf(POJO_LIST_FIELD)).isEqualTo(2);
+
+    FieldUpdateResult result = processor.compile().diff(target, source);
+
+    assertThat(result.getChangedFields()).hasToString("{2}");
+    assertThat(result.isChanged(POJO_LIST_FIELD)).isTrue();
+    assertThat(result.isChanged(FIELD_ONE)).isFalse();
+    assertThat(result.get("pojoList[0].stringList"))
+        .isSameAs(FieldUpdateResult.of(STRING_LIST_FIELD));
+    assertThat(result.isChanged("pojoList[0].fieldOne")).isFalse();
+    assertThat(processor.execute(target, source).isChanged(POJO_LIST_FIELD)).isTrue();
+  }
+
+  @Test
+  public void testVersioned() {
+    BaseFieldUpdateProcessor<TestPOJO> childProcessor = new BaseFieldUpdateProcessor<>();
+    childProcessor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    childProcessor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList,
+        TestPOJO::setStringList, s -> s.charAt(0));
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.mapVersioned(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne, null,
+        String::length);
+    processor.mergeListVersioned(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        child -> child.getFieldOne().charAt(0), childProcessor, TestPOJO::getFieldOne);
+
+    TestPOJO targetChild = child("a1", "1_1");
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("abc");
+    target.setPojoList(List.of(targetChild, child("b1", "1_1")));
+
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("xyz");
+    source.setPojoList(List.of(child("a1", "1_2"), child("b2", "1_1")));
+
+    FieldUpdateResult result = processor.execute(target, source);
+
+    assertThat(result).hasToString("{pojoList{[1]{fieldOne}}}");
+    assertThat(target.getFieldOne()).isEqualTo("abc");
+    assertThat(targetChild.getStringList()).containsExactly("1_1");
+    assertThat(target.getPojoList().get(1).getFieldOne()).isEqualTo("b2");
+    assertThat(processor.execute(target, source).hasUpdates()).isFalse();
+  }
+
+  private static TestPOJO copy(TestPOJO pojo) {
+    TestPOJO copy = new TestPOJO();
+    copy.setFieldOne(pojo.getFieldOne());
+    if (pojo.getStringList() != null) {
+      copy.setStringList(new ArrayList<>(pojo.getStringList()));
+    }
+    if (pojo.getPojoList() != null) {
+      List<TestPOJO> pojoList = new ArrayList<>();
+      for (TestPOJO child : pojo.getPojoList()) {
+        pojoList.add(copy(child));
+      }
+      copy.setPojoList(pojoList);
+    }
+    return copy;
+  }
+
+  private static TestPOJO child(String fieldOne, String... stringList) {
+    TestPOJO child = new TestPOJO();
+    child.setFieldOne(fieldOne);
+    child.setStringList(List.of(stringList));
+    return child;
+  }
+
+  @Test
+  public void testExecuteTransactional() {
+    BaseFieldUpdateProcessor<TestPOJO> childProcessor = new BaseFieldUpdateProcessor<>();
+    childProcessor.map(STRING_LIST_FIELD, TestPOJO::getStringList, (pojo, list) -> {
+      if (list.contains("bad")) {
+        throw new IllegalArgumentException("Bad value");
+      }
+      pojo.setStringList(list);
+    });
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeListInPlace(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, childProcessor);
+
+    TestPOJO first = child("a", "x");
+    TestPOJO second = child("b", "y");
+    List<TestPOJO> targetList = new ArrayList<>(List.of(first, second));
+    TestPOJO target = child("value");
+    target.setPojoList(targetList);
+    TestPOJO source = child("updated");
+    source.setPojoList(List.of(child("a", "x2"), child("b", "bad"), child("c")));
+
+    assertThatThrownBy(() -> processor.executeTransactional(target, source))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessageContaining("pojoList[1].stringList");
+
+    assertThat(target.getFieldOne()).isEqualTo("value");
+    assertThat(target.getPojoList()).isSameAs(targetList).containsExactly(first, second);
+    assertThat(first.getStringList()).containsExactly("x");
+
+    source.getPojoList().get(1).setStringList(List.of("y2"));
+    assertThat(processor.executeTransactional(target, source))
+        .hasToString("{fieldOne,pojoList{[0]{stringList},[1]{stringList},[2]}}");
+    assertThat(target.getPojoList()).isSameAs(targetList).hasSize(3);
+    assertThat(second.getStringList()).containsExactly("y2");
+  }
+
+  @Test
+  public void testExecuteTransactionalRejectsProcessorsWithoutListenerSupport() {
+    FieldUpdateProcessor<TestPOJO> lambdaProcessor = (target, source) -> {
+      target.setFieldOne(source.getFieldOne());
+      return FieldUpdateResult.empty();
+    };
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        pojo -> "key", lambdaProcessor);
+
+    TestPOJO target = child("value");
+    TestPOJO source = child("updated");
+
+    assertThatThrownBy(() -> lambdaProcessor.executeTransactional(target, source))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("does not support transactional updates");
+    assertThat(target.getFieldOne()).isEqualTo("value");
+
+    TestPOJO targetChild = child("value");
+    target.setPojoList(List.of(targetChild));
+    source.setPojoList(List.of(child("updated")));
+
+    assertThatThrownBy(() -> processor.executeTransactional(target, source))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(target.getFieldOne()).isEqualTo("value");
+    assertThat(targetChild.getFieldOne()).isEqualTo("value");
+  }
+
+  @Test
+  public void testExecuteCollectingErrors() {
+    BaseFieldUpdateProcessor<TestPOJO> childProcessor = new BaseFieldUpdateProcessor<>();
+    childProcessor.map(STRING_LIST_FIELD, TestPOJO::getStringList, (pojo, list) -> {
+      if (list.contains("bad")) {
+        throw new IllegalArgumentException("Bad value");
+      }
+      pojo.setStringList(list);
+    });
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, childProcessor);
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    TestPOJO target = child("value");
+    target.setPojoList(List.of(child("a", "x"), child("b", "y")));
+    TestPOJO source = child("updated");
+    source.setPojoList(List.of(child("a", "bad"), child("b", "y2"), child("c", "bad")));
+
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    List<PatchError> errors = processor.executeCollectingErrors(target, source, collector);
+
+    assertThat(errors).extracting(PatchError::getPath)
+        .containsExactly("pojoList[0].stringList");
+    assertThat(errors.get(0).getDepth()).isEqualTo(3);
+    assertThat(errors.get(0).getField(0)).isEqualTo(POJO_LIST_FIELD);
+    assertThat(errors.get(0).getIndex(1)).isZero();
+    assertThat(errors.get(0).getCause()).hasMessage("Bad value");
+    assertThat(errors.get(0).toException())
+        .hasMessage("Failed to update field: pojoList[0].stringList");
+    assertThat(collector.getResult())
+        .hasToString("{pojoList{[0],[1]{stringList},[2]},fieldOne}");
+    assertThat(target.getFieldOne()).isEqualTo("updated");
+    assertThat(target.getPojoList().get(0).getStringList()).containsExactly("x");
+    assertThat(target.getPojoList().get(1).getStringList()).containsExactly("y2");
+  }
+
+  @Test
+  public void testExecuteCoalesced() {
+    BaseFieldUpdateProcessor<TestPOJO> childProcessor = new BaseFieldUpdateProcessor<>();
+    childProcessor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    childProcessor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList,
+        TestPOJO::setStringList, s -> s.charAt(0));
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+        s -> s.charAt(0));
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, childProcessor);
+
+    TestPOJO first = child("a", "x1");
+    first.setPojoList(List.of(child("p", "1")));
+    TestPOJO second = child(null, "y1", "x2");
+    second.setPojoList(List.of(child("p", "2"), child("q")));
+    TestPOJO third = child("c");
+    third.setPojoList(List.of(child("p", "1", "3")));
+    TestPOJO target = child("value", "z");
+    target.setPojoList(List.of(child("p", "0")));
+
+    FieldUpdateResult result = processor.executeCoalesced(target, List.of(first, second, third),
+        BaseFieldUpdateProcessorTest::copy);
+
+    assertThat(result).hasToString("{fieldOne,stringList{[1],[2]},pojoList{[0]{stringList{[1],"
+        + "[2],[3]}},[1]}}");
+    assertThat(target.getFieldOne()).isEqualTo("c");
+    assertThat(target.getStringList()).containsExactly("z", "x2", "y1");
+    assertThat(target.getPojoList()).hasSize(2);
+    assertThat(target.getPojoList().get(0).getStringList()).containsExactly("0", "1", "2", "3");
+    assertThat(first.getFieldOne()).isEqualTo("a");
+    assertThat(first.getStringList()).containsExactly("x1");
+    assertThat(first.getPojoList()).hasSize(1);
+    assertThat(first.getPojoList().get(0).getStringList()).containsExactly("1");
+    assertThat(second.getPojoList().get(0).getStringList()).containsExactly("2");
+    assertThatThrownBy(() -> processor.coalesce(List.of(), BaseFieldUpdateProcessorTest::copy))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testCoalesceInPlace() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.mergeListInPlace(STRING_LIST_FIELD, TestPOJO::getStringList,
+        TestPOJO::setStringList, s -> s.charAt(0), null);
+
+    TestPOJO first = child("a", "x1");
+    TestPOJO second = child("b", "y1");
+
+    TestPOJO combined = processor.coalesce(List.of(first, second),
+        BaseFieldUpdateProcessorTest::copy);
+
+    assertThat(combined.getStringList()).containsExactly("x1", "y1");
+    assertThat(first.getStringList()).containsExactly("x1");
+  }
+
+  @Test
+  public void testFreeze() {
+    BaseFieldUpdateProcessor<TestPOJO> childProcessor = new BaseFieldUpdateProcessor<>();
+    childProcessor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, childProcessor);
+
+    assertThat(processor.freeze()).isSameAs(processor);
+
+    assertThat(processor.isFrozen()).isTrue();
+    assertThat(childProcessor.isFrozen()).isTrue();
+    assertThat(processor.getOperations()).isSameAs(processor.getOperations()).hasSize(2);
+    assertThat(processor.getOperation(FIELD_ONE.getFieldName())).isNotNull();
+    assertThat(processor.getFieldOrdinals()).isSameAs(processor.getFieldOrdinals());
+    assertThat(processor.getFieldOrdinals().ordinalOf(POJO_LIST_FIELD)).isEqualTo(1);
+    assertThatThrownBy(() -> processor.getFieldOrdinals().register(STRING_LIST_FIELD))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> childProcessor.mergeList(STRING_LIST_FIELD,
+        TestPOJO::getStringList, TestPOJO::setStringList, s -> s.charAt(0)))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Processor is frozen, field stringList can not be registered");
+
+    TestPOJO target = child("value");
+    target.setPojoList(List.of(child("child")));
+    TestPOJO source = child("updated");
+    source.setPojoList(List.of(child("child"), child("newChild")));
+
+    assertThat(processor.execute(target, source)).hasToString("{fieldOne,pojoList{[0],[1]}}");
+    assertThat(target.getFieldOne()).isEqualTo("updated");
+  }
+
+  @Test
+  public void testDiff() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+        s -> s.charAt(0));
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+
+    TestPOJO targetChild = new TestPOJO();
+    targetChild.setFieldOne("child");
+    targetChild.setStringList(List.of("1_1"));
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("originalValue");
+    target.setStringList(List.of("1_1", "2_1"));
+    target.setPojoList(List.of(targetChild));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("child");
+    sourceChild.setStringList(List.of("1_2"));
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("updatedValue");
+    source.setStringList(List.of("2_2", "3_2"));
+    source.setPojoList(List.of(sourceChild));
+
+    assertThat(processor.diff(target, source))
+        .hasToString("{fieldOne,stringList{[1],[2]},pojoList{[0]{stringList{[0]}}}}");
+    assertThat(processor.diff(target, source, 2)).hasToString("{fieldOne,stringList{[1]}}");
+    assertThat(processor.compile().diff(target, source, 3))
+        .hasToString("{fieldOne,stringList{[1],[2]}}");
+
+    assertThat(target.getFieldOne()).isEqualTo("originalValue");
+    assertThat(target.getStringList()).containsExactly("1_1", "2_1");
+    assertThat(targetChild.getStringList()).containsExactly("1_1");
+
+    assertThat(processor.execute(target, source))
+        .hasToString("{fieldOne,stringList{[1],[2]},pojoList{[0]{stringList{[0]}}}}");
+  }
+
+  @Test
+  public void testDiffRejectsProcessorsWithoutListenerSupport() {
+    FieldUpdateProcessor<TestPOJO> lambdaProcessor = (target, source) -> {
+      target.setFieldOne(source.getFieldOne());
+      return FieldUpdateResult.empty();
+    };
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        pojo -> "key", lambdaProcessor);
+
+    TestPOJO target = child("value");
+    TestPOJO source = child("updated");
+
+    assertThatThrownBy(() -> lambdaProcessor.diff(target, source))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("does not support dry runs");
+    assertThat(target.getFieldOne()).isEqualTo("value");
+
+    TestPOJO targetChild = child("value");
+    target.setPojoList(List.of(targetChild));
+    source.setPojoList(List.of(child("updated")));
+
+    assertThatThrownBy(() -> processor.diff(target, source))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(targetChild.getFieldOne()).isEqualTo("value");
+  }
+
   @Test
   public void testMappingException() {
     BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
@@ -80,6 +489,69 @@ public class BaseFieldUpdateProcessorTest {
         .hasRootCause(exception);
   }
 
+  @Test
+  public void testExecuteBatch() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, (pojo, value) -> {
+      if (value.equals("fail")) {
+        throw new IllegalStateException();
+      }
+      pojo.setFieldOne(value);
+    });
+
+    List<TestPOJO> targets = new ArrayList<>();
+    List<TestPOJO> sources = new ArrayList<>();
+    for (String value : List.of("value", "fail", "updated", "value")) {
+      TestPOJO target = new TestPOJO();
+      target.setFieldOne("value");
+      targets.add(target);
+      TestPOJO source = new TestPOJO();
+      source.setFieldOne(value);
+      sources.add(source);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      BatchUpdateResult result = processor.executeBatch(targets, sources, executor);
+
+      assertThat(result.size()).isEqualTo(4);
+      assertThat(result.getUpdatedCount()).isEqualTo(1);
+      assertThat(result.getFailedCount()).isEqualTo(1);
+      assertThat(result.getResults()).extracting(String::valueOf)
+          .containsExactly("", "null", "{fieldOne}", "");
+      assertThat(result.getFailure(1))
+          .isInstanceOf(FieldUpdateException.class)
+          .hasMessage("Failed to update field: fieldOne")
+          .hasCauseInstanceOf(IllegalStateException.class);
+      assertThat(targets).extracting(TestPOJO::getFieldOne)
+          .containsExactly("value", "value", "updated", "value");
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(processor.executeBatch(targets, sources).getFailedCount()).isEqualTo(1);
+    assertThatThrownBy(() -> processor.executeBatch(targets, List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testExecuteBatchDuplicateTargets() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    TestPOJO target = child("value");
+    List<TestPOJO> targets = List.of(target, child("value"), target);
+    List<TestPOJO> sources = List.of(child("first"), child("second"), child("third"));
+
+    assertThatThrownBy(() -> processor.executeBatch(targets, sources, Runnable::run))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Target at position 2 occurs twice in the batch, it can not be updated "
+            + "concurrently");
+    assertThat(target.getFieldOne()).isEqualTo("value");
+
+    assertThat(processor.executeBatch(targets, sources).getUpdatedCount()).isEqualTo(3);
+    assertThat(target.getFieldOne()).isEqualTo("third");
+  }
+
 
   @Test
   public void testMapAlways() {
@@ -187,6 +659,83 @@ public class BaseFieldUpdateProcessorTest {
   }
 
 
+  @Test
+  public void testPrimitiveMappings() {
+    TestField count = new TestField("count");
+    TestField total = new TestField("total");
+    TestField ratio = new TestField("ratio");
+    TestField active = new TestField("active");
+    BaseFieldUpdateProcessor<Stats> processor = new BaseFieldUpdateProcessor<>();
+    processor.mapInt(count, Stats::getCount, Stats::setCount);
+    processor.mapLong(total, Stats::getTotal, Stats::setTotal);
+    processor.mapDouble(ratio, Stats::getRatio, Stats::setRatio);
+    processor.mapBoolean(active, Stats::isActive, Stats::setActive);
+
+    Stats target = new Stats(1, 10L, 0.5, false);
+    Stats source = new Stats(1, 20L, Double.NaN, true);
+
+    assertThat(processor.execute(target, source)).hasToString("{total,ratio,active}");
+    assertThat(target.getCount()).isEqualTo(1);
+    assertThat(target.getTotal()).isEqualTo(20L);
+    assertThat(target.getRatio()).isNaN();
+    assertThat(target.isActive()).isTrue();
+    assertThat(processor.execute(target, source).hasUpdates()).isFalse();
+
+    IntFieldUpdateOperation<Stats> operation =
+        (IntFieldUpdateOperation<Stats>) processor.getOperation("count");
+    assertThat(operation.getGetter().apply(target)).isEqualTo(1);
+    CountingUpdateListener listener = new CountingUpdateListener();
+    operation.executeValue(target, 5, listener);
+    assertThat(target.getCount()).isEqualTo(5);
+    assertThat(listener.getCount()).isEqualTo(1);
+  }
+
+  public static class Stats {
+    private int count;
+    private long total;
+    private double ratio;
+    private boolean active;
+
+    public Stats(int count, long total, double ratio, boolean active) {
+      this.count = count;
+      this.total = total;
+      this.ratio = ratio;
+      this.active = active;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public long getTotal() {
+      return total;
+    }
+
+    public void setTotal(long total) {
+      this.total = total;
+    }
+
+    public double getRatio() {
+      return ratio;
+    }
+
+    public void setRatio(double ratio) {
+      this.ratio = ratio;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+  }
+
   public static class TestPOJO {
     private String fieldOne;
     private List<String> stringList;
@@ -0,0 +1,291 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.DiffCollector;
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateResultCollector;
+import io.github.dominys.patcher.ModelField;
+import io.github.dominys.patcher.UpdateListener;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ImmutableFieldUpdateProcessorTest {
+
+  private static final TestField NAME_FIELD = new TestField("name");
+  private static final TestField QUANTITY_FIELD = new TestField("quantity");
+  private static final TestField CUSTOMER_FIELD = new TestField("customer");
+  private static final TestField LINES_FIELD = new TestField("lines");
+
+  private final ImmutableFieldUpdateProcessor<Customer, Customer.Builder> customerProcessor =
+      new ImmutableFieldUpdateProcessor<>(Customer::toBuilder, Customer.Builder::build);
+  private final ImmutableFieldUpdateProcessor<Line, Line> lineProcessor =
+      new ImmutableFieldUpdateProcessor<>(Function.identity(), Function.identity());
+  private final ImmutableFieldUpdateProcessor<Order, Order> processor =
+      new ImmutableFieldUpdateProcessor<>(Function.identity(), Function.identity());
+
+  {
+    customerProcessor.map(NAME_FIELD, Customer::getName, Customer.Builder::name);
+    lineProcessor.map(QUANTITY_FIELD, Line::getQuantity, Line::withQuantity);
+    processor.map(NAME_FIELD, Order::getName, Order::withName);
+    processor.map(CUSTOMER_FIELD, Order::getCustomer, Order::withCustomer, customerProcessor);
+    processor.mergeList(LINES_FIELD, Order::getLines, Order::withLines, Line::getName,
+        lineProcessor);
+  }
+
+  @Test
+  public void testPatch() {
+    Customer customer = new Customer("customer");
+    Line first = new Line("a", 1);
+    Line second = new Line("b", 1);
+    Order target = new Order("order", customer, List.of(first, second));
+
+    assertThat(processor.patch(target, new Order("order", new Customer("customer"),
+        List.of(new Line("a", 1), new Line("b", 1))))).isSameAs(target);
+    assertThat(processor.patch(target, new Order(null, null, List.of()))).isSameAs(target);
+
+    Order source = new Order("updated", new Customer("customer"),
+        List.of(new Line("b", 2), new Line("a", 1), new Line("c", 1)));
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    Order patched = processor.patch(target, source, collector);
+
+    assertThat(collector.getResult()).hasToString("{name,lines{[1]{quantity},[2]}}");
+    assertThat(patched).isNotSameAs(target).isEqualTo(new Order("updated", customer,
+        List.of(first, new Line("b", 2), new Line("c", 1))));
+    assertThat(patched.getCustomer()).isSameAs(customer);
+    assertThat(patched.getLines().get(0)).isSameAs(first);
+    assertThat(patched.getLines().get(2)).isSameAs(source.getLines().get(2));
+    assertThat(target).isEqualTo(new Order("order", customer, List.of(first, second)));
+  }
+
+  @Test
+  public void testBuilderAndDryRun() {
+    Order target = new Order("order", new Customer("customer"), null);
+    Order source = new Order(null, new Customer("updated"), List.of(new Line("a", 1)));
+
+    DiffCollector collector = new DiffCollector(Integer.MAX_VALUE);
+    assertThat(processor.patch(target, source, collector)).isSameAs(target);
+    assertThat(collector.getResult()).hasToString("{customer{name},lines}");
+
+    Order patched = processor.patch(target, source);
+    assertThat(patched.getCustomer()).isEqualTo(new Customer("updated"));
+    assertThat(patched.getLines()).isSameAs(source.getLines());
+
+    Order invalid = new Order(null, null, List.of(new Line("a", -1)));
+    assertThatThrownBy(() -> processor.patch(patched, invalid))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessageContaining("lines[0].quantity")
+        .hasRootCauseMessage("Negative quantity");
+  }
+
+  @Test
+  public void testFailureExitsNestedLevels() {
+    ImmutableFieldUpdateProcessor<Customer, Customer.Builder> failingCustomerProcessor =
+        new ImmutableFieldUpdateProcessor<>(Customer::toBuilder, Customer.Builder::build);
+    failingCustomerProcessor.map(NAME_FIELD, Customer::getName, (builder, name) -> {
+      throw new IllegalArgumentException("Invalid name");
+    });
+    ImmutableFieldUpdateProcessor<Order, Order> failingProcessor =
+        new ImmutableFieldUpdateProcessor<>(Function.identity(), Function.identity());
+    failingProcessor.map(CUSTOMER_FIELD, Order::getCustomer, Order::withCustomer,
+        failingCustomerProcessor);
+    int[] depth = new int[1];
+    UpdateListener listener = new UpdateListener() {
+      @Override
+      public void onFieldUpdate(ModelField field) {
+      }
+
+      @Override
+      public void onElementUpdate(int index) {
+      }
+
+      @Override
+      public void enterField(ModelField field) {
+        depth[0]++;
+      }
+
+      @Override
+      public void exitField(ModelField field) {
+        depth[0]--;
+      }
+
+      @Override
+      public void enterElement(int index) {
+        depth[0]++;
+      }
+
+      @Override
+      public void exitElement(int index) {
+        depth[0]--;
+      }
+    };
+
+    Order target = new Order("order", new Customer("customer"), List.of(new Line("a", 1)));
+    assertThatThrownBy(() -> processor.patch(target,
+        new Order(null, null, List.of(new Line("a", -1))), listener))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessageContaining("lines[0].quantity");
+    assertThat(depth[0]).isZero();
+
+    assertThatThrownBy(() -> failingProcessor.patch(target,
+        new Order(null, new Customer("updated"), null), listener))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessageContaining("customer.name");
+    assertThat(depth[0]).isZero();
+  }
+
+  @Test
+  public void testNullElements() {
+    ImmutableFieldUpdateProcessor<Order, Order> nullSafeProcessor =
+        new ImmutableFieldUpdateProcessor<>(Function.identity(), Function.identity());
+    nullSafeProcessor.mergeList(LINES_FIELD, Order::getLines, Order::withLines,
+        line -> line == null ? "a" : line.getName(), lineProcessor);
+    Line second = new Line("b", 1);
+    Order target = new Order(null, null, Arrays.asList(null, second));
+    Order source = new Order(null, null, Arrays.asList(new Line("a", 1), null, new Line("b", 2)));
+
+    FieldUpdateResultCollector collector = new FieldUpdateResultCollector();
+    Order patched = nullSafeProcessor.patch(target, source, collector);
+
+    assertThat(collector.getResult()).hasToString("{lines{[0],[1]{quantity}}}");
+    assertThat(patched.getLines()).containsExactly(new Line("a", 1), new Line("b", 2));
+    assertThat(target.getLines()).containsExactly(null, second);
+    Order unchanged = new Order(null, null, Arrays.asList(null, second));
+    assertThat(nullSafeProcessor.patch(target, unchanged)).isSameAs(target);
+  }
+
+  public static final class Order {
+    private final String name;
+    private final Customer customer;
+    private final List<Line> lines;
+
+    public Order(String name, Customer customer, List<Line> lines) {
+      this.name = name;
+      this.customer = customer;
+      this.lines = lines;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Order withName(String name) {
+      return new Order(name, customer, lines);
+    }
+
+    public Customer getCustomer() {
+      return customer;
+    }
+
+    public Order withCustomer(Customer customer) {
+      return new Order(name, customer, lines);
+    }
+
+    public List<Line> getLines() {
+      return lines;
+    }
+
+    public Order withLines(List<Line> lines) {
+      return new Order(name, customer, lines);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Order)) {
+        return false;
+      }
+      Order order = (Order) o;
+      return Objects.equals(name, order.name) && Objects.equals(customer, order.customer)
+          && Objects.equals(lines, order.lines);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, customer, lines);
+    }
+  }
+
+  public static final class Customer {
+    private final String name;
+
+    public Customer(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Builder toBuilder() {
+      return new Builder().name(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Customer && Objects.equals(name, ((Customer) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name);
+    }
+
+    public static final class Builder {
+      private String name;
+
+      public Builder name(String name) {
+        this.name = name;
+        return this;
+      }
+
+      public Customer build() {
+        return new Customer(name);
+      }
+    }
+  }
+
+  public static final class Line {
+    private final String name;
+    private final Integer quantity;
+
+    public Line(String name, Integer quantity) {
+      this.name = name;
+      this.quantity = quantity;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Integer getQuantity() {
+      return quantity;
+    }
+
+    public Line withQuantity(Integer quantity) {
+      if (quantity < 0) {
+        throw new IllegalArgumentException("Negative quantity");
+      }
+      return new Line(name, quantity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Line)) {
+        return false;
+      }
+      Line line = (Line) o;
+      return Objects.equals(name, line.name) && Objects.equals(quantity, line.quantity);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, quantity);
+    }
+  }
+}
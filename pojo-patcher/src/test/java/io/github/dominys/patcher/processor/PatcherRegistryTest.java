@@ -0,0 +1,45 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PatcherRegistryTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+
+  @Test
+  public void testResolveByClass() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    FieldUpdateProcessor<CharSequence> charSequenceProcessor = (target, source) -> null;
+
+    PatcherRegistry registry = PatcherRegistry.builder()
+        .register(TestPOJO.class, processor)
+        .register(CharSequence.class, charSequenceProcessor)
+        .build();
+
+    assertThat(processor.isFrozen()).isTrue();
+    assertThat(registry.getProcessor(TestPOJO.class)).isSameAs(processor);
+    assertThat(registry.getProcessor(ChildPOJO.class)).isSameAs(processor);
+    assertThat(registry.getProcessor(String.class)).isSameAs(charSequenceProcessor);
+    assertThat(registry.getProcessor(Integer.class)).isNull();
+    assertThat(registry.getProcessor(Integer.class)).isNull();
+
+    ChildPOJO target = new ChildPOJO();
+    ChildPOJO source = new ChildPOJO();
+    source.setFieldOne("value");
+    assertThat(registry.execute(target, source)).hasToString("{fieldOne}");
+    assertThat(target.getFieldOne()).isEqualTo("value");
+    assertThatThrownBy(() -> registry.execute(1, 2))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("No processor registered for java.lang.Integer");
+  }
+
+  static class ChildPOJO extends TestPOJO {
+  }
+}
@@ -0,0 +1,129 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import io.github.dominys.patcher.processor.compiled.CompiledProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProcessorCompilerTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+  private static final TestField POJO_LIST_FIELD = new TestField("pojoList");
+
+  @Test
+  public void testCompiledExecute() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+        s -> s.charAt(0));
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+
+    FieldUpdateProcessor<TestPOJO> compiled = processor.compile();
+
+    assertThat(compiled).isNotSameAs(processor);
+    assertThat(compiled.getClass().getName()).isEqualTo(CompiledProcessor.class.getName());
+    assertThat(compiled.getClass()).isNotEqualTo(CompiledProcessor.class);
+
+    TestPOJO child = new TestPOJO();
+    child.setFieldOne("child");
+    child.setStringList(List.of("1_1"));
+    TestPOJO target = new TestPOJO();
+    target.setFieldOne("originalValue");
+    target.setStringList(List.of("1_1", "2_1", "3_1"));
+    target.setPojoList(List.of(child));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("child");
+    sourceChild.setStringList(List.of("1_2"));
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("updatedValue");
+    source.setStringList(List.of("1_2", "4_2"));
+    source.setPojoList(List.of(sourceChild));
+
+    FieldUpdateResult fieldUpdateResult = compiled.execute(target, source);
+
+    assertThat(fieldUpdateResult)
+        .hasToString("{fieldOne,stringList{[0],[3]},pojoList{[0]{stringList{[0]}}}}");
+    assertThat(target.getFieldOne()).isEqualTo("updatedValue");
+    assertThat(target.getStringList()).isEqualTo(List.of("1_2", "2_1", "3_1", "4_2"));
+    assertThat(child.getStringList()).isEqualTo(List.of("1_2"));
+  }
+
+  @Test
+  public void testCompiledClassesAreReused() {
+    FieldUpdateProcessor<TestPOJO> first = recursiveProcessor().compile();
+    FieldUpdateProcessor<TestPOJO> second = recursiveProcessor().compile();
+    BaseFieldUpdateProcessor<TestPOJO> other = new BaseFieldUpdateProcessor<>();
+    other.map(FIELD_ONE, TestPOJO::getFieldOne, (pojo, value) -> pojo.setFieldOne(value));
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getClass()).isSameAs(first.getClass());
+    FieldUpdateProcessor<TestPOJO> otherCompiled = other.compile();
+    assertThat(otherCompiled.getClass()).isNotSameAs(first.getClass());
+    assertThat(otherCompiled.getClass().getName()).isEqualTo(first.getClass().getName());
+
+    TestPOJO target = new TestPOJO();
+    TestPOJO source = new TestPOJO();
+    source.setFieldOne("value");
+    assertThat(second.execute(target, source)).hasToString("{fieldOne}");
+    assertThat(target.getFieldOne()).isEqualTo("value");
+  }
+
+  private static BaseFieldUpdateProcessor<TestPOJO> recursiveProcessor() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+    return processor;
+  }
+
+  @Test
+  public void testCompiledMappingException() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.map(STRING_LIST_FIELD, TestPOJO::getStringList, (pojo, list) -> {
+      throw new IllegalStateException("test exception");
+    });
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+
+    TestPOJO child = new TestPOJO();
+    child.setFieldOne("someVal");
+    TestPOJO target = new TestPOJO();
+    target.setPojoList(List.of(child));
+
+    TestPOJO sourceChild = new TestPOJO();
+    sourceChild.setFieldOne("someVal");
+    sourceChild.setStringList(List.of("1"));
+    TestPOJO source = new TestPOJO();
+    source.setPojoList(List.of(sourceChild));
+
+    assertThatThrownBy(() -> processor.compile().execute(target, source))
+        .isInstanceOf(FieldUpdateException.class)
+        .hasMessage("Failed to update field: pojoList[0].stringList")
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void testOverriddenExecuteIsNotCompiled() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>() {
+      @Override
+      public FieldUpdateResult execute(TestPOJO target, TestPOJO source) {
+        return FieldUpdateResult.empty();
+      }
+    };
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+
+    assertThat(processor.compile()).isSameAs(processor);
+  }
+}
@@ -0,0 +1,96 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateException;
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.metrics.FieldMetrics;
+import io.github.dominys.patcher.metrics.PatchMetrics;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProcessorInstrumenterTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+  private static final TestField POJO_LIST_FIELD = new TestField("pojoList");
+
+  @Test
+  public void testInstrumentedExecute() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = processor();
+    PatchMetrics metrics = new PatchMetrics();
+    FieldUpdateProcessor<TestPOJO> instrumented = processor.instrument(metrics);
+
+    TestPOJO child = pojo("child", List.of("1_1"));
+    TestPOJO target = pojo("originalValue", List.of("1_1", "2_1"));
+    target.setPojoList(List.of(child));
+    TestPOJO source = pojo("updatedValue", List.of("1_2", "3_2"));
+    source.setPojoList(List.of(pojo("child", List.of("1_1")), pojo("newChild", null)));
+
+    FieldUpdateResult result = instrumented.execute(target, source);
+
+    assertThat(result).hasToString("{fieldOne,stringList{[0],[2]},pojoList{[0],[1]}}");
+    assertThat(target.getStringList()).isEqualTo(List.of("1_2", "2_1", "3_2"));
+    assertThat(metrics.getExecutionCount()).isEqualTo(1);
+    assertThat(metrics.getLatency().getCount()).isEqualTo(1);
+    assertThat(metrics.getLatency().getPercentileNanos(1)).isPositive();
+
+    FieldMetrics fieldOne = metrics.getFieldMetrics(FIELD_ONE);
+    assertThat(fieldOne.getChangeCount()).isEqualTo(1);
+    assertThat(fieldOne.getNoOpCount()).isEqualTo(1);
+    FieldMetrics stringList = metrics.getFieldMetrics(STRING_LIST_FIELD);
+    assertThat(stringList.getChangeCount()).isEqualTo(1);
+    assertThat(stringList.getNoOpCount()).isEqualTo(1);
+    assertThat(stringList.getListMergeCount()).isEqualTo(1);
+    assertThat(stringList.getMergedElementCount()).isEqualTo(2);
+    assertThat(stringList.getLatency().getCount()).isEqualTo(2);
+    FieldMetrics pojoList = metrics.getFieldMetrics(POJO_LIST_FIELD);
+    assertThat(pojoList.getChangeCount()).isEqualTo(1);
+    assertThat(pojoList.getNoOpCount()).isEqualTo(1);
+    assertThat(pojoList.getMergedElementCount()).isEqualTo(2);
+    assertThat(metrics.getFieldMetrics()).hasSize(3);
+  }
+
+  @Test
+  public void testErrorsAndDisabled() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, (pojo, value) -> {
+      throw new IllegalStateException("readonly");
+    });
+    PatchMetrics metrics = new PatchMetrics();
+    FieldUpdateProcessor<TestPOJO> instrumented = processor.instrument(metrics);
+
+    assertThatThrownBy(() -> instrumented.execute(new TestPOJO(), pojo("value", null)))
+        .isInstanceOf(FieldUpdateException.class);
+    metrics.setEnabled(false);
+    assertThatThrownBy(() -> instrumented.execute(new TestPOJO(), pojo("value", null)))
+        .isInstanceOf(FieldUpdateException.class);
+
+    assertThat(metrics.getErrorCount()).isEqualTo(1);
+    assertThat(metrics.getExecutionCount()).isEqualTo(1);
+    assertThat(metrics.getFieldMetrics(FIELD_ONE).getErrorCount()).isEqualTo(1);
+    assertThat(metrics.getFieldMetrics(FIELD_ONE).getNoOpCount()).isZero();
+  }
+
+  private static BaseFieldUpdateProcessor<TestPOJO> processor() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+        s -> s.charAt(0));
+    processor.mergeList(POJO_LIST_FIELD, TestPOJO::getPojoList, TestPOJO::setPojoList,
+        TestPOJO::getFieldOne, processor);
+    return processor;
+  }
+
+  private static TestPOJO pojo(String fieldOne, List<String> stringList) {
+    TestPOJO pojo = new TestPOJO();
+    pojo.setFieldOne(fieldOne);
+    pojo.setStringList(stringList);
+    return pojo;
+  }
+}
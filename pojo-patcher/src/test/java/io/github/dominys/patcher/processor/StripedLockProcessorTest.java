@@ -0,0 +1,169 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestPOJO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StripedLockProcessorTest {
+
+  private static final TestField FIELD_ONE = new TestField("fieldOne");
+  private static final TestField STRING_LIST_FIELD = new TestField("stringList");
+
+  @Test
+  public void testConcurrentExecute() throws Exception {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, TestPOJO::setStringList,
+        s -> s);
+    FieldUpdateProcessor<TestPOJO> concurrent = processor.concurrent(4);
+
+    assertThat(processor.isFrozen()).isTrue();
+    assertThat(concurrent.getFieldOrdinals()).isSameAs(processor.getFieldOrdinals());
+
+    TestPOJO target = new TestPOJO();
+    target.setStringList(List.of());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        int threadIndex = thread;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 200; i++) {
+            TestPOJO source = new TestPOJO();
+            source.setFieldOne("value" + threadIndex);
+            source.setStringList(List.of(threadIndex + "_" + i));
+            concurrent.execute(target, source);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(target.getStringList()).hasSize(1600).doesNotHaveDuplicates();
+    assertThat(target.getFieldOne()).startsWith("value");
+  }
+
+  @Test
+  public void testDisjointFieldsRunInParallel() throws Exception {
+    CountDownLatch fieldOneEntered = new CountDownLatch(1);
+    CountDownLatch fieldOneReleased = new CountDownLatch(1);
+    CountDownLatch stringListUpdated = new CountDownLatch(1);
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.mergeList(STRING_LIST_FIELD, TestPOJO::getStringList, (pojo, val) -> {
+      pojo.setStringList(val);
+      stringListUpdated.countDown();
+    }, s -> s);
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, (pojo, val) -> {
+      fieldOneEntered.countDown();
+      try {
+        fieldOneReleased.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      pojo.setFieldOne(val);
+    });
+    FieldUpdateProcessor<TestPOJO> concurrent = processor.concurrent(2);
+
+    TestPOJO target = new TestPOJO();
+    TestPOJO fieldOneSource = new TestPOJO();
+    fieldOneSource.setFieldOne("updated");
+    TestPOJO stringListSource = new TestPOJO();
+    stringListSource.setStringList(List.of("value"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> fieldOneUpdate = executor.submit(() -> concurrent.execute(target, fieldOneSource));
+      assertThat(fieldOneEntered.await(10, TimeUnit.SECONDS)).isTrue();
+      Future<?> stringListUpdate =
+          executor.submit(() -> concurrent.execute(target, stringListSource));
+
+      assertThat(stringListUpdated.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(fieldOneUpdate).isNotDone();
+
+      fieldOneReleased.countDown();
+      fieldOneUpdate.get(10, TimeUnit.SECONDS);
+      stringListUpdate.get(10, TimeUnit.SECONDS);
+    } finally {
+      fieldOneReleased.countDown();
+      executor.shutdownNow();
+    }
+
+    assertThat(target.getFieldOne()).isEqualTo("updated");
+    assertThat(target.getStringList()).isEqualTo(List.of("value"));
+  }
+
+  @Test
+  public void testPatchesAreAtomic() throws Exception {
+    CountDownLatch stringListEntered = new CountDownLatch(1);
+    CountDownLatch stringListReleased = new CountDownLatch(1);
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(FIELD_ONE, TestPOJO::getFieldOne, TestPOJO::setFieldOne);
+    processor.map(STRING_LIST_FIELD, TestPOJO::getStringList, (pojo, val) -> {
+      if (val.contains("first")) {
+        stringListEntered.countDown();
+        try {
+          stringListReleased.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      pojo.setStringList(val);
+    });
+    FieldUpdateProcessor<TestPOJO> concurrent = processor.concurrent(16);
+
+    TestPOJO target = new TestPOJO();
+    TestPOJO first = new TestPOJO();
+    first.setFieldOne("first");
+    first.setStringList(List.of("first"));
+    TestPOJO second = new TestPOJO();
+    second.setFieldOne("second");
+    second.setStringList(List.of("second"));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> firstUpdate = executor.submit(() -> concurrent.execute(target, first));
+      assertThat(stringListEntered.await(10, TimeUnit.SECONDS)).isTrue();
+      Future<?> secondUpdate = executor.submit(() -> concurrent.execute(target, second));
+
+      assertThatThrownBy(() -> secondUpdate.get(200, TimeUnit.MILLISECONDS))
+          .isInstanceOf(TimeoutException.class);
+      assertThat(target.getFieldOne()).isEqualTo("first");
+
+      stringListReleased.countDown();
+      firstUpdate.get(10, TimeUnit.SECONDS);
+      secondUpdate.get(10, TimeUnit.SECONDS);
+    } finally {
+      stringListReleased.countDown();
+      executor.shutdownNow();
+    }
+
+    assertThat(target.getFieldOne()).isEqualTo("second");
+    assertThat(target.getStringList()).isEqualTo(List.of("second"));
+  }
+
+  @Test
+  public void testInvalidStripes() {
+    BaseFieldUpdateProcessor<TestPOJO> processor = new BaseFieldUpdateProcessor<>();
+
+    assertThatThrownBy(() -> processor.concurrent(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Stripes must be positive: 0");
+  }
+}
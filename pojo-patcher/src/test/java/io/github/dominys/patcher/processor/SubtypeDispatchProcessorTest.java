@@ -0,0 +1,178 @@
+package io.github.dominys.patcher.processor;
+
+import io.github.dominys.patcher.FieldUpdateProcessor;
+import io.github.dominys.patcher.FieldUpdateResult;
+import io.github.dominys.patcher.processor.BaseFieldUpdateProcessorTest.TestField;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SubtypeDispatchProcessorTest {
+
+  private static final TestField SIZE_FIELD = new TestField("size");
+  private static final TestField SHAPE_FIELD = new TestField("shape");
+  private static final TestField SHAPES_FIELD = new TestField("shapes");
+
+  @Test
+  public void testDispatch() {
+    BaseFieldUpdateProcessor<Circle> circleProcessor = new BaseFieldUpdateProcessor<>();
+    circleProcessor.map(SIZE_FIELD, Circle::getRadius, Circle::setRadius);
+    BaseFieldUpdateProcessor<Square> squareProcessor = new BaseFieldUpdateProcessor<>();
+    squareProcessor.map(SIZE_FIELD, Square::getSide, Square::setSide);
+    SubtypeDispatchProcessor<Shape> shapeProcessor = SubtypeDispatchProcessor.<Shape>builder()
+        .register(Circle.class, circleProcessor)
+        .register(Square.class, squareProcessor)
+        .build();
+
+    BaseFieldUpdateProcessor<Drawing> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(SHAPE_FIELD, Drawing::getShape, Drawing::setShape, shapeProcessor);
+    processor.mergeList(SHAPES_FIELD, Drawing::getShapes, Drawing::setShapes, Shape::getName,
+        shapeProcessor);
+
+    Circle circle = new Circle("a", 1);
+    Circle replacedCircle = new Circle("b", 1);
+    Drawing target = new Drawing(new Square("s", 1), List.of(circle, replacedCircle));
+    Square square = new Square("b", 2);
+    Drawing source = new Drawing(new Square("s", 2), List.of(new Circle("a", 3), square));
+
+    FieldUpdateResult result = processor.execute(target, source);
+
+    assertThat(result).hasToString("{shape{size},shapes{[0]{size},[1]}}");
+    assertThat(((Square) target.getShape()).getSide()).isEqualTo(2);
+    assertThat(target.getShapes()).containsExactly(circle, square);
+    assertThat(circle.getRadius()).isEqualTo(3);
+
+    source.setShape(new Circle("c", 1));
+    assertThat(processor.execute(target, source)).hasToString("{shape,shapes{[0],[1]}}");
+    assertThat(target.getShape()).isSameAs(source.getShape());
+  }
+
+  @Test
+  public void testCoalesceReplacedSubtype() {
+    BaseFieldUpdateProcessor<Square> squareProcessor = new BaseFieldUpdateProcessor<>();
+    squareProcessor.map(SIZE_FIELD, Square::getSide, Square::setSide);
+    SubtypeDispatchProcessor<Shape> shapeProcessor = SubtypeDispatchProcessor.<Shape>builder()
+        .register(Circle.class, new BaseFieldUpdateProcessor<>())
+        .register(Square.class, squareProcessor)
+        .build();
+    BaseFieldUpdateProcessor<Drawing> processor = new BaseFieldUpdateProcessor<>();
+    processor.map(SHAPE_FIELD, Drawing::getShape, Drawing::setShape, shapeProcessor);
+
+    Drawing circleSource = new Drawing(new Circle("c", 1), null);
+    Drawing squareSource = new Drawing(new Square("s", null), null);
+    Drawing target = new Drawing(new Square("s", 1), null);
+    processor.execute(target, circleSource);
+    processor.execute(target, squareSource);
+
+    assertThat(((Square) target.getShape()).getSide()).isNull();
+
+    Square targetSquare = new Square("s", 1);
+    target = new Drawing(targetSquare, null);
+    processor.executeCoalesced(target, List.of(circleSource, squareSource),
+        SubtypeDispatchProcessorTest::copy);
+
+    assertThat(target.getShape()).isSameAs(targetSquare);
+    assertThat(targetSquare.getSide()).isEqualTo(1);
+    assertThat(((Circle) circleSource.getShape()).getRadius()).isEqualTo(1);
+    assertThat(((Square) squareSource.getShape()).getSide()).isNull();
+  }
+
+  private static Drawing copy(Drawing drawing) {
+    Shape shape = drawing.getShape();
+    if (shape instanceof Circle) {
+      shape = new Circle(shape.getName(), ((Circle) shape).getRadius());
+    } else if (shape instanceof Square) {
+      shape = new Square(shape.getName(), ((Square) shape).getSide());
+    }
+    return new Drawing(shape, drawing.getShapes());
+  }
+
+  @Test
+  public void testUnknownSubtype() {
+    FieldUpdateProcessor<Shape> shapeProcessor = SubtypeDispatchProcessor.<Shape>builder()
+        .register(Circle.class, new BaseFieldUpdateProcessor<>())
+        .build();
+
+    assertThat(shapeProcessor.canMerge(new Square("a", 1), new Square("a", 2))).isFalse();
+    assertThat(shapeProcessor.canMerge(new Circle("a", 1), new Square("a", 2))).isFalse();
+    assertThat(shapeProcessor.canMerge(new Circle("a", 1), new Circle("a", 2))).isTrue();
+    assertThatThrownBy(() -> shapeProcessor.execute(new Circle("a", 1), new Square("a", 2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Can not update");
+  }
+
+  public static class Drawing {
+    private Shape shape;
+    private List<Shape> shapes;
+
+    Drawing(Shape shape, List<Shape> shapes) {
+      this.shape = shape;
+      this.shapes = shapes;
+    }
+
+    public Shape getShape() {
+      return shape;
+    }
+
+    public void setShape(Shape shape) {
+      this.shape = shape;
+    }
+
+    public List<Shape> getShapes() {
+      return shapes;
+    }
+
+    public void setShapes(List<Shape> shapes) {
+      this.shapes = shapes;
+    }
+  }
+
+  public abstract static class Shape {
+    private final String name;
+
+    Shape(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  public static class Circle extends Shape {
+    private Integer radius;
+
+    Circle(String name, Integer radius) {
+      super(name);
+      this.radius = radius;
+    }
+
+    public Integer getRadius() {
+      return radius;
+    }
+
+    public void setRadius(Integer radius) {
+      this.radius = radius;
+    }
+  }
+
+  public static class Square extends Shape {
+    private Integer side;
+
+    Square(String name, Integer side) {
+      super(name);
+      this.side = side;
+    }
+
+    public Integer getSide() {
+      return side;
+    }
+
+    public void setSide(Integer side) {
+      this.side = side;
+    }
+  }
+}